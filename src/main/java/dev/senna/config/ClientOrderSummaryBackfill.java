@@ -0,0 +1,42 @@
+package dev.senna.config;
+
+import dev.senna.repository.ClientOrderSummaryRepository;
+import dev.senna.repository.OrderArchiveRepository;
+import dev.senna.repository.OrderRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Preenche {@code tb_client_order_summary} a partir dos pedidos existentes, ativos ou arquivados,
+ * quando a tabela ainda está vazia. Depois disso o resumo é mantido pelas escritas de pedido.
+ */
+@ApplicationScoped
+public class ClientOrderSummaryBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientOrderSummaryBackfill.class);
+
+    @Inject
+    ClientOrderSummaryRepository summaryRepository;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderArchiveRepository orderArchiveRepository;
+
+    @Transactional
+    void backfillOnStartup(@Observes StartupEvent event) {
+        // Com todos os pedidos arquivados tb_order fica vazia, mas os postados ainda contam
+        if (summaryRepository.count() > 0 || (orderRepository.count() == 0 && orderArchiveRepository.count() == 0)) {
+            return;
+        }
+
+        long clients = summaryRepository.rebuild();
+        log.info("Client order summary built for {} clients", clients);
+    }
+}
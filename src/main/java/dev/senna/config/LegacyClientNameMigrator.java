@@ -0,0 +1,89 @@
+package dev.senna.config;
+
+import dev.senna.infra.ClientNameIndex;
+import dev.senna.repository.ClientRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+/**
+ * Preenche {@code tb_client.normalized_name} dos clientes criados antes da coluna existir.
+ * A normalização é a mesma do Java ({@link ClientNameIndex#normalize}), por isso roda aqui e
+ * não em uma migração SQL. Cada cliente tem sua transação: quando o nome colide com outro
+ * depois de normalizado, o valor recebe o id do cliente como sufixo e o caso vai para o log.
+ * Assim todo cliente sai da varredura, e o próximo boot não tenta de novo.
+ */
+@ApplicationScoped
+public class LegacyClientNameMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyClientNameMigrator.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final int NORMALIZED_NAME_LENGTH = 255;
+
+    @Inject
+    ClientRepository clientRepository;
+
+    void migrateOnStartup(@Observes @Priority(Interceptor.Priority.LIBRARY_BEFORE) StartupEvent event) {
+        UUID lastId = null;
+        int migrated = 0;
+
+        while (true) {
+            final UUID afterId = lastId;
+            var clients = QuarkusTransaction.requiringNew()
+                    .call(() -> clientRepository.findWithoutNormalizedName(afterId, BATCH_SIZE));
+            if (clients.isEmpty()) {
+                break;
+            }
+
+            for (var client : clients) {
+                var clientId = client.getClientId();
+                var normalizedName = ClientNameIndex.normalize(client.getClientName());
+
+                if (!updateNormalizedName(clientId, normalizedName)) {
+                    var disambiguated = disambiguate(normalizedName, clientId);
+                    if (!updateNormalizedName(clientId, disambiguated)) {
+                        log.error("Client {} ({}) keeps a null normalized name", client.getClientName(), clientId);
+                        continue;
+                    }
+                    log.warn("Client {} ({}) collides with another client after normalization, stored as '{}'",
+                            client.getClientName(), clientId, disambiguated);
+                }
+                migrated++;
+            }
+            lastId = clients.get(clients.size() - 1).getClientId();
+        }
+
+        if (migrated > 0) {
+            log.info("Normalized the name of {} legacy clients", migrated);
+        }
+    }
+
+    // false quando o índice único recusa o valor
+    private boolean updateNormalizedName(UUID clientId, String normalizedName) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> clientRepository.updateNormalizedName(clientId, normalizedName));
+            return true;
+        } catch (PersistenceException e) {
+            return false;
+        }
+    }
+
+    // O id é único, então o resultado também é, e não depende da ordem em que os clientes são lidos
+    static String disambiguate(String normalizedName, UUID clientId) {
+        var suffix = "#" + clientId;
+        var base = normalizedName.length() + suffix.length() > NORMALIZED_NAME_LENGTH
+                ? normalizedName.substring(0, NORMALIZED_NAME_LENGTH - suffix.length())
+                : normalizedName;
+        return base + suffix;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.senna.config;
+
+import dev.senna.exception.InvalidImageException;
+import dev.senna.infra.ImageStore;
+import dev.senna.repository.ItemRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Move para o {@link ImageStore} as artes que ainda estão gravadas inline em {@code tb_item.image}.
+ * Só são lidos os valores em Base64 com a assinatura de um formato aceito ({@link ImageStore#BASE64_SIGNATURES}).
+ * Roda antes do carregamento do quadro de produção para que ele já suba com os hashes.
+ */
+@ApplicationScoped
+public class LegacyImageMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyImageMigrator.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Inject
+    ItemRepository itemRepository;
+
+    @Inject
+    ImageStore imageStore;
+
+    void migrateOnStartup(@Observes @Priority(Interceptor.Priority.LIBRARY_BEFORE) StartupEvent event) {
+        long lastId = 0;
+        int migrated = 0;
+
+        while (true) {
+            final long afterId = lastId;
+            var batch = QuarkusTransaction.requiringNew().call(() -> migrateBatch(afterId));
+            if (batch.lastId() < 0) {
+                break;
+            }
+            lastId = batch.lastId();
+            migrated += batch.migrated();
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated {} inline item images to the image store", migrated);
+        }
+    }
+
+    private BatchResult migrateBatch(long afterId) {
+        var items = itemRepository.findWithInlineImage(afterId, BATCH_SIZE);
+        if (items.isEmpty()) {
+            return new BatchResult(-1, 0);
+        }
+
+        int migrated = 0;
+        for (var item : items) {
+            try {
+                item.setImage(imageStore.storeEncoded(item.getImage()));
+                migrated++;
+            } catch (InvalidImageException e) {
+                log.warn("Item ID {} keeps its legacy image value: not an inline image", item.getId());
+            }
+        }
+
+        return new BatchResult(items.get(items.size() - 1).getId(), migrated);
+    }
+
+    private record BatchResult(long lastId, int migrated) {
+    }
+}
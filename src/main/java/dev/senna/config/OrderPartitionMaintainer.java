@@ -0,0 +1,55 @@
+package dev.senna.config;
+
+import dev.senna.repository.OrderRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cria com antecedência as partições mensais de {@code tb_order}, na subida e diariamente.
+ * Pedidos de um mês sem partição cairiam na partição default e não seriam podados; os que já
+ * estiverem lá são movidos para a partição do mês.
+ */
+@ApplicationScoped
+public class OrderPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintainer.class);
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "orders.partition.months-ahead", defaultValue = "3")
+    int monthsAhead;
+
+    @Transactional
+    void ensureOnStartup(@Observes StartupEvent event) {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "{orders.partition.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void ensureDaily() {
+        ensurePartitions();
+    }
+
+    private void ensurePartitions() {
+        // O H2 dos testes usa o esquema gerado pelo Hibernate, sem partições
+        if (!"postgresql".equals(dbKind)) {
+            return;
+        }
+
+        int created = orderRepository.ensureMonthlyPartitions(monthsAhead);
+        if (created > 0) {
+            log.info("{} partições mensais criadas para tb_order", created);
+        }
+    }
+}
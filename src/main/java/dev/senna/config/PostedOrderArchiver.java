@@ -0,0 +1,41 @@
+package dev.senna.config;
+
+import dev.senna.service.OrderArchiveService;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+
+/**
+ * Arquiva todo dia os pedidos postados há mais de {@code orders.archive.after-months} meses.
+ * Com várias instâncias, um lote repetido falha na chave primária do arquivo e é desfeito
+ * inteiro; os pedidos ficam para a próxima execução.
+ */
+@ApplicationScoped
+public class PostedOrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(PostedOrderArchiver.class);
+
+    @Inject
+    OrderArchiveService orderArchiveService;
+
+    @ConfigProperty(name = "orders.archive.after-months", defaultValue = "6")
+    int afterMonths;
+
+    @ConfigProperty(name = "orders.archive.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @Scheduled(cron = "{orders.archive.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void archive() {
+        var cutoff = LocalDate.now().minusMonths(afterMonths);
+        long archived = orderArchiveService.archivePostedBefore(cutoff, batchSize);
+
+        if (archived > 0) {
+            log.info("{} pedidos postados antes de {} movidos para tb_order_archive", archived, cutoff);
+        }
+    }
+}
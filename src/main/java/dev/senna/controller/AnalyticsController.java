@@ -1,5 +1,6 @@
 package dev.senna.controller;
 
+import dev.senna.infra.RequestExecutor;
 import dev.senna.service.AnalyticsService;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -9,22 +10,29 @@ import jakarta.ws.rs.core.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletionStage;
+
 @Path("/api/analytics")
 public class AnalyticsController {
 
     @Inject
     AnalyticsService analyticsService;
 
+    @Inject
+    RequestExecutor requestExecutor;
+
     private static final Logger log = LoggerFactory.getLogger(AnalyticsController.class);
 
 
     @GET
     @Path("/dashboard")
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response getDashboardAnalytics() {
+    public CompletionStage<Response> getDashboardAnalytics() {
 
         log.debug("Received request to get dashboard analytics");
-        var analytics = analyticsService.getDashboardAnalyticsService();
-        return Response.ok(analytics).build();
+        return requestExecutor.submit(() -> {
+            var analytics = analyticsService.getDashboardAnalyticsService();
+            return Response.ok(analytics).build();
+        });
     }
 }
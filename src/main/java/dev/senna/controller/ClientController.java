@@ -2,19 +2,26 @@ package dev.senna.controller;
 
 import dev.senna.controller.dto.request.CreateClientReqDto;
 import dev.senna.controller.dto.request.UpdateClientReqDto;
+import dev.senna.infra.RequestExecutor;
+import dev.senna.service.ClientAutocompleteService;
+import dev.senna.service.ClientOrderSummaryService;
 import dev.senna.service.ClientService;
+import io.quarkus.security.ForbiddenException;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 @Path("/api/client")
 public class ClientController {
@@ -22,12 +29,21 @@ public class ClientController {
     @Inject
     ClientService clientService;
 
+    @Inject
+    ClientAutocompleteService clientAutocompleteService;
+
+    @Inject
+    ClientOrderSummaryService clientOrderSummaryService;
+
+    @Inject
+    RequestExecutor requestExecutor;
+
     private static final Logger log = LoggerFactory.getLogger(ClientController.class);
 
     @POST
     @Transactional
     @RolesAllowed({"ADMIN", "DEV"})
-    public Response createClient(CreateClientReqDto reqDto) {
+    public Response createClient(@Valid CreateClientReqDto reqDto) {
             log.debug("Received the request to create a client");
             var clientId = clientService.createClient(reqDto);
             return Response.created(URI.create("/client/" + clientId)).build();
@@ -35,39 +51,84 @@ public class ClientController {
 
     @GET
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response findAllClients(@QueryParam("page") @DefaultValue("0") Integer page,
-                                   @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
+    public CompletionStage<Response> findAllClients(@QueryParam("page") @DefaultValue("0") Integer page,
+                                                    @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
 
             log.debug("Received the request to list all clients");
-            var clients = clientService.findAllClients(page, pageSize);
-            return Response.ok(clients).build();
+            return requestExecutor.submit(() -> {
+                var clients = clientService.findAllClients(page, pageSize);
+                return Response.ok(clients).build();
+            });
+    }
+
+    @GET
+    @Path("/autocomplete")
+    @RolesAllowed({"ADMIN","DEV", "OFFICER"})
+    public CompletionStage<Response> autocompleteClients(@QueryParam("q") String query,
+                                                         @QueryParam("limit") @DefaultValue("10") Integer limit) {
+
+            log.debug("Received the request to autocomplete clients by {}", query);
+            return requestExecutor.submit(() -> Response.ok(clientAutocompleteService.search(query, limit)).build());
+    }
+
+    @GET
+    @Path("/summary")
+    @RolesAllowed({"ADMIN","DEV", "OFFICER"})
+    public CompletionStage<Response> listClientSummaries(@QueryParam("page") @DefaultValue("0") Integer page,
+                                                         @QueryParam("pageSize") @DefaultValue("20") Integer pageSize) {
+
+            log.debug("Received the request to list the order summary of all clients");
+            return requestExecutor.submit(() -> Response.ok(clientOrderSummaryService.listSummaries(page, pageSize)).build());
+    }
+
+    @GET
+    @Path("/{clientId}/summary")
+    @RolesAllowed({"ADMIN","DEV", "OFFICER"})
+    public CompletionStage<Response> getClientSummary(@PathParam("clientId") UUID clientId) {
+
+            log.debug("Received the request to get the order summary of a client");
+            return requestExecutor.submit(() -> Response.ok(clientOrderSummaryService.getSummary(clientId)).build());
     }
 
     @GET
     @Path("/{clientId}")
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response listClientById(@PathParam("clientId") UUID clientId) {
+    public CompletionStage<Response> listClientById(@PathParam("clientId") UUID clientId) {
 
             log.debug("Received the request to list a specific client");
-            return Response.ok(clientService.findClientById(clientId)).build();
+            return requestExecutor.submit(() -> Response.ok(clientService.findClientById(clientId)).build());
     }
 
     @PUT
     @Path("/{clientId}")
     @RolesAllowed({"ADMIN", "DEV"})
-    public Response updateClient(@PathParam("clientId") UUID clientId, @Valid UpdateClientReqDto reqDto) {
+    public CompletionStage<Response> updateClient(@PathParam("clientId") UUID clientId, @Valid UpdateClientReqDto reqDto) {
 
-            var client = clientService.updateClient(clientId, reqDto);
-            return Response.ok(client).build();
+            return requestExecutor.submit(() -> {
+                var client = clientService.updateClient(clientId, reqDto);
+                return Response.ok(client).build();
+            });
     }
 
     @DELETE
     @Path("/{clientId}")
     @RolesAllowed({"ADMIN", "DEV"})
-    public Response deleteClient(@PathParam("clientId") UUID clientId) {
+    public CompletionStage<Response> deleteClient(@PathParam("clientId") UUID clientId,
+                                                  @QueryParam("purge") @DefaultValue("false") boolean purge,
+                                                  @Context SecurityContext securityContext) {
+
+            if (purge) {
+                if (!securityContext.isUserInRole("ADMIN")) {
+                    throw new ForbiddenException("Only administrators can purge a client with its history");
+                }
+                log.debug("Received the request to purge a client with its history");
+                return requestExecutor.submit(() -> Response.ok(clientService.purgeClient(clientId)).build());
+            }
 
             log.debug("Received the request to delete a client");
-            clientService.deleteClient(clientId);
-            return Response.noContent().build();
+            return requestExecutor.submit(() -> {
+                clientService.deleteClient(clientId);
+                return Response.noContent().build();
+            });
     }
 }
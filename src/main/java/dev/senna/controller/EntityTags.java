@@ -0,0 +1,40 @@
+package dev.senna.controller;
+
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * Conversão entre a versão otimista das entidades e os cabeçalhos ETag / If-Match.
+ */
+final class EntityTags {
+
+    // Nunca coincide com uma versão real: If-Match malformado ou fraco resulta em 412
+    static final long UNMATCHABLE_VERSION = -1L;
+
+    private EntityTags() {
+    }
+
+    static EntityTag of(long version) {
+        return new EntityTag(Long.toString(version));
+    }
+
+    /**
+     * @return a versão esperada pelo cliente, ou null quando não há If-Match ou ele é {@code *}
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        // If-Match usa comparação forte: ETags fracas (W/) e listas não são aceitas
+        var tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return UNMATCHABLE_VERSION;
+        }
+
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package dev.senna.controller;
+
+import dev.senna.infra.ImageStore;
+import dev.senna.infra.ThumbnailPipeline;
+import dev.senna.service.ItemService;
+import io.quarkiverse.resteasy.problem.HttpProblem;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serve as imagens direto do Vert.x: o {@code sendFile} usa o sendfile(2) do sistema,
+ * então o arquivo vai do page cache para o socket sem passar pela heap.
+ * O RESTEasy Classic não oferece esse caminho, por isso a rota fica fora do JAX-RS
+ * (a autenticação continua sendo aplicada pela política HTTP padrão).
+ */
+@ApplicationScoped
+public class ImageRoutes {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageRoutes.class);
+
+    static final String IMMUTABLE_CACHE = "private, max-age=31536000, immutable";
+
+    // Folga para os cabeçalhos e delimitadores do multipart na checagem do Content-Length
+    private static final long MULTIPART_OVERHEAD = 16 * 1024;
+
+    @Inject
+    ImageStore imageStore;
+
+    @Inject
+    ThumbnailPipeline thumbnailPipeline;
+
+    @Inject
+    ItemService itemService;
+
+    void registerRoutes(@Observes Router router) {
+        // Antes do limite global de corpo (ROUTE_ORDER_UPLOAD_LIMIT) e depois dos filtros de autenticação
+        // e autorização: o upload aplica o próprio limite de 64 MB enquanto recebe
+        router.post("/api/images").order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT - 1).handler(this::uploadImage);
+        router.get("/api/images/:hash").blockingHandler(this::serveImage, false);
+        router.get("/api/images/:hash/thumbnail").blockingHandler(this::serveThumbnail, false);
+    }
+
+    /**
+     * Upload multipart (campo {@code file}) tratado pelo decoder do Vert.x: o arquivo chega em
+     * pedaços direto para o {@link ImageStore}, sem passar pelo Jackson nem ficar inteiro na heap.
+     * Com {@code ?itemId=} a imagem já é anexada ao item.
+     */
+    void uploadImage(RoutingContext ctx) {
+        var request = ctx.request();
+
+        Long itemId;
+        long contentLength;
+        try {
+            var itemIdParam = request.getParam("itemId");
+            itemId = itemIdParam == null ? null : Long.valueOf(itemIdParam);
+            var contentLengthHeader = request.getHeader(HttpHeaders.CONTENT_LENGTH);
+            contentLength = contentLengthHeader == null ? -1 : Long.parseLong(contentLengthHeader);
+        } catch (NumberFormatException e) {
+            rejectUpload(ctx, 400, "Invalid upload", "itemId and Content-Length must be numbers");
+            return;
+        }
+
+        var contentType = request.getHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null || !contentType.toLowerCase().startsWith("multipart/form-data")) {
+            rejectUpload(ctx, 415, "Unsupported upload", "Images must be sent as multipart/form-data");
+            return;
+        }
+
+        // Recusa antes de ler o corpo quando o tamanho declarado já passa do limite
+        if (contentLength > imageStore.maxUploadBytes() + MULTIPART_OVERHEAD) {
+            rejectUpload(ctx, 413, "Image too large", "Images must have at most " + imageStore.maxUploadBytes() + " bytes");
+            return;
+        }
+
+        var received = new AtomicBoolean();
+        request.setExpectMultipart(true);
+        request.uploadHandler(upload -> {
+            if (!"file".equals(upload.name()) || !received.compareAndSet(false, true)) {
+                upload.handler(ignored -> { });
+                return;
+            }
+            if (upload.contentType() == null || !upload.contentType().startsWith("image/")) {
+                upload.handler(ignored -> { });
+                rejectUpload(ctx, 415, "Unsupported upload", "Only PNG, JPEG, GIF and WEBP images are accepted");
+                return;
+            }
+
+            imageStore.receive(ctx.vertx(), upload)
+                    .compose(stored -> itemId == null ? Future.succeededFuture(stored) : ctx.vertx().executeBlocking(() -> {
+                        itemService.attachImage(itemId, stored.hash());
+                        return stored;
+                    }, false))
+                    .onSuccess(stored -> respond(ctx, 201, new JsonObject()
+                            .put("hash", stored.hash())
+                            .put("size", stored.size())
+                            .put("url", "/api/images/" + stored.hash())
+                            .put("thumbnailUrl", "/api/images/" + stored.hash() + "/thumbnail")
+                            .put("itemId", itemId)))
+                    .onFailure(e -> {
+                        if (e instanceof HttpProblem problem) {
+                            rejectUpload(ctx, problem.getStatusCode(), problem.getTitle(), problem.getDetail());
+                        } else {
+                            log.error("Could not store uploaded image", e);
+                            rejectUpload(ctx, 500, "Upload failed", "The image could not be stored");
+                        }
+                    });
+        });
+        request.endHandler(v -> {
+            if (!received.get()) {
+                rejectUpload(ctx, 400, "Invalid upload", "Multipart field 'file' is required");
+            }
+        });
+    }
+
+    void serveImage(RoutingContext ctx) {
+        var hash = ctx.pathParam("hash");
+        if (!ImageStore.isHash(hash)) {
+            ctx.response().setStatusCode(404).end();
+            return;
+        }
+
+        // O hash é o próprio conteúdo: ETag forte sem precisar tocar no disco
+        sendImmutable(ctx, "\"" + hash + "\"", imageStore.resolve(hash));
+    }
+
+    void serveThumbnail(RoutingContext ctx) {
+        var hash = ctx.pathParam("hash");
+        if (!ImageStore.isHash(hash)) {
+            ctx.response().setStatusCode(404).end();
+            return;
+        }
+
+        var thumbnail = imageStore.resolveThumbnail(hash);
+        if (thumbnail.isEmpty() && imageStore.resolve(hash).isPresent()) {
+            // Ainda não gerada (ou descartada com a fila cheia): entrega o original por enquanto.
+            // Imagens que o pipeline já não conseguiu decodificar não voltam para a fila
+            thumbnailPipeline.submit(hash);
+            ctx.response()
+                    .setStatusCode(307)
+                    .putHeader(HttpHeaders.LOCATION, "/api/images/" + hash)
+                    .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .end();
+            return;
+        }
+
+        sendImmutable(ctx, "\"" + hash + "-thumb\"", thumbnail);
+    }
+
+    private void rejectUpload(RoutingContext ctx, int status, String title, String detail) {
+        respond(ctx, status, new JsonObject()
+                .put("title", title)
+                .put("status", status)
+                .put("detail", detail));
+    }
+
+    private void respond(RoutingContext ctx, int status, JsonObject body) {
+        var response = ctx.response();
+        if (response.ended()) {
+            return;
+        }
+
+        var contentType = status >= 400 ? "application/problem+json" : "application/json";
+        response.setStatusCode(status).putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+
+        // Recusado no meio do envio: fecha a conexão em vez de continuar recebendo o restante
+        if (status >= 400 && !ctx.request().isEnded()) {
+            response.putHeader(HttpHeaders.CONNECTION, "close");
+            response.end(body.encode()).onComplete(v -> ctx.request().connection().close());
+            return;
+        }
+
+        response.end(body.encode());
+    }
+
+    private void sendImmutable(RoutingContext ctx, String etag, Optional<Path> path) {
+        var response = ctx.response();
+
+        var ifNoneMatch = ctx.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.strip().equals("*"))) {
+            response.setStatusCode(304)
+                    .putHeader(HttpHeaders.ETAG, etag)
+                    .putHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE)
+                    .end();
+            return;
+        }
+
+        if (path.isEmpty()) {
+            response.setStatusCode(404).end();
+            return;
+        }
+
+        try {
+            response.putHeader(HttpHeaders.CONTENT_TYPE, imageStore.contentType(path.get()));
+        } catch (IOException e) {
+            log.error("Could not read image {}", path.get(), e);
+            ctx.fail(500, e);
+            return;
+        }
+
+        response.putHeader(HttpHeaders.ETAG, etag)
+                .putHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE)
+                .sendFile(path.get().toString());
+    }
+}
@@ -2,8 +2,14 @@ package dev.senna.controller;
 
 import dev.senna.controller.dto.request.AddItemRequestDto;
 import dev.senna.controller.dto.request.AssignOrderToItemRequestDto;
+import dev.senna.controller.dto.request.BulkAssignOrderRequestDto;
+import dev.senna.controller.dto.request.ClaimItemsRequestDto;
+import dev.senna.controller.dto.request.ReleaseItemsRequestDto;
 import dev.senna.controller.dto.request.UpdateItemRequestDto;
+import dev.senna.infra.RequestExecutor;
 import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.service.ItemClaimService;
 import dev.senna.service.ItemService;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -11,8 +17,12 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -21,6 +31,8 @@ import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Path("/api/item")
 @Produces(MediaType.APPLICATION_JSON)
@@ -30,6 +42,12 @@ public class ItemController {
     @Inject
     private ItemService itemService;
 
+    @Inject
+    private ItemClaimService itemClaimService;
+
+    @Inject
+    private RequestExecutor requestExecutor;
+
     private static final Logger log = LoggerFactory.getLogger(ItemController.class);
 
 
@@ -48,9 +66,12 @@ public class ItemController {
     @GET
     @Path("/{itemId}")
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response findItemById(@PathParam("itemId") Long itemId) {
+    public CompletionStage<Response> findItemById(@PathParam("itemId") Long itemId) {
         log.debug("Received request find item by id {}", itemId);
-        return Response.ok(itemService.findItemById(itemId)).build();
+        return requestExecutor.submit(() -> {
+            var item = itemService.findItemById(itemId);
+            return Response.ok(item.body()).tag(EntityTags.of(item.version())).build();
+        });
     }
 
     @PATCH
@@ -64,23 +85,88 @@ public class ItemController {
     }
 
     @PATCH
-    @Path("/{itemId}")
+    @Path("/order")
     @Transactional
+    @RolesAllowed({"ADMIN", "DEV"})
+    public Response assignOrderInBulk(@Valid @NotNull BulkAssignOrderRequestDto reqDto) {
+        log.debug("Received request assign order {} to {} items", reqDto.orderId(), reqDto.itemIds().size());
+        var result = itemService.assignOrderInBulk(reqDto);
+        return Response.ok(result).build();
+    }
+
+    @PATCH
+    @Path("/{itemId}")
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response updateItem(@PathParam("itemId") Long itemId, @Valid UpdateItemRequestDto reqDto) {
+    public CompletionStage<Response> updateItem(@PathParam("itemId") Long itemId, @Valid UpdateItemRequestDto reqDto,
+                                                @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         log.info("Received request update an item {}", itemId);
-        itemService.updateItem(itemId, reqDto);
-        return Response.status(Response.Status.NO_CONTENT).build();
+        // A transação fica no service: a troca só de etapa sem If-Match pode ser reaplicada em uma nova
+        return requestExecutor.submit(() -> {
+            long version = ifMatch == null && reqDto.isStatusOnly()
+                    ? itemService.updateItemStatusWithRetry(itemId, reqDto)
+                    : itemService.updateItem(itemId, reqDto, EntityTags.expectedVersion(ifMatch));
+            return Response.status(Response.Status.NO_CONTENT).tag(EntityTags.of(version)).build();
+        });
+    }
+
+    @POST
+    @Path("/claims")
+    @RolesAllowed({"ADMIN","DEV", "OFFICER"})
+    public CompletionStage<Response> claimNextItems(@Valid @NotNull ClaimItemsRequestDto reqDto, @Context SecurityContext securityContext) {
+        var operator = securityContext.getUserPrincipal().getName();
+        log.debug("Received request claim next items of stage {} for operator {}", reqDto.status(), operator);
+        return requestExecutor.submit(() -> {
+            var claim = itemClaimService.claimNext(reqDto.status(), reqDto.limit(), operator);
+            return Response.ok(claim).build();
+        });
+    }
+
+    @POST
+    @Path("/claims/release")
+    @RolesAllowed({"ADMIN","DEV", "OFFICER"})
+    public CompletionStage<Response> releaseClaimedItems(@Valid @NotNull ReleaseItemsRequestDto reqDto, @Context SecurityContext securityContext) {
+        var operator = securityContext.getUserPrincipal().getName();
+        log.debug("Received request release {} items for operator {}", reqDto.itemIds().size(), operator);
+        return requestExecutor.submit(() -> {
+            itemClaimService.release(reqDto, operator);
+            return Response.noContent().build();
+        });
+    }
+
+    @GET
+    @Path("/unassigned")
+    @RolesAllowed({"ADMIN","DEV", "OFFICER"})
+    public CompletionStage<Response> listUnassignedItems(@QueryParam("material") Material material,
+                                                         @QueryParam("status") ItemStatus status,
+                                                         @QueryParam("cursor") Long cursor,
+                                                         @QueryParam("limit") @DefaultValue("20") Integer limit) {
+        log.debug("Received request list unassigned items - material: {}, status: {}", material, status);
+        return requestExecutor.submit(() -> {
+            var items = itemService.listUnassigned(material, status, cursor, limit);
+            return Response.ok(items).build();
+        });
     }
 
     @GET
     @Path("/search")
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response searchItemByStatus(
-            @QueryParam("status") @NotNull(message = "Query param 'status' should not be null") ItemStatus status
+    public CompletionStage<Response> searchItemByStatus(
+            @QueryParam("status") @NotNull(message = "Query param 'status' should not be null") ItemStatus status,
+            @QueryParam("cursor") Long cursor,
+            @QueryParam("limit") @DefaultValue("20") Integer limit,
+            @QueryParam("stream") @DefaultValue("false") boolean stream
             ) {
         log.debug("Received request search item by status {}" , status.name());
-        var items = itemService.findByStatus(status);
-        return Response.status(Response.Status.OK).entity(items).build();
+
+        if (stream) {
+            // O StreamingOutput escreve na thread do RESTEasy, que é dona do stream da resposta
+            StreamingOutput body = output -> itemService.streamByStatus(status, output);
+            return CompletableFuture.completedFuture(Response.ok(body, MediaType.APPLICATION_JSON).build());
+        }
+
+        return requestExecutor.submit(() -> {
+            var items = itemService.findByStatus(status, cursor, limit);
+            return Response.status(Response.Status.OK).entity(items).build();
+        });
     }
 }
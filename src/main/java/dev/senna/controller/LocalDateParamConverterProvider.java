@@ -0,0 +1,44 @@
+package dev.senna.controller;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ext.ParamConverter;
+import jakarta.ws.rs.ext.ParamConverterProvider;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Aceita {@link LocalDate} (ISO, {@code 2025-01-31}) em {@code @QueryParam}. Data inválida vira 400
+ * em vez do 404 que o JAX-RS devolve para parâmetros de query não convertidos.
+ */
+@Provider
+public class LocalDateParamConverterProvider implements ParamConverterProvider {
+
+    private static final ParamConverter<LocalDate> CONVERTER = new ParamConverter<>() {
+        @Override
+        public LocalDate fromString(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("Invalid date '" + value + "', expected yyyy-MM-dd");
+            }
+        }
+
+        @Override
+        public String toString(LocalDate value) {
+            return value == null ? null : value.toString();
+        }
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ParamConverter<T> getConverter(Class<T> rawType, Type genericType, Annotation[] annotations) {
+        return rawType == LocalDate.class ? (ParamConverter<T>) CONVERTER : null;
+    }
+}
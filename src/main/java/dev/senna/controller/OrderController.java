@@ -2,6 +2,7 @@ package dev.senna.controller;
 
 import dev.senna.controller.dto.request.CreateOrderReqDto;
 import dev.senna.controller.dto.request.UpdateOrderReqDto;
+import dev.senna.infra.RequestExecutor;
 import dev.senna.model.enums.OrderStatus;
 import dev.senna.service.OrderService;
 import jakarta.annotation.security.RolesAllowed;
@@ -10,13 +11,16 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 @Path("/api/order")
 @Produces(MediaType.APPLICATION_JSON)
@@ -26,6 +30,9 @@ public class OrderController {
     @Inject
     private OrderService orderService;
 
+    @Inject
+    private RequestExecutor requestExecutor;
+
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
 
     @POST
@@ -46,98 +53,119 @@ public class OrderController {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response listOrders(@QueryParam("page") @DefaultValue("0") Integer page,
-                               @QueryParam("pageSize") @DefaultValue("10") Integer pageSize,
-                               @QueryParam("status") OrderStatus status,
-                               @QueryParam("clientId") UUID clientId) {
+    public CompletionStage<Response> listOrders(@QueryParam("page") @DefaultValue("0") Integer page,
+                                                @QueryParam("pageSize") @DefaultValue("10") Integer pageSize,
+                                                @QueryParam("status") OrderStatus status,
+                                                @QueryParam("clientId") UUID clientId,
+                                                @QueryParam("saleFrom") LocalDate saleFrom,
+                                                @QueryParam("saleTo") LocalDate saleTo,
+                                                @QueryParam("includeHistory") @DefaultValue("false") boolean includeHistory) {
 
-        log.info("Received request to list orders with filters: status={}, clientId={}", status, clientId);
+        log.info("Received request to list orders with filters: status={}, clientId={}, saleFrom={}, saleTo={}",
+                status, clientId, saleFrom, saleTo);
 
-        var orders = orderService.listOrders(status, clientId, page, pageSize);
+        return requestExecutor.submit(() -> {
+            var orders = orderService.listOrders(status, clientId, saleFrom, saleTo, includeHistory, page, pageSize);
 
-        log.info("Orders listed successfully. Returning {} orders to page {}", orders.size(), page);
+            log.info("Orders listed successfully. Returning {} orders to page {}", orders.size(), page);
 
-        return Response.ok(orders).build();
+            return Response.ok(orders).build();
+        });
     }
 
     @GET
     @Path("/{orderId}")
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN", "DEV", "OFFICER"})
-    public Response getOrderById(@PathParam("orderId") Long orderId) {
+    public CompletionStage<Response> getOrderById(@PathParam("orderId") Long orderId,
+                                                  @QueryParam("includeHistory") @DefaultValue("false") boolean includeHistory) {
 
         log.info("Received request to get an order by id {}", orderId);
 
-        var order = orderService.getOrderById(orderId);
+        return requestExecutor.submit(() -> {
+            var order = orderService.getOrderById(orderId, includeHistory);
 
-        log.info("Order found successfully! Returning the order...");
+            log.info("Order found successfully! Returning the order...");
 
-        return Response.ok(order).build();
+            return Response.ok(order.body()).tag(EntityTags.of(order.version())).build();
+        });
     }
 
     @GET
     @Path("/production")
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response listOrdersProduction(@QueryParam("page") @DefaultValue("0") Integer page,
-                                         @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
+    public CompletionStage<Response> listOrdersProduction(@QueryParam("page") @DefaultValue("0") Integer page,
+                                                          @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
         log.info("Received request to list orders in production");
 
-        var ordersInProduction = orderService.listProduction(page, pageSize);
+        return requestExecutor.submit(() -> {
+            var ordersInProduction = orderService.listProduction(page, pageSize);
 
-        log.info("Returning {} orders in page {}", ordersInProduction.size(), page);
-        return Response.ok(ordersInProduction).build();
+            log.info("Returning {} orders in page {}", ordersInProduction.size(), page);
+            return Response.ok(ordersInProduction).build();
+        });
     }
 
     @GET
     @Path("/last-send-orders")
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response listLastSendOrders(@QueryParam("page") @DefaultValue("0") Integer page,
-                                       @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
+    public CompletionStage<Response> listLastSendOrders(@QueryParam("page") @DefaultValue("0") Integer page,
+                                                        @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
 
         log.info("Received request to list last send orders - Page: {}, PageSize: {}", page, pageSize);
-        var lastSendOrders = orderService.listLastSendOrders(page, pageSize);
-        log.info("Returning {} orders in page {}", lastSendOrders.size(), page);
-        return Response.ok(lastSendOrders).build();
+        return requestExecutor.submit(() -> {
+            var lastSendOrders = orderService.listLastSendOrders(page, pageSize);
+            log.info("Returning {} orders in page {}", lastSendOrders.size(), page);
+            return Response.ok(lastSendOrders).build();
+        });
     }
 
     @PATCH
     @Path("/{orderId}")
     @Produces(MediaType.APPLICATION_JSON)
-    @Transactional
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response updateOrder(@PathParam("orderId") Long orderId, @Valid @NotNull UpdateOrderReqDto reqDto) {
+    public CompletionStage<Response> updateOrder(@PathParam("orderId") Long orderId, @Valid @NotNull UpdateOrderReqDto reqDto,
+                                                 @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
 
         log.info("Received request to update an order with ID: {}", orderId);
-        var updatedOrder = orderService.updateOrder(orderId, reqDto);
-        log.info("Order ID: {} updated successfully", orderId);
-        return Response.ok(updatedOrder).build();
+        // A transação fica no service: a troca só de status sem If-Match pode ser reaplicada em uma nova
+        return requestExecutor.submit(() -> {
+            var updatedOrder = ifMatch == null && reqDto.isStatusOnly()
+                    ? orderService.updateOrderStatusWithRetry(orderId, reqDto)
+                    : orderService.updateOrder(orderId, reqDto, EntityTags.expectedVersion(ifMatch));
+            log.info("Order ID: {} updated successfully", orderId);
+            return Response.ok(updatedOrder.body()).tag(EntityTags.of(updatedOrder.version())).build();
+        });
     }
 
     @GET
     @Path("/statistics")
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response getOrderStatistics() {
+    public CompletionStage<Response> getOrderStatistics() {
 
         log.info("Received request to get order statistics");
 
-        var stats = orderService.getOrderStatistics();
-
-        log.info("Returning order statistics");
-        return Response.ok(stats).build();
+        return requestExecutor.submit(() -> {
+            var stats = orderService.getOrderStatistics();
 
+            log.info("Returning order statistics");
+            return Response.ok(stats).build();
+        });
     }
 
     @GET
     @Path("/recent-orders")
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"ADMIN","DEV", "OFFICER"})
-    public Response getRecentOrders() {
+    public CompletionStage<Response> getRecentOrders() {
         log.info("Received request to get recent orders");
-        var orders = orderService.listRecentOrders();
-        log.info("Returning recent orders");
-        return Response.ok(orders).build();
+        return requestExecutor.submit(() -> {
+            var orders = orderService.listRecentOrders();
+            log.info("Returning recent orders");
+            return Response.ok(orders).build();
+        });
     }
 }
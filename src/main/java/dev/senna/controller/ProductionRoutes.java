@@ -0,0 +1,139 @@
+package dev.senna.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.service.ProductionBoardService;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Leituras do quadro de produção atendidas no event loop do Vert.x. O quadro é uma projeção em
+ * memória ({@link ProductionBoardService}), sem JDBC no caminho, então não há motivo para ocupar
+ * uma thread do pool de workers a cada consulta dos tablets. Se um writer está com o lock do
+ * quadro (recarga ou escrita em curso), a leitura vai para um worker em vez de parar o event loop.
+ * <p>
+ * Só o quadro sai do JAX-RS: {@code /api/order}, {@code /api/order/{id}} e
+ * {@code /api/analytics/dashboard} continuam lendo o banco por JDBC bloqueante no
+ * {@link dev.senna.infra.RequestExecutor} (workers ou virtual threads).
+ * Os papéis exigidos ficam na política HTTP {@code production} (fora do {@code @RolesAllowed} do JAX-RS).
+ */
+@ApplicationScoped
+public class ProductionRoutes {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionRoutes.class);
+
+    @Inject
+    ProductionBoardService productionBoardService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    void registerRoutes(@Observes Router router) {
+        router.get("/api/production/items").handler(this::listItems);
+        router.get("/api/production/orders").handler(this::listOrders);
+        router.get("/api/production/stages/:status/next").handler(this::listNextForStage);
+    }
+
+    void listItems(RoutingContext ctx) {
+        var page = intParam(ctx, "page", 0);
+        var pageSize = intParam(ctx, "pageSize", 10);
+        if (page == null || pageSize == null) {
+            return;
+        }
+
+        serve(ctx, () -> productionBoardService.listItems(page, pageSize));
+    }
+
+    void listOrders(RoutingContext ctx) {
+        var page = intParam(ctx, "page", 0);
+        var pageSize = intParam(ctx, "pageSize", 10);
+        if (page == null || pageSize == null) {
+            return;
+        }
+
+        serve(ctx, () -> productionBoardService.listOrders(page, pageSize));
+    }
+
+    void listNextForStage(RoutingContext ctx) {
+        ItemStatus status;
+        try {
+            status = ItemStatus.valueOf(ctx.pathParam("status"));
+        } catch (IllegalArgumentException e) {
+            // Mesmo 404 que o JAX-RS devolvia para um @PathParam de enum desconhecido
+            ctx.response().setStatusCode(404).end();
+            return;
+        }
+
+        var limit = intParam(ctx, "limit", 10);
+        if (limit == null) {
+            return;
+        }
+
+        serve(ctx, () -> productionBoardService.nextForStage(status, limit));
+    }
+
+    // Com o lock livre a leitura roda aqui mesmo; com um writer segurando, vai para um worker
+    private void serve(RoutingContext ctx, Supplier<?> read) {
+        var body = productionBoardService.tryRead(read);
+        if (body.isPresent()) {
+            respond(ctx, body.get());
+            return;
+        }
+
+        ctx.vertx().executeBlocking(read::get, false).onComplete(result -> {
+            if (result.succeeded()) {
+                respond(ctx, result.result());
+            } else {
+                ctx.fail(result.cause());
+            }
+        });
+    }
+
+    // Devolve null (e já responde 400) quando o parâmetro não é um número
+    private static Integer intParam(RoutingContext ctx, String name, int defaultValue) {
+        var value = ctx.request().getParam(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            ctx.response()
+                    .setStatusCode(400)
+                    .putHeader(HttpHeaders.CONTENT_TYPE, "application/problem+json")
+                    .end(new JsonObject()
+                            .put("title", "Bad Request")
+                            .put("status", 400)
+                            .put("detail", "Query parameter '" + name + "' must be a number")
+                            .encode());
+            return null;
+        }
+    }
+
+    private void respond(RoutingContext ctx, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize production board response", e);
+            ctx.response().setStatusCode(500).end();
+            return;
+        }
+
+        ctx.response()
+                .setStatusCode(200)
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(Buffer.buffer(json));
+    }
+}
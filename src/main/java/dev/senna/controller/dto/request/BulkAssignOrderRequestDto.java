@@ -0,0 +1,18 @@
+package dev.senna.controller.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkAssignOrderRequestDto(
+
+        @NotNull
+        Long orderId,
+
+        @NotEmpty
+        @Size(max = 500)
+        List<@NotNull Long> itemIds
+) {
+}
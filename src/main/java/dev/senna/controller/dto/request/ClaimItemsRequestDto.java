@@ -0,0 +1,13 @@
+package dev.senna.controller.dto.request;
+
+import dev.senna.model.enums.ItemStatus;
+import jakarta.validation.constraints.NotNull;
+
+public record ClaimItemsRequestDto(
+
+        @NotNull
+        ItemStatus status,
+
+        Integer limit
+) {
+}
@@ -1,6 +1,9 @@
 package dev.senna.controller.dto.request;
 
+import jakarta.validation.constraints.NotBlank;
+
 public record CreateClientReqDto(
+        @NotBlank
         String clientName
 ) {
 }
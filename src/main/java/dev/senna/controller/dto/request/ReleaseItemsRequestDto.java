@@ -0,0 +1,13 @@
+package dev.senna.controller.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record ReleaseItemsRequestDto(
+
+        @NotEmpty
+        List<@NotNull Long> itemIds
+) {
+}
@@ -13,4 +13,10 @@ public record UpdateItemRequestDto(
     ItemStatus itemStatus,
     Long orderId
 ) {
+
+    // Só a etapa muda: candidato a reaplicação automática quando há conflito de versão
+    public boolean isStatusOnly() {
+        return itemStatus != null && name == null && quantity == null && saleQuantity == null
+                && material == null && image == null;
+    }
 }
@@ -12,4 +12,9 @@ public record UpdateOrderReqDto(
         LocalDate deliveryDate,
         UUID clientId
 ) {
+
+    // Só o status muda: candidato a reaplicação automática quando há conflito de versão
+    public boolean isStatusOnly() {
+        return status != null && saleDate == null && deliveryDate == null && clientId == null;
+    }
 }
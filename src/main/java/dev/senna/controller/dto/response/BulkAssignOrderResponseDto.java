@@ -0,0 +1,10 @@
+package dev.senna.controller.dto.response;
+
+import java.util.List;
+
+public record BulkAssignOrderResponseDto(
+        Long orderId,
+        List<Long> assignedItemIds,
+        List<Long> notAssignedItemIds
+) {
+}
@@ -0,0 +1,10 @@
+package dev.senna.controller.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ClaimItemsResponseDto(
+        List<ListItemProductionLineResponse> items,
+        Instant leaseExpiresAt
+) {
+}
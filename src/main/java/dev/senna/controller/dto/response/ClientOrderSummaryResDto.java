@@ -0,0 +1,12 @@
+package dev.senna.controller.dto.response;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record ClientOrderSummaryResDto(UUID clientId,
+                                       String clientName,
+                                       long inProduction,
+                                       long finished,
+                                       long posted,
+                                       LocalDate lastPostedDate) {
+}
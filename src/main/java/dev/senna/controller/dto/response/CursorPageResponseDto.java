@@ -0,0 +1,9 @@
+package dev.senna.controller.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponseDto<T>(
+        List<T> items,
+        Long nextCursor
+) {
+}
@@ -1,5 +1,6 @@
 package dev.senna.controller.dto.response;
 
+import dev.senna.infra.ImageStore;
 import dev.senna.model.enums.ItemStatus;
 import dev.senna.model.enums.Material;
 
@@ -11,6 +12,17 @@ public record ListItemProductionLineResponse(
         Material material,
         String image,
         ItemStatus itemStatus,
-        Long orderId
+        Long orderId,
+        String thumbnailUrl
 ) {
+
+    // Usado pelas projeções HQL e pelo quadro de produção: a URL deriva do hash da imagem
+    public ListItemProductionLineResponse(Long id, String name, Integer quantity, Integer saleQuantity,
+                                          Material material, String image, ItemStatus itemStatus, Long orderId) {
+        this(id, name, quantity, saleQuantity, material, image, itemStatus, orderId, thumbnailUrlOf(image));
+    }
+
+    private static String thumbnailUrlOf(String image) {
+        return !ImageStore.isHash(image) ? null : "/api/images/" + image + "/thumbnail";
+    }
 }
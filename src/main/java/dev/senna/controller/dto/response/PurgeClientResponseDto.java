@@ -0,0 +1,6 @@
+package dev.senna.controller.dto.response;
+
+import java.util.UUID;
+
+public record PurgeClientResponseDto(UUID clientId, long deletedOrders, long deletedItems) {
+}
@@ -0,0 +1,19 @@
+package dev.senna.controller.dto.response;
+
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+
+import java.time.LocalDate;
+
+public record StageQueueItemResponseDto(
+        Long id,
+        String name,
+        Integer quantity,
+        Integer saleQuantity,
+        Material material,
+        String image,
+        ItemStatus itemStatus,
+        Long orderId,
+        LocalDate deliveryDate
+) {
+}
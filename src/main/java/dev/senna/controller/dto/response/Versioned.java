@@ -0,0 +1,5 @@
+package dev.senna.controller.dto.response;
+
+// Corpo da resposta junto com a versão da entidade, que o controller devolve como ETag
+public record Versioned<T>(T body, long version) {
+}
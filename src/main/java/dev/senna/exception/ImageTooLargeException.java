@@ -0,0 +1,18 @@
+package dev.senna.exception;
+
+import io.quarkiverse.resteasy.problem.HttpProblem;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDateTime;
+
+public class ImageTooLargeException extends HttpProblem {
+
+    public ImageTooLargeException(long maxBytes) {
+        super(builder()
+                .withTitle("Image too large")
+                .withStatus(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .withDetail("Images must have at most " + maxBytes + " bytes")
+                .with("maxBytes", maxBytes)
+                .with("timestamp", LocalDateTime.now().toString()));
+    }
+}
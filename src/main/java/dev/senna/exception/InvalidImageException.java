@@ -0,0 +1,17 @@
+package dev.senna.exception;
+
+import io.quarkiverse.resteasy.problem.HttpProblem;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDateTime;
+
+public class InvalidImageException extends HttpProblem {
+
+    public InvalidImageException(String reason) {
+        super(builder()
+                .withTitle("Invalid image")
+                .withStatus(Response.Status.BAD_REQUEST)
+                .withDetail(reason)
+                .with("timestamp", LocalDateTime.now().toString()));
+    }
+}
@@ -0,0 +1,19 @@
+package dev.senna.exception;
+
+import io.quarkiverse.resteasy.problem.HttpProblem;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDateTime;
+
+public class ItemClaimedByAnotherOperatorException extends HttpProblem {
+
+    public ItemClaimedByAnotherOperatorException(Long itemId, String claimedBy) {
+        super(builder()
+                .withTitle("Item claimed by another operator")
+                .withStatus(Response.Status.CONFLICT)
+                .withDetail("Item with ID " + itemId + " is being worked on by " + claimedBy)
+                .with("itemId", itemId)
+                .with("claimedBy", claimedBy)
+                .with("timestamp", LocalDateTime.now().toString()));
+    }
+}
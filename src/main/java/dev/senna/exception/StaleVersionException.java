@@ -0,0 +1,19 @@
+package dev.senna.exception;
+
+import io.quarkiverse.resteasy.problem.HttpProblem;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDateTime;
+
+public class StaleVersionException extends HttpProblem {
+
+    public StaleVersionException(String resource, Long id) {
+        super(builder()
+                .withTitle("Stale version")
+                .withStatus(Response.Status.PRECONDITION_FAILED)
+                .withDetail(resource + " with ID " + id + " was changed by another request; reload it and try again")
+                .with("resource", resource)
+                .with("id", id)
+                .with("timestamp", LocalDateTime.now().toString()));
+    }
+}
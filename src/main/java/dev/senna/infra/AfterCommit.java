@@ -0,0 +1,39 @@
+package dev.senna.infra;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Adia mudanças nas projeções em memória (quadro de produção, índice de nomes de clientes)
+ * para depois do commit da transação corrente: rollback não chega a aparecer nelas.
+ * Fora de uma transação a mudança é aplicada na hora.
+ */
+@ApplicationScoped
+public class AfterCommit {
+
+    @Inject
+    TransactionSynchronizationRegistry txRegistry;
+
+    public void run(Runnable change) {
+        if (txRegistry.getTransactionStatus() == Status.STATUS_NO_TRANSACTION) {
+            change.run();
+            return;
+        }
+
+        txRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    change.run();
+                }
+            }
+        });
+    }
+}
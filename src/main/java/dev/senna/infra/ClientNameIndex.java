@@ -0,0 +1,110 @@
+package dev.senna.infra;
+
+import dev.senna.controller.dto.response.ClientResDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de prefixos dos nomes de clientes para o autocomplete.
+ * <p>
+ * Os nomes são normalizados (sem acento, minúsculos, espaços colapsados) e cada início de
+ * palavra vira uma chave, para que "joao" encontre "Gráfica São João". As chaves ficam
+ * ordenadas em uma skip list: a busca posiciona no primeiro nome maior ou igual ao prefixo
+ * e percorre só as chaves seguintes que ainda começam com ele. Leituras não usam lock e
+ * escritas custam O(log n) por palavra do nome.
+ */
+public class ClientNameIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Separa a chave do id do cliente, mantendo nomes iguais de clientes diferentes
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, ClientResDto> entries = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> namesById = new ConcurrentHashMap<>();
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        var withoutMarks = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutMarks).replaceAll(" ").strip().toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized void load(Collection<ClientResDto> clients) {
+        entries.clear();
+        namesById.clear();
+        clients.forEach(client -> put(client.clientId(), client.clientName()));
+    }
+
+    public synchronized void put(UUID clientId, String clientName) {
+        var previous = namesById.put(clientId, clientName);
+        if (previous != null) {
+            if (previous.equals(clientName)) {
+                return;
+            }
+            keysOf(clientId, previous).forEach(entries::remove);
+        }
+
+        var client = new ClientResDto(clientId, clientName);
+        keysOf(clientId, clientName).forEach(key -> entries.put(key, client));
+    }
+
+    public synchronized void remove(UUID clientId) {
+        var previous = namesById.remove(clientId);
+        if (previous != null) {
+            keysOf(clientId, previous).forEach(entries::remove);
+        }
+    }
+
+    public List<ClientResDto> search(String query, int limit) {
+        var prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        var seen = new HashSet<UUID>();
+        var result = new ArrayList<ClientResDto>(Math.min(limit, 16));
+
+        for (var entry : entries.tailMap(prefix).entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (seen.add(entry.getValue().clientId())) {
+                result.add(entry.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    private static List<String> keysOf(UUID clientId, String clientName) {
+        var normalized = normalize(clientName);
+        var keys = new ArrayList<String>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+
+        var suffix = KEY_SEPARATOR + clientId.toString();
+        keys.add(normalized + suffix);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1) + suffix);
+        }
+        return keys;
+    }
+}
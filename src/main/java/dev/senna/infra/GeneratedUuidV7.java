@@ -0,0 +1,18 @@
+package dev.senna.infra;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gera o id da entidade com {@link UuidV7} na inserção, no lugar de
+ * {@code @GeneratedValue(strategy = GenerationType.UUID)}, que gera v4 aleatório.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuidV7 {
+}
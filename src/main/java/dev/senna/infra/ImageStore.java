@@ -0,0 +1,319 @@
+package dev.senna.infra;
+
+import dev.senna.exception.ImageTooLargeException;
+import dev.senna.exception.InvalidImageException;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.CopyOptions;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.streams.ReadStream;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Armazena as artes dos itens em disco endereçadas pelo SHA-256 do conteúdo.
+ * <p>
+ * A coluna {@code tb_item.image} guarda só o hash; arquivos idênticos usados em
+ * pedidos diferentes ocupam um único arquivo em {@code <diretório>/<2 primeiros>/<hash>}.
+ * Como o conteúdo de um hash nunca muda, os arquivos podem ser servidos com cache imutável.
+ */
+@ApplicationScoped
+public class ImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStore.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * Como as assinaturas de PNG, JPEG, GIF e WEBP (RIFF) começam em Base64. Um valor legado que
+     * não começa assim, puro ou depois da vírgula de um data URI, nunca é uma arte aceita pelo store.
+     */
+    public static final List<String> BASE64_SIGNATURES = List.of("iVBORw0KGgo", "/9j/", "R0lGOD", "UklGR");
+    private static final int HEADER_SIZE = 12;
+    private static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+    private static final String INCOMING_DIRECTORY = "incoming";
+
+    @ConfigProperty(name = "image.store.directory", defaultValue = "data/images")
+    String directory;
+
+    @ConfigProperty(name = "image.upload.max-bytes", defaultValue = "67108864")
+    long maxUploadBytes;
+
+    public ImageStore() {
+    }
+
+    // Usado fora do contêiner CDI, nos testes das rotas
+    public ImageStore(String directory, long maxUploadBytes) {
+        this.directory = directory;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    /**
+     * Recebe a imagem como veio na requisição: o hash de uma arte já armazenada,
+     * um data URI ou o conteúdo em Base64. Retorna sempre o hash.
+     */
+    public String storeEncoded(String image) {
+        if (isHash(image)) {
+            if (resolve(image).isEmpty()) {
+                throw new InvalidImageException("Image " + image + " does not exist");
+            }
+            return image;
+        }
+
+        var payload = image.startsWith("data:") ? image.substring(image.indexOf(',') + 1) : image;
+
+        try {
+            return store(Base64.getDecoder().decode(payload.strip()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImageException("Image must be a stored image hash, a data URI or Base64 content");
+        }
+    }
+
+    public String store(byte[] content) {
+        if (contentType(content).isEmpty()) {
+            throw new InvalidImageException("Only PNG, JPEG, GIF and WEBP images are accepted");
+        }
+
+        var hash = HexFormat.of().formatHex(sha256().digest(content));
+        var target = pathOf(hash);
+
+        if (Files.exists(target)) {
+            log.debug("Image {} already stored", hash);
+            return hash;
+        }
+
+        try {
+            writeAtomically(target, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image " + hash, e);
+        }
+
+        log.info("Stored image {} ({} bytes)", hash, content.length);
+        return hash;
+    }
+
+    /**
+     * Recebe um upload em pedaços sem nunca juntar o arquivo na heap: cada pedaço atualiza
+     * o SHA-256 e vai para um arquivo temporário, que no fim é movido para o endereço do hash.
+     * O limite de tamanho e o tipo (pelos primeiros bytes) são verificados durante a recepção.
+     */
+    public Future<StoredImage> receive(Vertx vertx, ReadStream<Buffer> source) {
+        source.pause();
+
+        var fs = vertx.fileSystem();
+        var incoming = Path.of(directory, INCOMING_DIRECTORY).toString();
+        var upload = new StreamingUpload(source, maxUploadBytes);
+
+        return fs.mkdirs(incoming)
+                .compose(v -> fs.createTempFile(incoming, "upload-", ".tmp", (String) null))
+                .compose(temp -> fs.open(temp, new OpenOptions().setWrite(true))
+                        .compose(file -> upload.copyTo(file).transform(copy -> file.close()
+                                .transform(closed -> copy.succeeded() ? closed : Future.<Void>failedFuture(copy.cause()))))
+                        .compose(v -> moveIntoStore(fs, temp, upload.hash()))
+                        .map(hash -> new StoredImage(hash, upload.size))
+                        .recover(e -> fs.delete(temp).transform(deleted -> Future.failedFuture(e))));
+    }
+
+    public long maxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    private Future<String> moveIntoStore(FileSystem fs, String temp, String hash) {
+        var target = pathOf(hash);
+
+        return fs.exists(target.toString()).compose(exists -> {
+            if (exists) {
+                log.debug("Image {} already stored", hash);
+                return fs.delete(temp).map(hash);
+            }
+            return fs.mkdirs(target.getParent().toString())
+                    .compose(v -> fs.move(temp, target.toString(),
+                            new CopyOptions().setAtomicMove(true).setReplaceExisting(true)))
+                    .onSuccess(v -> log.info("Stored uploaded image {}", hash))
+                    .map(hash);
+        });
+    }
+
+    /**
+     * Miniaturas ficam ao lado do original, em {@code <hash>.thumb.jpg}.
+     */
+    public void storeThumbnail(String hash, byte[] jpeg) throws IOException {
+        writeAtomically(thumbnailPathOf(hash), jpeg);
+    }
+
+    public Optional<Path> resolveThumbnail(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        var path = thumbnailPathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public Optional<Path> resolve(String hash) {
+        if (!isHash(hash)) {
+            return Optional.empty();
+        }
+        var path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Lê apenas o cabeçalho do arquivo para descobrir o Content-Type a ser servido.
+     */
+    public String contentType(Path path) throws IOException {
+        try (var channel = FileChannel.open(path)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header);
+            return contentType(header.array()).orElse("application/octet-stream");
+        }
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && HASH_PATTERN.matcher(value).matches();
+    }
+
+    static Optional<String> contentType(byte[] header) {
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G')) {
+            return Optional.of("image/png");
+        }
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of("image/jpeg");
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return Optional.of("image/gif");
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return Optional.of("image/webp");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] content, int offset, int... signature) {
+        if (content.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((content[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path pathOf(String hash) {
+        return Path.of(directory, hash.substring(0, 2), hash);
+    }
+
+    private Path thumbnailPathOf(String hash) {
+        return Path.of(directory, hash.substring(0, 2), hash + THUMBNAIL_SUFFIX);
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        var temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public record StoredImage(String hash, long size) {
+    }
+
+    private static final class StreamingUpload {
+
+        private final ReadStream<Buffer> source;
+        private final long maxBytes;
+        private final MessageDigest digest = sha256();
+        private final Buffer header = Buffer.buffer(HEADER_SIZE);
+        private long size;
+        private boolean failed;
+
+        private StreamingUpload(ReadStream<Buffer> source, long maxBytes) {
+            this.source = source;
+            this.maxBytes = maxBytes;
+        }
+
+        private Future<Void> copyTo(AsyncFile file) {
+            Promise<Void> done = Promise.promise();
+
+            source.handler(chunk -> {
+                // Depois de uma falha o restante do corpo só é descartado
+                if (failed) {
+                    return;
+                }
+
+                size += chunk.length();
+                if (size > maxBytes) {
+                    fail(done, new ImageTooLargeException(maxBytes));
+                    return;
+                }
+
+                if (header.length() < HEADER_SIZE) {
+                    header.appendBuffer(chunk, 0, Math.min(chunk.length(), HEADER_SIZE - header.length()));
+                    if (header.length() == HEADER_SIZE && contentType(header.getBytes()).isEmpty()) {
+                        fail(done, new InvalidImageException("Only PNG, JPEG, GIF and WEBP images are accepted"));
+                        return;
+                    }
+                }
+
+                digest.update(chunk.getByteBuf().nioBuffer());
+                file.write(chunk);
+                if (file.writeQueueFull()) {
+                    source.pause();
+                    file.drainHandler(v -> source.resume());
+                }
+            });
+            source.exceptionHandler(e -> fail(done, e));
+            source.endHandler(v -> {
+                if (!failed && contentType(header.getBytes()).isEmpty()) {
+                    fail(done, new InvalidImageException("Only PNG, JPEG, GIF and WEBP images are accepted"));
+                }
+                done.tryComplete();
+            });
+            source.resume();
+
+            return done.future();
+        }
+
+        private void fail(Promise<Void> done, Throwable cause) {
+            failed = true;
+            done.tryFail(cause);
+        }
+
+        private String hash() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
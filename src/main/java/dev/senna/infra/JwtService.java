@@ -48,7 +48,7 @@ public class JwtService {
         var hash = BcryptUtil.bcryptHash(raw);
 
         RefreshTokenEntity refreshToken = new RefreshTokenEntity();
-        refreshToken.tokenId = UUID.randomUUID();
+        refreshToken.tokenId = UuidV7.generate();
         refreshToken.userId = user.getUserId();
         refreshToken.tokenHash = hash;
         refreshToken.expiresAt = Instant.now().plus(REFRESH_TOKEN_VALIDITY);
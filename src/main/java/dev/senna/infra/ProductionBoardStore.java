@@ -0,0 +1,713 @@
+package dev.senna.infra;
+
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.controller.dto.response.ListOrderProductionResponseDto;
+import dev.senna.controller.dto.response.StageQueueItemResponseDto;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.model.enums.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Projeção em memória do quadro de produção: itens que ainda não foram EMBALADO
+ * e pedidos em PRODUCAO.
+ * <p>
+ * Cada item ocupa um slot em arrays primitivos paralelos e é localizado por um índice
+ * de endereçamento aberto (long -> int). Orçamento por item, fora as Strings de nome
+ * e imagem: id 8 + versão 8 + status 1 + material 1 + quantidades 8 + orderId 8 + 2 referências 8
+ * + índice (load factor &lt;= 0.5) 24 + data de entrega 4 + posição no heap 4 + heap 4
+ * = ~78 bytes, ou ~38 MB para 500k itens ativos.
+ * <p>
+ * Cada etapa ({@link ItemStatus}) mantém um min-heap indexado de slots ordenado pela data
+ * de entrega do pedido e depois pelo id, atualizado a cada escrita. Itens sem pedido em
+ * PRODUCAO ficam no fim da fila.
+ * <p>
+ * As escritas chegam depois do commit de cada transação e podem se cruzar: item e pedido trazem
+ * a {@code @Version} da linha, e uma versão mais antiga que a já aplicada é ignorada. As últimas
+ * {@value #RECENT_REMOVALS} remoções guardam a versão em que aconteceram, para que um upsert
+ * atrasado não traga de volta um item embalado ou um pedido que saiu de produção.
+ */
+public class ProductionBoardStore {
+
+    private static final int FREE = -1;
+    private static final int NO_QUANTITY = Integer.MIN_VALUE;
+    private static final long NO_ORDER = 0L;
+    private static final int NO_DELIVERY = Integer.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int RECENT_REMOVALS = 4096;
+
+    private static final ItemStatus[] STATUSES = ItemStatus.values();
+    private static final Material[] MATERIALS = Material.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slots de itens
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private byte[] materials = new byte[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] saleQuantities = new int[INITIAL_CAPACITY];
+    private long[] orderIds = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] images = new String[INITIAL_CAPACITY];
+    private int[] deliveryDays = new int[INITIAL_CAPACITY];
+    private int[] heapPositions = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+    private int size;
+
+    // Índice id -> slot (linear probing, remoção por backward shift)
+    private long[] indexKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] indexSlots = newIndexSlots(INITIAL_CAPACITY * 2);
+    private int indexMask = INITIAL_CAPACITY * 2 - 1;
+
+    // Um min-heap de slots por etapa
+    private final int[][] stageHeaps = new int[STATUSES.length][16];
+    private final int[] stageSizes = new int[STATUSES.length];
+
+    // Pedidos em PRODUCAO, na ordem de inserção
+    private final Map<Long, OrderSlot> orders = new LinkedHashMap<>();
+
+    // Itens de pedidos fora de PRODUCAO, agrupados pelo pedido para serem reanexados sem varrer os slots
+    private final Map<Long, OrderSlot> detachedItems = new HashMap<>();
+
+    // id -> versão da remoção; Long.MAX_VALUE quando a linha foi apagada
+    private final Map<Long, Long> removedItems = recentRemovals();
+    private final Map<Long, Long> removedOrders = recentRemovals();
+
+    public void upsertItem(long id, long version, String name, Integer quantity, Integer saleQuantity,
+                           Material material, String image, ItemStatus status, Long orderId) {
+        lock.writeLock().lock();
+        try {
+            int slot = indexGet(id);
+            if (slot == FREE ? removedAfter(removedItems, id, version) : version < versions[slot]) {
+                return;
+            }
+
+            if (status == ItemStatus.EMBALADO) {
+                removeItemLocked(id);
+                removedItems.put(id, version);
+                return;
+            }
+
+            if (slot == FREE) {
+                removedItems.remove(id);
+                slot = allocateSlot();
+                ids[slot] = id;
+                orderIds[slot] = NO_ORDER;
+                deliveryDays[slot] = NO_DELIVERY;
+                statuses[slot] = (byte) status.ordinal();
+                heapInsert(status.ordinal(), slot);
+                indexPut(id, slot);
+                size++;
+            } else if (statuses[slot] != status.ordinal()) {
+                heapRemove(statuses[slot], slot);
+                statuses[slot] = (byte) status.ordinal();
+                heapInsert(status.ordinal(), slot);
+            }
+
+            versions[slot] = version;
+            names[slot] = name;
+            images[slot] = image;
+            quantities[slot] = quantity == null ? NO_QUANTITY : quantity;
+            saleQuantities[slot] = saleQuantity == null ? NO_QUANTITY : saleQuantity;
+            materials[slot] = material == null ? FREE : (byte) material.ordinal();
+            moveToOrder(slot, orderId == null ? NO_ORDER : orderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeItem(long id) {
+        lock.writeLock().lock();
+        try {
+            removeItemLocked(id);
+            removedItems.put(id, Long.MAX_VALUE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void assignOrder(long orderId, Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                int slot = indexGet(itemId);
+                if (slot != FREE) {
+                    moveToOrder(slot, orderId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsertOrder(long id, long version, OrderStatus status, LocalDate deliveryDate, UUID clientId,
+                            String clientName) {
+        lock.writeLock().lock();
+        try {
+            var order = orders.get(id);
+            if (order == null ? removedAfter(removedOrders, id, version) : version < order.version) {
+                return;
+            }
+
+            if (status != OrderStatus.PRODUCAO) {
+                detachOrder(id);
+                removedOrders.put(id, version);
+                return;
+            }
+
+            if (order == null) {
+                removedOrders.remove(id);
+                order = detachedItems.remove(id);
+                if (order == null) {
+                    order = new OrderSlot(id);
+                }
+                orders.put(id, order);
+            }
+            order.version = version;
+            order.deliveryDate = deliveryDate;
+            order.clientId = clientId;
+            order.clientName = clientName;
+
+            int day = toDeliveryDay(deliveryDate);
+            for (int i = 0; i < order.itemCount; i++) {
+                setDeliveryDay(order.itemSlots[i], day);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeOrder(long id) {
+        lock.writeLock().lock();
+        try {
+            detachOrder(id);
+            removedOrders.put(id, Long.MAX_VALUE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameClient(UUID clientId, String clientName) {
+        lock.writeLock().lock();
+        try {
+            for (OrderSlot order : orders.values()) {
+                if (clientId.equals(order.clientId)) {
+                    order.clientName = clientName;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ListItemProductionLineResponse> listItems(int page, int pageSize) {
+        lock.readLock().lock();
+        try {
+            var result = new ArrayList<ListItemProductionLineResponse>(Math.min(pageSize, size));
+            long toSkip = (long) page * pageSize;
+
+            for (int slot = 0; slot < highWater && result.size() < pageSize; slot++) {
+                if (statuses[slot] == FREE) {
+                    continue;
+                }
+                if (toSkip > 0) {
+                    toSkip--;
+                    continue;
+                }
+                result.add(toItemResponse(slot));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ListOrderProductionResponseDto> listOrders(int page, int pageSize) {
+        lock.readLock().lock();
+        try {
+            return orders.values().stream()
+                    .skip((long) page * pageSize)
+                    .limit(pageSize)
+                    .map(order -> {
+                        var items = new ArrayList<ListItemProductionLineResponse>(order.itemCount);
+                        for (int i = 0; i < order.itemCount; i++) {
+                            items.add(toItemResponse(order.itemSlots[i]));
+                        }
+                        return new ListOrderProductionResponseDto(order.deliveryDate, order.id,
+                                order.clientName, OrderStatus.PRODUCAO, items);
+                    }).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<StageQueueItemResponseDto> nextForStage(ItemStatus status, int limit) {
+        lock.readLock().lock();
+        try {
+            int stage = status.ordinal();
+            int[] heap = stageHeaps[stage];
+            int heapSize = stageSizes[stage];
+            var result = new ArrayList<StageQueueItemResponseDto>(Math.min(limit, heapSize));
+
+            // Fronteira de candidatos (posições no heap): O(k log k) sem tocar no heap da etapa
+            int[] frontier = new int[Math.min(limit, heapSize) + 2];
+            int frontierSize = 0;
+            if (heapSize > 0) {
+                frontier[frontierSize++] = 0;
+            }
+
+            while (frontierSize > 0 && result.size() < limit) {
+                int best = frontier[0];
+                frontier[0] = frontier[--frontierSize];
+                siftDownFrontier(heap, frontier, frontierSize, 0);
+
+                int slot = heap[best];
+                result.add(toStageQueueItem(slot));
+
+                for (int child = 2 * best + 1; child <= 2 * best + 2 && child < heapSize; child++) {
+                    frontier[frontierSize] = child;
+                    siftUpFrontier(heap, frontier, frontierSize++);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Roda a leitura só se o lock de leitura puder ser tomado agora, sem esperar. Vazio quando um
+     * writer está com o lock: quem chama no event loop despacha a leitura para um worker.
+     */
+    public <T> Optional<T> tryRead(Supplier<T> read) {
+        if (!lock.readLock().tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            // O lock de leitura é reentrante: os métodos de leitura o tomam de novo sem bloquear
+            return Optional.of(read.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int itemCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int orderCount() {
+        lock.readLock().lock();
+        try {
+            return orders.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(statuses, 0, highWater, (byte) FREE);
+            Arrays.fill(names, 0, highWater, null);
+            Arrays.fill(images, 0, highWater, null);
+            Arrays.fill(indexSlots, FREE);
+            orders.clear();
+            detachedItems.clear();
+            removedItems.clear();
+            removedOrders.clear();
+            Arrays.fill(stageSizes, 0);
+            freeCount = 0;
+            highWater = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ListItemProductionLineResponse toItemResponse(int slot) {
+        return new ListItemProductionLineResponse(
+                ids[slot],
+                names[slot],
+                quantities[slot] == NO_QUANTITY ? null : quantities[slot],
+                saleQuantities[slot] == NO_QUANTITY ? null : saleQuantities[slot],
+                materials[slot] == FREE ? null : MATERIALS[materials[slot]],
+                images[slot],
+                STATUSES[statuses[slot]],
+                orderIds[slot] == NO_ORDER ? null : orderIds[slot]
+        );
+    }
+
+    private StageQueueItemResponseDto toStageQueueItem(int slot) {
+        return new StageQueueItemResponseDto(
+                ids[slot],
+                names[slot],
+                quantities[slot] == NO_QUANTITY ? null : quantities[slot],
+                saleQuantities[slot] == NO_QUANTITY ? null : saleQuantities[slot],
+                materials[slot] == FREE ? null : MATERIALS[materials[slot]],
+                images[slot],
+                STATUSES[statuses[slot]],
+                orderIds[slot] == NO_ORDER ? null : orderIds[slot],
+                deliveryDays[slot] == NO_DELIVERY ? null : LocalDate.ofEpochDay(deliveryDays[slot])
+        );
+    }
+
+    private void removeItemLocked(long id) {
+        int slot = indexGet(id);
+        if (slot == FREE) {
+            return;
+        }
+
+        moveToOrder(slot, NO_ORDER);
+        heapRemove(statuses[slot], slot);
+        indexRemove(id);
+        statuses[slot] = FREE;
+        names[slot] = null;
+        images[slot] = null;
+        size--;
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            materials = Arrays.copyOf(materials, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            saleQuantities = Arrays.copyOf(saleQuantities, capacity);
+            orderIds = Arrays.copyOf(orderIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            images = Arrays.copyOf(images, capacity);
+            deliveryDays = Arrays.copyOf(deliveryDays, capacity);
+            heapPositions = Arrays.copyOf(heapPositions, capacity);
+        }
+        return highWater++;
+    }
+
+    private void moveToOrder(int slot, long orderId) {
+        long current = orderIds[slot];
+        if (current == orderId) {
+            return;
+        }
+        if (current != NO_ORDER) {
+            var previous = orders.get(current);
+            if (previous != null) {
+                previous.remove(slot);
+            } else {
+                removeDetached(current, slot);
+            }
+        }
+        orderIds[slot] = orderId;
+        var next = orderId == NO_ORDER ? null : orders.get(orderId);
+        if (next != null) {
+            next.add(slot);
+            setDeliveryDay(slot, toDeliveryDay(next.deliveryDate));
+        } else {
+            if (orderId != NO_ORDER) {
+                detachedItems.computeIfAbsent(orderId, OrderSlot::new).add(slot);
+            }
+            setDeliveryDay(slot, NO_DELIVERY);
+        }
+    }
+
+    private void removeDetached(long orderId, int slot) {
+        var detached = detachedItems.get(orderId);
+        if (detached == null) {
+            return;
+        }
+        detached.remove(slot);
+        if (detached.itemCount == 0) {
+            detachedItems.remove(orderId);
+        }
+    }
+
+    // Os itens continuam apontando para o pedido, mas perdem a data de entrega e vão para o fim da fila
+    private void detachOrder(long id) {
+        var order = orders.remove(id);
+        if (order == null) {
+            return;
+        }
+        for (int i = 0; i < order.itemCount; i++) {
+            setDeliveryDay(order.itemSlots[i], NO_DELIVERY);
+        }
+        if (order.itemCount > 0) {
+            detachedItems.put(id, order);
+        }
+    }
+
+    private void setDeliveryDay(int slot, int day) {
+        if (deliveryDays[slot] == day) {
+            return;
+        }
+        deliveryDays[slot] = day;
+        int stage = statuses[slot];
+        int position = heapPositions[slot];
+        siftUp(stage, position);
+        siftDown(stage, heapPositions[slot]);
+    }
+
+    private static boolean removedAfter(Map<Long, Long> removals, long id, long version) {
+        var removedAt = removals.get(id);
+        return removedAt != null && version < removedAt;
+    }
+
+    // Só a janela recente: commits concorrentes se cruzam em milissegundos, não ao longo de milhares de remoções
+    private static Map<Long, Long> recentRemovals() {
+        return new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > RECENT_REMOVALS;
+            }
+        };
+    }
+
+    private static int toDeliveryDay(LocalDate deliveryDate) {
+        return deliveryDate == null ? NO_DELIVERY : (int) deliveryDate.toEpochDay();
+    }
+
+    private boolean before(int slotA, int slotB) {
+        if (deliveryDays[slotA] != deliveryDays[slotB]) {
+            return deliveryDays[slotA] < deliveryDays[slotB];
+        }
+        return ids[slotA] < ids[slotB];
+    }
+
+    private void heapInsert(int stage, int slot) {
+        if (stageSizes[stage] == stageHeaps[stage].length) {
+            stageHeaps[stage] = Arrays.copyOf(stageHeaps[stage], stageHeaps[stage].length * 2);
+        }
+        int position = stageSizes[stage]++;
+        stageHeaps[stage][position] = slot;
+        heapPositions[slot] = position;
+        siftUp(stage, position);
+    }
+
+    private void heapRemove(int stage, int slot) {
+        int[] heap = stageHeaps[stage];
+        int position = heapPositions[slot];
+        int last = --stageSizes[stage];
+
+        if (position != last) {
+            int moved = heap[last];
+            heap[position] = moved;
+            heapPositions[moved] = position;
+            siftUp(stage, position);
+            siftDown(stage, heapPositions[moved]);
+        }
+        heapPositions[slot] = FREE;
+    }
+
+    private void siftUp(int stage, int position) {
+        int[] heap = stageHeaps[stage];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(heap[position], heap[parent])) {
+                break;
+            }
+            swap(heap, position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int stage, int position) {
+        int[] heap = stageHeaps[stage];
+        int heapSize = stageSizes[stage];
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSize && before(heap[left], heap[smallest])) {
+                smallest = left;
+            }
+            if (right < heapSize && before(heap[right], heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(heap, position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int[] heap, int a, int b) {
+        int slotA = heap[a];
+        heap[a] = heap[b];
+        heap[b] = slotA;
+        heapPositions[heap[a]] = a;
+        heapPositions[heap[b]] = b;
+    }
+
+    private void siftUpFrontier(int[] heap, int[] frontier, int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(heap[frontier[position]], heap[frontier[parent]])) {
+                break;
+            }
+            int tmp = frontier[position];
+            frontier[position] = frontier[parent];
+            frontier[parent] = tmp;
+            position = parent;
+        }
+    }
+
+    private void siftDownFrontier(int[] heap, int[] frontier, int frontierSize, int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < frontierSize && before(heap[frontier[left]], heap[frontier[smallest]])) {
+                smallest = left;
+            }
+            if (right < frontierSize && before(heap[frontier[right]], heap[frontier[smallest]])) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            int tmp = frontier[position];
+            frontier[position] = frontier[smallest];
+            frontier[smallest] = tmp;
+            position = smallest;
+        }
+    }
+
+    private static int[] newIndexSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexGet(long key) {
+        int i = hash(key) & indexMask;
+        while (indexSlots[i] != FREE) {
+            if (indexKeys[i] == key) {
+                return indexSlots[i];
+            }
+            i = (i + 1) & indexMask;
+        }
+        return FREE;
+    }
+
+    private void indexPut(long key, int slot) {
+        if ((size + 1) * 2 > indexSlots.length) {
+            resizeIndex(indexSlots.length * 2);
+        }
+        int i = hash(key) & indexMask;
+        while (indexSlots[i] != FREE && indexKeys[i] != key) {
+            i = (i + 1) & indexMask;
+        }
+        indexKeys[i] = key;
+        indexSlots[i] = slot;
+    }
+
+    private void indexRemove(long key) {
+        int i = hash(key) & indexMask;
+        while (indexSlots[i] != FREE && indexKeys[i] != key) {
+            i = (i + 1) & indexMask;
+        }
+        if (indexSlots[i] == FREE) {
+            return;
+        }
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & indexMask;
+            if (indexSlots[j] == FREE) {
+                break;
+            }
+            int ideal = hash(indexKeys[j]) & indexMask;
+            boolean canShift = i <= j ? (ideal <= i || ideal > j) : (ideal <= i && ideal > j);
+            if (canShift) {
+                indexKeys[i] = indexKeys[j];
+                indexSlots[i] = indexSlots[j];
+                i = j;
+            }
+        }
+        indexSlots[i] = FREE;
+    }
+
+    private void resizeIndex(int capacity) {
+        long[] oldKeys = indexKeys;
+        int[] oldSlots = indexSlots;
+
+        indexKeys = new long[capacity];
+        indexSlots = newIndexSlots(capacity);
+        indexMask = capacity - 1;
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != FREE) {
+                int j = hash(oldKeys[i]) & indexMask;
+                while (indexSlots[j] != FREE) {
+                    j = (j + 1) & indexMask;
+                }
+                indexKeys[j] = oldKeys[i];
+                indexSlots[j] = oldSlots[i];
+            }
+        }
+    }
+
+    private static final class OrderSlot {
+        private final long id;
+        private long version;
+        private LocalDate deliveryDate;
+        private UUID clientId;
+        private String clientName;
+        private int[] itemSlots = new int[4];
+        private int itemCount;
+
+        private OrderSlot(long id) {
+            this.id = id;
+        }
+
+        private void add(int slot) {
+            if (itemCount == itemSlots.length) {
+                itemSlots = Arrays.copyOf(itemSlots, itemSlots.length * 2);
+            }
+            itemSlots[itemCount++] = slot;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < itemCount; i++) {
+                if (itemSlots[i] == slot) {
+                    itemSlots[i] = itemSlots[--itemCount];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.senna.infra;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ThreadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Decide em que thread roda o corpo dos endpoints JAX-RS. O RESTEasy Classic não conhece o
+ * {@code @RunOnVirtualThread}, então os controllers devolvem um {@link CompletionStage} montado aqui:
+ * <ul>
+ *     <li>padrão: o trabalho roda na própria thread do worker, sem troca de thread;</li>
+ *     <li>{@code controllers.virtual-threads.enabled=true} (Java 21+): uma virtual thread por requisição,
+ *     e a thread do worker volta para o pool enquanto o JDBC espera o banco.</li>
+ * </ul>
+ * Os contextos de CDI e de segurança seguem para a virtual thread; o {@code @Context} do JAX-RS não,
+ * por isso os controllers leem o {@code SecurityContext} antes de chamar {@link #submit}.
+ */
+@ApplicationScoped
+public class RequestExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestExecutor.class);
+
+    @ConfigProperty(name = "controllers.virtual-threads.enabled", defaultValue = "false")
+    boolean virtualThreadsEnabled;
+
+    @Inject
+    ThreadContext threadContext;
+
+    // null no modo padrão (threads de plataforma do pool de workers)
+    private ExecutorService virtualThreads;
+
+    @PostConstruct
+    void start() {
+        if (!virtualThreadsEnabled) {
+            return;
+        }
+
+        virtualThreads = newVirtualThreadPerTaskExecutor();
+        if (virtualThreads == null) {
+            log.warn("Virtual threads requested but the runtime is Java {}, controllers stay on the worker pool",
+                    Runtime.version().feature());
+            return;
+        }
+        log.info("Controllers running on virtual threads");
+    }
+
+    @PreDestroy
+    void stop() {
+        if (virtualThreads != null) {
+            virtualThreads.shutdown();
+        }
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads != null;
+    }
+
+    public <T> CompletionStage<T> submit(Supplier<T> task) {
+        if (virtualThreads == null) {
+            // Exceções sobem direto do método do recurso, como antes
+            return CompletableFuture.completedFuture(task.get());
+        }
+
+        var result = new CompletableFuture<T>();
+        var contextual = threadContext.contextualSupplier(task);
+        virtualThreads.execute(() -> {
+            try {
+                result.complete(contextual.get());
+            } catch (Throwable e) {
+                // Sem embrulhar em CompletionException: o HttpProblem chega intacto aos exception mappers
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Por reflexão para o build padrão (Java 17) continuar compilando
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
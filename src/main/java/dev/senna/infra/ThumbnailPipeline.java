@@ -0,0 +1,209 @@
+package dev.senna.infra;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera as miniaturas das artes fora da requisição.
+ * <p>
+ * A fila é limitada: quando enche, o pedido é descartado e a miniatura é gerada
+ * de novo na primeira vez que for solicitada em {@code /api/images/{hash}/thumbnail}.
+ * Hashes já enfileirados não entram duas vezes, e imagens que o ImageIO não decodifica
+ * (WEBP, arquivos corrompidos ou acima do limite de pixels) ficam marcadas até o próximo
+ * restart: a rota continua servindo o original sem colocá-las na fila de novo.
+ */
+@ApplicationScoped
+public class ThumbnailPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailPipeline.class);
+
+    static final int THUMBNAIL_SIZE = 256;
+
+    // 40 megapixels: acima disso a imagem decodificada passaria de 160 MB na heap
+    static final long MAX_PIXELS = 40_000_000L;
+
+    @ConfigProperty(name = "image.thumbnail.workers", defaultValue = "2")
+    int workers;
+
+    @ConfigProperty(name = "image.thumbnail.queue-capacity", defaultValue = "500")
+    int queueCapacity;
+
+    @Inject
+    ImageStore imageStore;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> undecodable = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+    private Timer processingTime;
+    private Counter generated;
+    private Counter failed;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        var threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("thumbnail.queue.depth", executor, e -> e.getQueue().size())
+                .description("Thumbnails waiting to be generated")
+                .register(registry);
+        processingTime = Timer.builder("thumbnail.processing.time")
+                .description("Time spent decoding, scaling and writing a thumbnail")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        generated = Counter.builder("thumbnail.requests").tag("result", "generated").register(registry);
+        failed = Counter.builder("thumbnail.requests").tag("result", "failed").register(registry);
+        rejected = Counter.builder("thumbnail.requests").tag("result", "rejected").register(registry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public void submit(String hash) {
+        if (!ImageStore.isHash(hash) || undecodable.contains(hash) || imageStore.resolveThumbnail(hash).isPresent()
+                || !pending.add(hash)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> generate(hash));
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            rejected.increment();
+            log.warn("Thumbnail queue is full, image {} will be processed on demand", hash);
+        }
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void generate(String hash) {
+        var start = System.nanoTime();
+        try {
+            var original = imageStore.resolve(hash);
+            if (original.isEmpty()) {
+                return;
+            }
+
+            var thumbnail = render(original.get(), THUMBNAIL_SIZE);
+            if (thumbnail.isEmpty()) {
+                log.warn("No thumbnail generated for image {}, serving the original from now on", hash);
+                undecodable.add(hash);
+                failed.increment();
+                return;
+            }
+
+            imageStore.storeThumbnail(hash, thumbnail.get());
+            generated.increment();
+            log.debug("Thumbnail of image {} generated", hash);
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.error("Could not generate thumbnail of image {}", hash, e);
+        } finally {
+            processingTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            pending.remove(hash);
+        }
+    }
+
+    /**
+     * Reduz a imagem para caber em um quadrado de {@code size} pixels, mantendo a proporção.
+     * Transparências viram fundo branco, já que a miniatura é gravada em JPEG.
+     * <p>
+     * As dimensões vêm do cabeçalho, antes de decodificar: imagens acima de {@link #MAX_PIXELS}
+     * são recusadas, e as demais são lidas com subamostragem para nunca decodificar mais que
+     * o dobro do tamanho da miniatura.
+     */
+    static Optional<byte[]> render(Path original, int size) throws IOException {
+        try (var input = ImageIO.createImageInputStream(original.toFile())) {
+            var readers = input == null ? Collections.<ImageReader>emptyIterator() : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > MAX_PIXELS) {
+                    log.warn("Image {} has {}x{} pixels, above the limit of {}", original.getFileName(),
+                            sourceWidth, sourceHeight, MAX_PIXELS);
+                    return Optional.empty();
+                }
+
+                double scale = Math.min(1.0, Math.min((double) size / sourceWidth, (double) size / sourceHeight));
+                int width = Math.max(1, (int) Math.round(sourceWidth * scale));
+                int height = Math.max(1, (int) Math.round(sourceHeight * scale));
+
+                var param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, (int) (1 / (2 * scale)));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                return Optional.of(toJpeg(reader.read(0, param), width, height));
+            } catch (IIOException e) {
+                log.warn("Image {} could not be decoded: {}", original.getFileName(), e.getMessage());
+                return Optional.empty();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static byte[] toJpeg(BufferedImage source, int width, int height) throws IOException {
+        var thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        var output = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "jpg", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,40 @@
+package dev.senna.infra;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gera UUIDs versão 7 (RFC 9562): 48 bits de timestamp em milissegundos seguidos de bits
+ * aleatórios. Chaves geradas em sequência caem no fim do índice B-tree em vez de espalhar
+ * inserções por páginas aleatórias como o UUID v4.
+ * <p>
+ * Os valores continuam sendo {@link UUID} comuns, então convivem na mesma coluna com os
+ * ids v4 já gravados.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        return generate(System.currentTimeMillis(), ThreadLocalRandom.current());
+    }
+
+    static UUID generate(long epochMillis, Random random) {
+        long mostSigBits = (epochMillis << 16) | VERSION_7 | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | VARIANT_RFC_4122;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // Instante de criação embutido no id; ids v4 não carregam essa informação
+    public static long epochMillis(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
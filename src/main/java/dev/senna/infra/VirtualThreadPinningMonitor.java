@@ -0,0 +1,86 @@
+package dev.senna.infra;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Acusa virtual threads presas à thread carregadora ({@code synchronized} ou código nativo
+ * segurando I/O). Lê o evento {@code jdk.VirtualThreadPinned} do JFR em streaming, conta no
+ * {@code virtual.threads.pinned} e registra no log o primeiro frame da aplicação.
+ * Só liga quando os controllers rodam em virtual threads.
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @ConfigProperty(name = "controllers.virtual-threads.pinning-threshold", defaultValue = "20ms")
+    Duration threshold;
+
+    @Inject
+    RequestExecutor requestExecutor;
+
+    @Inject
+    MeterRegistry registry;
+
+    private RecordingStream stream;
+
+    void start(@Observes StartupEvent event) {
+        if (!requestExecutor.usesVirtualThreads()) {
+            return;
+        }
+
+        var pinned = Counter.builder("virtual.threads.pinned")
+                .description("Virtual threads pinned to their carrier for longer than the threshold")
+                .register(registry);
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, pinnedEvent -> {
+            pinned.increment();
+            log.warn("Virtual thread pinned for {} ms at {}", pinnedEvent.getDuration().toMillis(), location(pinnedEvent));
+        });
+        stream.startAsync();
+
+        log.info("Watching virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    void stop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    // Primeiro frame do nosso código; sem ele, o topo da pilha
+    private static String location(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+
+        return stackTrace.getFrames().stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith("dev.senna"))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElseGet(() -> describe(stackTrace.getFrames().get(0)));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.senna.model.converter;
+
+import dev.senna.model.enums.ItemStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class ItemStatusConverter implements AttributeConverter<ItemStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(ItemStatus value) {
+        return value == null ? null : value.getCode();
+    }
+
+    @Override
+    public ItemStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : ItemStatus.fromCode(code);
+    }
+}
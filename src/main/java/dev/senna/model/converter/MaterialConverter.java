@@ -0,0 +1,19 @@
+package dev.senna.model.converter;
+
+import dev.senna.model.enums.Material;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class MaterialConverter implements AttributeConverter<Material, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Material value) {
+        return value == null ? null : value.getId().shortValue();
+    }
+
+    @Override
+    public Material convertToEntityAttribute(Short code) {
+        return code == null ? null : Material.fromId(code);
+    }
+}
@@ -0,0 +1,19 @@
+package dev.senna.model.converter;
+
+import dev.senna.model.enums.UserRole;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class UserRoleConverter implements AttributeConverter<UserRole, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(UserRole value) {
+        return value == null ? null : value.getCode();
+    }
+
+    @Override
+    public UserRole convertToEntityAttribute(Short code) {
+        return code == null ? null : UserRole.fromCode(code);
+    }
+}
@@ -0,0 +1,21 @@
+package dev.senna.model.entity;
+
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+
+// Item como estava no momento do arquivamento, guardado no JSON de tb_order_archive
+public record ArchivedItem(
+        Long id,
+        String name,
+        Integer quantity,
+        Integer saleQuantity,
+        Material material,
+        String image,
+        ItemStatus status
+) {
+
+    public static ArchivedItem of(ItemEntity item) {
+        return new ArchivedItem(item.getId(), item.getName(), item.getQuantity(), item.getSaleQuantity(),
+                item.getMaterial(), item.getImage(), item.getStatus());
+    }
+}
@@ -1,21 +1,31 @@
 package dev.senna.model.entity;
 
+import dev.senna.infra.ClientNameIndex;
+import dev.senna.infra.GeneratedUuidV7;
 import jakarta.persistence.*;
 
 import java.util.List;
 import java.util.UUID;
 
+// Lido em toda resposta de pedido e quase nunca alterado: fica no cache de segundo nível
 @Entity
-@Table(name = "tb_client")
+@Cacheable
+@Table(name = "tb_client", uniqueConstraints = @UniqueConstraint(
+        name = "uk_client_normalized_name", columnNames = "normalized_name"))
 public class ClientEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID clientId;
 
     @Column(name = "client_name")
     private String clientName;
 
-    @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Nome sem acentos, minúsculo e com espaços colapsados: garante um cliente por nome
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
+    // Sem cascade: remover um cliente nunca deve carregar o histórico de pedidos
+    @OneToMany(mappedBy = "client")
     private List<OrderEntity> ordersList;
 
     public ClientEntity() {
@@ -43,6 +53,16 @@ public class ClientEntity {
         this.clientName = clientName;
     }
 
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        this.normalizedName = ClientNameIndex.normalize(clientName);
+    }
+
     public List<OrderEntity> getOrdersList() {
         return ordersList;
     }
@@ -0,0 +1,51 @@
+package dev.senna.model.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Contadores de pedidos por cliente, mantidos na mesma transação das escritas de pedido
+@Entity
+@Table(name = "tb_client_order_summary")
+public class ClientOrderSummaryEntity {
+
+    @Id
+    @Column(name = "client_id")
+    private UUID clientId;
+
+    @Column(name = "production_count", nullable = false)
+    private long productionCount;
+
+    @Column(name = "finished_count", nullable = false)
+    private long finishedCount;
+
+    @Column(name = "posted_count", nullable = false)
+    private long postedCount;
+
+    @Column(name = "last_posted_date")
+    private LocalDate lastPostedDate;
+
+    public ClientOrderSummaryEntity() {
+    }
+
+    public UUID getClientId() {
+        return clientId;
+    }
+
+    public long getProductionCount() {
+        return productionCount;
+    }
+
+    public long getFinishedCount() {
+        return finishedCount;
+    }
+
+    public long getPostedCount() {
+        return postedCount;
+    }
+
+    public LocalDate getLastPostedDate() {
+        return lastPostedDate;
+    }
+}
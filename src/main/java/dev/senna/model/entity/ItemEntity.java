@@ -1,11 +1,23 @@
 package dev.senna.model.entity;
 
+import dev.senna.model.converter.ItemStatusConverter;
+import dev.senna.model.converter.MaterialConverter;
 import dev.senna.model.enums.ItemStatus;
 import dev.senna.model.enums.Material;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
+import java.time.LocalDate;
 
 @Entity
-@Table(name = "tb_item")
+// Só as colunas alteradas entram no UPDATE: uma cópia antiga de order_sale_date em memória não
+// sobrescreve o valor que o ON UPDATE CASCADE gravou ao mudar a data de venda do pedido
+@DynamicUpdate
+@Table(name = "tb_item", indexes = {
+        @Index(name = "idx_item_order", columnList = "order_id"),
+        @Index(name = "idx_item_status", columnList = "actual_status, id")
+})
 public class ItemEntity {
 
     public ItemEntity(Long id, String name, Integer quantity, Integer saleQuantity, Material material, String image, ItemStatus itemStatus, OrderEntity order) {
@@ -16,7 +28,7 @@ public class ItemEntity {
         this.material = material;
         this.image = image;
         this.itemStatus = itemStatus;
-        this.order = order;
+        setOrder(order);
     }
 
     @Id
@@ -33,20 +45,36 @@ public class ItemEntity {
     private Integer saleQuantity;
 
     @Column(name = "material", nullable = false )
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = MaterialConverter.class)
     private Material material;
 
-    @Column(name = "image")
+    // SHA-256 da arte guardada no ImageStore
+    @Column(name = "image", length = 64)
     private String image;
 
     @Column(name = "actual_status", nullable = false)
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = ItemStatusConverter.class)
     private ItemStatus itemStatus;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private OrderEntity order;
 
+    // Cópia da data de venda do pedido para a FK composta com tb_order, nula nos itens sem pedido
+    @Column(name = "order_sale_date")
+    private LocalDate orderSaleDate;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private Instant claimExpiresAt;
+
+    // Controle otimista: exposto como ETag e conferido no If-Match do PATCH
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public ItemEntity() {
 
     }
@@ -113,5 +141,35 @@ public class ItemEntity {
 
     public void setOrder(OrderEntity order) {
         this.order = order;
+        this.orderSaleDate = order == null ? null : order.getSaleDate();
+    }
+
+    public LocalDate getOrderSaleDate() {
+        return orderSaleDate;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Instant getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+
+    public void setClaimExpiresAt(Instant claimExpiresAt) {
+        this.claimExpiresAt = claimExpiresAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isClaimedByAnotherOperator(String operator, Instant now) {
+        return claimedBy != null && !claimedBy.equals(operator)
+                && claimExpiresAt != null && claimExpiresAt.isAfter(now);
     }
 }
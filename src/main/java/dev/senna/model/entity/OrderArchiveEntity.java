@@ -0,0 +1,107 @@
+package dev.senna.model.entity;
+
+import dev.senna.model.converter.OrderStatusConverter;
+import dev.senna.model.enums.OrderStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// Pedido postado movido para fora de tb_order pelo arquivador; somente leitura
+@Entity
+@Table(name = "tb_order_archive", indexes = {
+        @Index(name = "idx_order_archive_client", columnList = "client_id"),
+        @Index(name = "idx_order_archive_sale_date", columnList = "sale_date, order_id")
+})
+public class OrderArchiveEntity {
+
+    @Id
+    @Column(name = "order_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "client_id", nullable = false)
+    private ClientEntity client;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "delivery_date", nullable = false)
+    private LocalDate deliveryDate;
+
+    @Column(name = "posted_date")
+    private LocalDate postedDate;
+
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(name = "order_status", nullable = false)
+    private OrderStatus status;
+
+    // Versão do pedido ao ser arquivado, mantida como ETag nas leituras do histórico
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "items", nullable = false)
+    private List<ArchivedItem> items;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    public OrderArchiveEntity() {
+    }
+
+    public static OrderArchiveEntity of(OrderEntity order, Instant archivedAt) {
+        var archive = new OrderArchiveEntity();
+        archive.id = order.getId();
+        archive.client = order.getClient();
+        archive.saleDate = order.getSaleDate();
+        archive.deliveryDate = order.getDeliveryDate();
+        archive.postedDate = order.getPostedDate();
+        archive.status = order.getStatus();
+        archive.version = order.getVersion();
+        archive.items = order.getItems() == null
+                ? List.of()
+                : order.getItems().stream().map(ArchivedItem::of).toList();
+        archive.archivedAt = archivedAt;
+        return archive;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ClientEntity getClient() {
+        return client;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public LocalDate getDeliveryDate() {
+        return deliveryDate;
+    }
+
+    public LocalDate getPostedDate() {
+        return postedDate;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<ArchivedItem> getItems() {
+        return items;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
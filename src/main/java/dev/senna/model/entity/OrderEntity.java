@@ -1,5 +1,6 @@
 package dev.senna.model.entity;
 
+import dev.senna.model.converter.OrderStatusConverter;
 import dev.senna.model.enums.OrderStatus;
 import jakarta.persistence.*;
 
@@ -7,7 +8,13 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "tb_order")
+// Índices criados pelas migrações em db/migration; declarados aqui para o esquema gerado nos testes
+@Table(name = "tb_order", indexes = {
+        @Index(name = "idx_order_client", columnList = "client_id"),
+        @Index(name = "idx_order_status_delivery", columnList = "order_status, delivery_date, order_id"),
+        @Index(name = "idx_order_posted_date", columnList = "postedDate"),
+        @Index(name = "idx_order_sale_date", columnList = "sale_date, order_id")
+})
 public class OrderEntity {
 
     @Id
@@ -36,10 +43,15 @@ public class OrderEntity {
     @JoinColumn(name = "client_id", nullable = false)
     private ClientEntity client;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = OrderStatusConverter.class)
     @Column(name = "order_status")
     private OrderStatus status;
 
+    // Controle otimista: exposto como ETag e conferido no If-Match do PATCH
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public OrderEntity(OrderStatus orderStatus) {
         this.status = orderStatus;
     }
@@ -103,4 +115,8 @@ public class OrderEntity {
     public void setPostedDate(LocalDate postedDate) {
         this.postedDate = postedDate;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
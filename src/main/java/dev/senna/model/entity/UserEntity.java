@@ -1,6 +1,8 @@
 package dev.senna.model.entity;
 
 import dev.senna.controller.dto.response.GetUserByIdResponse;
+import dev.senna.infra.GeneratedUuidV7;
+import dev.senna.model.converter.UserRoleConverter;
 import dev.senna.model.enums.UserRole;
 import io.quarkus.security.User;
 import io.quarkus.security.jpa.Password;
@@ -20,7 +22,7 @@ import java.util.UUID;
 public class UserEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID userId;
 
     @Username
@@ -32,7 +34,7 @@ public class UserEntity {
     @NotBlank
     private String password;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = UserRoleConverter.class)
     @Column(name = "user_role")
     @NotNull
     private UserRole role;
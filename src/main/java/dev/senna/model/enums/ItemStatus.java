@@ -1,13 +1,34 @@
 package dev.senna.model.enums;
 
+// O código é o valor gravado em tb_item.actual_status: nunca reaproveite nem renumere
 public enum ItemStatus {
 
-    IMPRESSO,
-    ENCARTELADO,
-    EM_SILK,
-    CHAPADO,
-    VERSO_PRONTO,
-    ACABAMENTO,
-    EMBALADO,
+    IMPRESSO(1),
+    ENCARTELADO(2),
+    EM_SILK(3),
+    CHAPADO(4),
+    VERSO_PRONTO(5),
+    ACABAMENTO(6),
+    EMBALADO(7),
 
+    ;
+
+    private final short code;
+
+    ItemStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static ItemStatus fromCode(short code) {
+        for (ItemStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown item status code: " + code);
+    }
 }
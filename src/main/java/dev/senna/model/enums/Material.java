@@ -22,4 +22,14 @@ public enum Material {
     public String getNomeMaterial() {
         return nomeMaterial;
     }
+
+    // O id é o valor gravado em tb_item.material
+    public static Material fromId(int id) {
+        for (Material material : values()) {
+            if (material.id == id) {
+                return material;
+            }
+        }
+        throw new IllegalArgumentException("Unknown material id: " + id);
+    }
 }
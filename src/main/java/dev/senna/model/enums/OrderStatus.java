@@ -1,7 +1,27 @@
 package dev.senna.model.enums;
 
+// O código é o valor gravado em tb_order.order_status: nunca reaproveite nem renumere
 public enum OrderStatus {
-    PRODUCAO,
-    FINALIZADO,
-    POSTADO
+    PRODUCAO(1),
+    FINALIZADO(2),
+    POSTADO(3);
+
+    private final short code;
+
+    OrderStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static OrderStatus fromCode(short code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code: " + code);
+    }
 }
@@ -1,18 +1,34 @@
 package dev.senna.model.enums;
 
+// O código é o valor gravado em tb_users.user_role: nunca reaproveite nem renumere
 public enum UserRole {
 
-    OFFICER("External Officer"),
-    ADMIN("Administrator"),
-    DEV("Developer");
+    OFFICER(1, "External Officer"),
+    ADMIN(2, "Administrator"),
+    DEV(3, "Developer");
 
+    private final short code;
     private String roleName;
 
-    UserRole(String roleName) {
+    UserRole(int code, String roleName) {
+        this.code = (short) code;
         this.roleName = roleName;
     }
 
+    public short getCode() {
+        return code;
+    }
+
     public String getRoleName() {
         return roleName;
     }
+
+    public static UserRole fromCode(short code) {
+        for (UserRole role : values()) {
+            if (role.code == code) {
+                return role;
+            }
+        }
+        throw new IllegalArgumentException("Unknown user role code: " + code);
+    }
 }
@@ -0,0 +1,135 @@
+package dev.senna.repository;
+
+import dev.senna.controller.dto.response.ClientOrderSummaryResDto;
+import dev.senna.model.entity.ClientOrderSummaryEntity;
+import dev.senna.model.enums.OrderStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class ClientOrderSummaryRepository implements PanacheRepositoryBase<ClientOrderSummaryEntity, UUID> {
+
+    // COALESCE dos dois lados: no H2, GREATEST com um argumento nulo devolve nulo
+    private static final String INCREMENT_COLUMNS =
+            "production_count = s.production_count + :production, " +
+            "finished_count = s.finished_count + :finished, " +
+            "posted_count = s.posted_count + :posted, " +
+            "last_posted_date = GREATEST(COALESCE(s.last_posted_date, :postedDate), " +
+            "COALESCE(:postedDate, s.last_posted_date))";
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    /**
+     * Soma os deltas aos contadores do cliente, criando a linha no primeiro pedido.
+     * A soma acontece no banco, então escritas concorrentes não perdem incrementos.
+     *
+     * @param postedDate data de postagem a considerar, ou null se o pedido não foi postado
+     */
+    public void applyDelta(UUID clientId, long production, long finished, long posted, LocalDate postedDate) {
+        if ("postgresql".equals(dbKind)) {
+            deltaQuery("INSERT INTO tb_client_order_summary AS s " +
+                    "(client_id, production_count, finished_count, posted_count, last_posted_date) " +
+                    "VALUES (:clientId, :production, :finished, :posted, :postedDate) " +
+                    "ON CONFLICT (client_id) DO UPDATE SET " + INCREMENT_COLUMNS,
+                    clientId, production, finished, posted, postedDate)
+                    .executeUpdate();
+            return;
+        }
+
+        // H2 dos testes não tem ON CONFLICT: atualiza e, se não havia linha, insere
+        int updated = deltaQuery("UPDATE tb_client_order_summary s SET " + INCREMENT_COLUMNS +
+                        " WHERE s.client_id = :clientId",
+                clientId, production, finished, posted, postedDate)
+                .executeUpdate();
+
+        if (updated == 0) {
+            deltaQuery("INSERT INTO tb_client_order_summary " +
+                            "(client_id, production_count, finished_count, posted_count, last_posted_date) " +
+                            "VALUES (:clientId, :production, :finished, :posted, :postedDate)",
+                    clientId, production, finished, posted, postedDate)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Recalcula a última data de postagem do cliente, somando pedidos ativos e arquivados. Só é
+     * preciso quando um pedido postado troca de cliente, já que POSTADO é status final.
+     */
+    public void refreshLastPostedDate(UUID clientId) {
+        var livePosted = "(SELECT MAX(o.postedDate) FROM OrderEntity o WHERE o.client.clientId = :clientId)";
+        var archivedPosted = "(SELECT MAX(a.postedDate) FROM OrderArchiveEntity a WHERE a.client.clientId = :clientId)";
+
+        // COALESCE dos dois lados: GREATEST com um argumento nulo não é portável entre Postgres e H2
+        getEntityManager()
+                .createQuery("UPDATE ClientOrderSummaryEntity s SET s.lastPostedDate = GREATEST(" +
+                        "COALESCE(" + livePosted + ", " + archivedPosted + "), " +
+                        "COALESCE(" + archivedPosted + ", " + livePosted + ")) " +
+                        "WHERE s.clientId = :clientId")
+                .setParameter("clientId", clientId)
+                .executeUpdate();
+    }
+
+    /**
+     * Lista os clientes em ordem alfabética com seus contadores. Clientes sem pedido
+     * aparecem zerados.
+     */
+    public List<ClientOrderSummaryResDto> listSummaries(int page, int pageSize) {
+        return getEntityManager()
+                .createQuery("SELECT new dev.senna.controller.dto.response.ClientOrderSummaryResDto(" +
+                        "c.clientId, c.clientName, COALESCE(s.productionCount, 0L), COALESCE(s.finishedCount, 0L), " +
+                        "COALESCE(s.postedCount, 0L), s.lastPostedDate) " +
+                        "FROM ClientEntity c LEFT JOIN ClientOrderSummaryEntity s ON s.clientId = c.clientId " +
+                        "ORDER BY c.clientName, c.clientId", ClientOrderSummaryResDto.class)
+                .setFirstResult(page * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    // Reconstrói a tabela inteira a partir de tb_order e dos pedidos arquivados
+    public long rebuild() {
+        deleteAll();
+        getEntityManager()
+                .createQuery("INSERT INTO ClientOrderSummaryEntity " +
+                        "(clientId, productionCount, finishedCount, postedCount, lastPostedDate) " +
+                        "SELECT o.client.clientId, " +
+                        "SUM(CASE WHEN o.status = :production THEN 1L ELSE 0L END), " +
+                        "SUM(CASE WHEN o.status = :finished THEN 1L ELSE 0L END), " +
+                        "SUM(CASE WHEN o.status = :posted THEN 1L ELSE 0L END), " +
+                        "MAX(o.postedDate) " +
+                        "FROM OrderEntity o GROUP BY o.client.clientId")
+                .setParameter("production", OrderStatus.PRODUCAO)
+                .setParameter("finished", OrderStatus.FINALIZADO)
+                .setParameter("posted", OrderStatus.POSTADO)
+                .executeUpdate();
+
+        // O arquivador só move pedidos postados
+        getEntityManager()
+                .createQuery("SELECT a.client.clientId, COUNT(a), MAX(a.postedDate) FROM OrderArchiveEntity a " +
+                        "GROUP BY a.client.clientId", Object[].class)
+                .getResultList()
+                .forEach(row -> applyDelta((UUID) row[0], 0, 0, (Long) row[1], (LocalDate) row[2]));
+
+        return count();
+    }
+
+    private NativeQuery<?> deltaQuery(String sql, UUID clientId, long production, long finished, long posted,
+                                      LocalDate postedDate) {
+        // Sincronizado só com a própria tabela para não invalidar o cache de segundo nível inteiro
+        return getEntityManager()
+                .createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ClientOrderSummaryEntity.class)
+                .setParameter("clientId", clientId)
+                .setParameter("production", production)
+                .setParameter("finished", finished)
+                .setParameter("posted", posted)
+                .setParameter("postedDate", postedDate, LocalDate.class);
+    }
+}
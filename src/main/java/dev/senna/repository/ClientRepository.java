@@ -1,14 +1,93 @@
 package dev.senna.repository;
 
+import dev.senna.controller.dto.response.ClientResDto;
 import dev.senna.model.entity.ClientEntity;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
 
+import java.util.List;
 import java.util.UUID;
 
 @ApplicationScoped
 public class ClientRepository implements PanacheRepositoryBase<ClientEntity, UUID> {
-    public boolean findByUserName(String clientName) {
-        return find("clientName", clientName).count() > 0;
+
+    // As escritas nativas declaram ClientEntity como espaço sincronizado: o Hibernate
+    // invalida só a região de clientes do cache de segundo nível, e não o cache inteiro.
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    /**
+     * Cria o cliente em um único round trip. O índice único de normalized_name decide
+     * quem ganha quando dois cadastros do mesmo nome chegam juntos.
+     *
+     * @return false se já existe um cliente com o mesmo nome normalizado
+     */
+    public boolean insertIfNameAvailable(UUID clientId, String clientName, String normalizedName) {
+        if ("postgresql".equals(dbKind)) {
+            return !getEntityManager()
+                    .createNativeQuery("INSERT INTO tb_client (clientid, client_name, normalized_name) " +
+                            "VALUES (:clientId, :clientName, :normalizedName) " +
+                            "ON CONFLICT (normalized_name) DO NOTHING RETURNING clientid")
+                    .setParameter("clientId", clientId)
+                    .setParameter("clientName", clientName)
+                    .setParameter("normalizedName", normalizedName)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(ClientEntity.class)
+                    .getResultList()
+                    .isEmpty();
+        }
+
+        // H2 dos testes não tem ON CONFLICT: mesma semântica com SQL portável
+        return getEntityManager()
+                .createNativeQuery("INSERT INTO tb_client (clientid, client_name, normalized_name) " +
+                        "SELECT :clientId, :clientName, :normalizedName " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM tb_client WHERE normalized_name = :normalizedName)")
+                .setParameter("clientId", clientId)
+                .setParameter("clientName", clientName)
+                .setParameter("normalizedName", normalizedName)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ClientEntity.class)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Renomeia o cliente só se nenhum outro já usa o nome normalizado.
+     *
+     * @return false se o cliente não existe ou o nome pertence a outro cliente
+     */
+    public boolean renameIfNameAvailable(UUID clientId, String clientName, String normalizedName) {
+        return getEntityManager()
+                .createNativeQuery("UPDATE tb_client SET client_name = :clientName, normalized_name = :normalizedName " +
+                        "WHERE clientid = :clientId AND NOT EXISTS (" +
+                        "SELECT 1 FROM tb_client other WHERE other.normalized_name = :normalizedName " +
+                        "AND other.clientid <> :clientId)")
+                .setParameter("clientId", clientId)
+                .setParameter("clientName", clientName)
+                .setParameter("normalizedName", normalizedName)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ClientEntity.class)
+                .executeUpdate() == 1;
+    }
+
+    // Clientes cadastrados antes da coluna normalized_name, em ordem de id para paginar por chave
+    public List<ClientEntity> findWithoutNormalizedName(UUID afterId, int limit) {
+        var query = afterId == null
+                ? find("normalizedName IS NULL ORDER BY clientId")
+                : find("normalizedName IS NULL AND clientId > ?1 ORDER BY clientId", afterId);
+        return query.page(0, limit).list();
+    }
+
+    public void updateNormalizedName(UUID clientId, String normalizedName) {
+        update("normalizedName = ?1 WHERE clientId = ?2", normalizedName, clientId);
+    }
+
+    public List<ClientResDto> listAllNames() {
+        return getEntityManager()
+                .createQuery("SELECT new dev.senna.controller.dto.response.ClientResDto(c.clientId, c.clientName) " +
+                        "FROM ClientEntity c", ClientResDto.class)
+                .getResultList();
     }
 }
@@ -1,17 +1,202 @@
 package dev.senna.repository;
 
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.controller.dto.response.Versioned;
+import dev.senna.infra.ImageStore;
 import dev.senna.model.entity.ItemEntity;
 import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
 
 @ApplicationScoped
 public class ItemRepository implements PanacheRepositoryBase<ItemEntity, Long> {
 
-    public List<ItemEntity> findByStatus(ItemStatus status) {
-        return find("itemStatus", status).list();
+    private static final String PRODUCTION_LINE_SELECT =
+            "SELECT new dev.senna.controller.dto.response.ListItemProductionLineResponse(" +
+                    "i.id, i.name, i.quantity, i.saleQuantity, i.material, i.image, i.itemStatus, i.order.id)";
+
+    private static final String PRODUCTION_LINE_PROJECTION = PRODUCTION_LINE_SELECT + " FROM ItemEntity i";
+
+    private static final String ASSIGN_UNASSIGNED =
+            "UPDATE tb_item SET order_id = :orderId, version = version + 1, " +
+                    "order_sale_date = (SELECT o.sale_date FROM tb_order o WHERE o.order_id = :orderId) " +
+                    "WHERE id IN (:itemIds) AND order_id IS NULL";
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    // Projeção e versão na mesma consulta, para o GET devolver o ETag sem carregar a entidade
+    public Optional<Versioned<ListItemProductionLineResponse>> findProjectionById(Long id) {
+        return getEntityManager()
+                .createQuery(PRODUCTION_LINE_SELECT + ", i.version FROM ItemEntity i WHERE i.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(row -> new Versioned<>((ListItemProductionLineResponse) row[0], (Long) row[1]));
+    }
+
+    // Só atribui itens ainda sem pedido; devolve os ids efetivamente atualizados
+    @SuppressWarnings("unchecked")
+    public List<Long> assignOrderToUnassigned(Long orderId, Collection<Long> itemIds) {
+        if ("postgresql".equals(dbKind)) {
+            List<Number> updated = getEntityManager()
+                    .createNativeQuery(ASSIGN_UNASSIGNED + " RETURNING id")
+                    .setParameter("orderId", orderId)
+                    .setParameter("itemIds", itemIds)
+                    .getResultList();
+
+            return updated.stream().map(Number::longValue).toList();
+        }
+
+        // H2 dos testes não tem UPDATE ... RETURNING: trava os itens elegíveis e atualiza só esses
+        var eligible = getEntityManager()
+                .createQuery("SELECT i.id FROM ItemEntity i WHERE i.id IN :itemIds AND i.order IS NULL", Long.class)
+                .setParameter("itemIds", itemIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (!eligible.isEmpty()) {
+            getEntityManager()
+                    .createNativeQuery(ASSIGN_UNASSIGNED)
+                    .setParameter("orderId", orderId)
+                    .setParameter("itemIds", eligible)
+                    .executeUpdate();
+        }
+        return eligible;
+    }
+
+    // SKIP LOCKED: operadores concorrentes nunca esperam pelas linhas já travadas por outro claim
+    @SuppressWarnings("unchecked")
+    public List<Long> claimNext(ItemStatus status, int limit, String operator, Instant now, Instant leaseExpiresAt) {
+        List<Number> claimed = getEntityManager()
+                .createNativeQuery("UPDATE tb_item SET claimed_by = :operator, claim_expires_at = :leaseExpiresAt " +
+                        "WHERE id IN (" +
+                        "SELECT i.id FROM tb_item i LEFT JOIN tb_order o ON o.order_id = i.order_id " +
+                        "WHERE i.actual_status = :status AND (i.claimed_by IS NULL OR i.claim_expires_at < :now) " +
+                        "ORDER BY o.delivery_date NULLS LAST, i.id " +
+                        "LIMIT :limit FOR UPDATE OF i SKIP LOCKED) " +
+                        "RETURNING id")
+                .setParameter("operator", operator)
+                .setParameter("leaseExpiresAt", leaseExpiresAt)
+                .setParameter("status", status.getCode())
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return claimed.stream().map(Number::longValue).toList();
     }
 
+    public int releaseClaims(Collection<Long> itemIds, String operator) {
+        return update("claimedBy = null, claimExpiresAt = null where id in ?1 and claimedBy = ?2", itemIds, operator);
+    }
+
+    public List<ListItemProductionLineResponse> findProjectionsByIds(Collection<Long> itemIds) {
+        return getEntityManager()
+                .createQuery(PRODUCTION_LINE_PROJECTION + " WHERE i.id IN :ids ORDER BY i.id", ListItemProductionLineResponse.class)
+                .setParameter("ids", itemIds)
+                .getResultList();
+    }
+
+    public List<ListItemProductionLineResponse> findByStatus(ItemStatus status, Long afterId, int limit) {
+        return getEntityManager()
+                .createQuery(PRODUCTION_LINE_PROJECTION + " WHERE i.itemStatus = :status AND i.id > :afterId ORDER BY i.id",
+                        ListItemProductionLineResponse.class)
+                .setParameter("status", status)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Coberto pelo índice parcial idx_item_unassigned (order_id IS NULL)
+    public List<ListItemProductionLineResponse> findUnassigned(Material material, ItemStatus status, Long afterId, int limit) {
+        StringBuilder queryBuilder = new StringBuilder(PRODUCTION_LINE_PROJECTION)
+                .append(" WHERE i.order IS NULL AND i.id > :afterId");
+        Parameters params = Parameters.with("afterId", afterId == null ? 0L : afterId);
+
+        if (material != null) {
+            queryBuilder.append(" AND i.material = :material");
+            params.and("material", material);
+        }
+
+        if (status != null) {
+            queryBuilder.append(" AND i.itemStatus = :status");
+            params.and("status", status);
+        }
+
+        var query = getEntityManager()
+                .createQuery(queryBuilder.append(" ORDER BY i.id").toString(), ListItemProductionLineResponse.class)
+                .setMaxResults(limit);
+        params.map().forEach(query::setParameter);
+
+        return query.getResultList();
+    }
+
+    // Cursor forward-only com projeção em DTO: nada entra no persistence context
+    public ScrollableResults<ListItemProductionLineResponse> scrollByStatus(ItemStatus status, int fetchSize) {
+        return getEntityManager().unwrap(Session.class)
+                .createSelectionQuery(PRODUCTION_LINE_PROJECTION + " WHERE i.itemStatus = :status ORDER BY i.id",
+                        ListItemProductionLineResponse.class)
+                .setParameter("status", status)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    // Linhas de [projeção, versão]: o quadro de produção guarda a versão de cada item
+    public ScrollableResults<Object[]> scrollNotPacked(int fetchSize) {
+        return getEntityManager().unwrap(Session.class)
+                .createSelectionQuery(PRODUCTION_LINE_SELECT + ", i.version FROM ItemEntity i " +
+                        "WHERE i.itemStatus <> :status ORDER BY i.id", Object[].class)
+                .setParameter("status", ItemStatus.EMBALADO)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    // Só valores que podem ser arte inline: Base64, puro ou em data URI, com a assinatura de um formato
+    // aceito. URLs e outros textos legados nunca entram na varredura, então não são relidos a cada boot
+    public List<ItemEntity> findWithInlineImage(Long afterId, int limit) {
+        var conditions = new StringJoiner(" or ", "(", ")");
+        var params = Parameters.with("afterId", afterId);
+        for (int i = 0; i < ImageStore.BASE64_SIGNATURES.size(); i++) {
+            var signature = ImageStore.BASE64_SIGNATURES.get(i);
+            conditions.add("image like :base64" + i + " or image like :dataUri" + i);
+            params.and("base64" + i, signature + "%").and("dataUri" + i, "data:%," + signature + "%");
+        }
+
+        return find("id > :afterId and " + conditions, Sort.by("id"), params)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    public List<Long> findIdsByClient(UUID clientId, int limit) {
+        return getEntityManager()
+                .createQuery("SELECT i.id FROM ItemEntity i WHERE i.order.client.clientId = :clientId ORDER BY i.id", Long.class)
+                .setParameter("clientId", clientId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public long deleteByOrderIds(Collection<Long> orderIds) {
+        return delete("order.id in ?1", orderIds);
+    }
+
+    public long deleteByIds(Collection<Long> ids) {
+        return delete("id in ?1", ids);
+    }
 }
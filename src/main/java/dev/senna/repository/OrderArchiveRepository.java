@@ -0,0 +1,71 @@
+package dev.senna.repository;
+
+import dev.senna.model.entity.OrderArchiveEntity;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Parameters;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ApplicationScoped
+public class OrderArchiveRepository implements PanacheRepositoryBase<OrderArchiveEntity, Long> {
+
+    public Optional<OrderArchiveEntity> findWithClient(Long orderId) {
+        return find("SELECT a FROM OrderArchiveEntity a JOIN FETCH a.client WHERE a.id = ?1", orderId)
+                .firstResultOptional();
+    }
+
+    /**
+     * Pedidos arquivados mais recentes por data de venda, com os mesmos filtros da listagem de pedidos.
+     */
+    public List<OrderArchiveEntity> findRecentBySaleDate(UUID clientId, LocalDate saleFrom, LocalDate saleTo, int limit) {
+        var query = new StringBuilder("SELECT a FROM OrderArchiveEntity a JOIN FETCH a.client c WHERE 1=1");
+        var params = new Parameters();
+
+        if (clientId != null) {
+            query.append(" AND c.clientId = :clientId");
+            params.and("clientId", clientId);
+        }
+
+        if (saleFrom != null) {
+            query.append(" AND a.saleDate >= :saleFrom");
+            params.and("saleFrom", saleFrom);
+        }
+
+        if (saleTo != null) {
+            query.append(" AND a.saleDate <= :saleTo");
+            params.and("saleTo", saleTo);
+        }
+
+        query.append(" ORDER BY a.saleDate DESC, a.id DESC");
+
+        return find(query.toString(), params)
+                .range(0, limit - 1)
+                .list();
+    }
+
+    public boolean existsByClient(UUID clientId) {
+        return !getEntityManager()
+                .createQuery("SELECT 1 FROM OrderArchiveEntity a WHERE a.client.clientId = :clientId")
+                .setParameter("clientId", clientId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public List<Long> findIdsByClient(UUID clientId, int limit) {
+        return getEntityManager()
+                .createQuery("SELECT a.id FROM OrderArchiveEntity a WHERE a.client.clientId = :clientId ORDER BY a.id", Long.class)
+                .setParameter("clientId", clientId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public long deleteByIds(Collection<Long> ids) {
+        return delete("id in ?1", ids);
+    }
+}
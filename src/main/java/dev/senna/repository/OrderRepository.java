@@ -2,34 +2,42 @@ package dev.senna.repository;
 
 import dev.senna.model.entity.OrderEntity;
 import dev.senna.model.enums.OrderStatus;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
-import io.quarkus.panache.common.Page;
-import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class OrderRepository implements PanacheRepositoryBase<OrderEntity, Long> {
 
-    public List<OrderEntity> listOrdersInProduction(int page, int pageSize) {
-        return find("status", OrderStatus.PRODUCAO)
-                .page(Page.of(page, pageSize))
-                .list();
+    public List<Long> findInProductionIds(int page, int pageSize) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM OrderEntity o WHERE o.status = :status ORDER BY o.id", Long.class)
+                .setParameter("status", OrderStatus.PRODUCAO)
+                .setFirstResult(page * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList();
     }
 
-    public PanacheQuery<OrderEntity> findLastSent(int page, int pageSize) {
-
-        Sort sort = Sort.by("deliveryDate", Sort.Direction.Descending)
-                .and("id", Sort.Direction.Descending);
-
-        var query = this.find("status = ?1", sort, OrderStatus.POSTADO);
-
-        query.page(Page.of(page, pageSize));
+    public List<OrderEntity> listInProductionWithClient() {
+        return find("SELECT o FROM OrderEntity o JOIN FETCH o.client WHERE o.status = ?1 ORDER BY o.id",
+                OrderStatus.PRODUCAO).list();
+    }
 
-        return query;
+    public List<Long> findLastSentIds(int page, int pageSize) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM OrderEntity o WHERE o.status = :status " +
+                        "ORDER BY o.deliveryDate DESC, o.id DESC", Long.class)
+                .setParameter("status", OrderStatus.POSTADO)
+                .setFirstResult(page * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList();
     }
 
     public List<OrderEntity> findByPostedDateBetween(LocalDate start, LocalDate end) {
@@ -40,9 +48,84 @@ public class OrderRepository implements PanacheRepositoryBase<OrderEntity, Long>
         return count("postedDate >= ?1 and postedDate <= ?2", start, end);
     }
 
-    public List<OrderEntity> findTop4ByOrderByIdDesc() {
-        return find("ORDER BY id DESC")
-                .page(0, 4)
-                .list();
+    // Sonda de existência: para no primeiro pedido encontrado pelo índice de client_id
+    public boolean existsByClient(UUID clientId) {
+        return !getEntityManager()
+                .createQuery("SELECT 1 FROM OrderEntity o WHERE o.client.clientId = :clientId")
+                .setParameter("clientId", clientId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public List<Long> findIdsByClient(UUID clientId, int limit) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM OrderEntity o WHERE o.client.clientId = :clientId ORDER BY o.id", Long.class)
+                .setParameter("clientId", clientId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Candidatos do arquivador: postados antes da data de corte, pelo índice de postedDate
+    public List<Long> findPostedIdsBefore(LocalDate cutoff, int limit) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM OrderEntity o WHERE o.status = :posted AND o.postedDate < :cutoff " +
+                        "ORDER BY o.postedDate, o.id", Long.class)
+                .setParameter("posted", OrderStatus.POSTADO)
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Pedidos com cliente e itens em uma consulta; os ids já vêm limitados, então não há paginação em memória
+    public List<OrderEntity> findWithItemsByIds(Collection<Long> ids) {
+        return find("SELECT DISTINCT o FROM OrderEntity o JOIN FETCH o.client LEFT JOIN FETCH o.items " +
+                "WHERE o.id IN ?1", ids).list();
+    }
+
+    /**
+     * Segunda etapa das listagens com itens: os ids da página já vêm ordenados e limitados pelo banco
+     * ({@code findInProductionIds}, {@code findLastSentIds}, {@code findRecentIds}) e aqui pedidos, clientes
+     * e itens chegam em uma consulta. Paginar junto com o JOIN FETCH da coleção faria o Hibernate trazer
+     * todas as linhas e cortar a página em memória.
+     *
+     * @return os pedidos na ordem de {@code ids}
+     */
+    public List<OrderEntity> findWithItemsByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        var byId = findWithItemsByIds(ids).stream()
+                .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public long deleteByIds(Collection<Long> ids) {
+        return delete("id in ?1", ids);
+    }
+
+    /**
+     * Garante as partições mensais de tb_order até {@code monthsAhead} meses à frente e tira da
+     * partição default os pedidos de meses sem partição. Só existe no Postgres (função da migração V7).
+     *
+     * @return quantidade de partições criadas
+     */
+    public int ensureMonthlyPartitions(int monthsAhead) {
+        var created = (Number) getEntityManager()
+                .createNativeQuery("SELECT ensure_order_partitions(CURRENT_DATE, :monthsAhead)")
+                .setParameter("monthsAhead", monthsAhead)
+                .getSingleResult();
+        return created.intValue();
+    }
+
+    public List<Long> findRecentIds(int limit) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM OrderEntity o ORDER BY o.id DESC", Long.class)
+                .setMaxResults(limit)
+                .getResultList();
     }
 }
@@ -0,0 +1,54 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.response.ClientResDto;
+import dev.senna.infra.AfterCommit;
+import dev.senna.infra.ClientNameIndex;
+import dev.senna.repository.ClientRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class ClientAutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientAutocompleteService.class);
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    @Inject
+    ClientRepository clientRepository;
+
+    // O índice só vê escritas confirmadas, como o quadro de produção
+    @Inject
+    AfterCommit afterCommit;
+
+    private final ClientNameIndex index = new ClientNameIndex();
+
+    @Transactional
+    void loadOnStartup(@Observes StartupEvent event) {
+        long start = System.nanoTime();
+        index.load(clientRepository.listAllNames());
+        log.info("Client name index loaded - {} clients in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<ClientResDto> search(String query, Integer limit) {
+        int validatedLimit = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return index.search(query, validatedLimit);
+    }
+
+    public void clientSaved(UUID clientId, String clientName) {
+        afterCommit.run(() -> index.put(clientId, clientName));
+    }
+
+    public void clientDeleted(UUID clientId) {
+        afterCommit.run(() -> index.remove(clientId));
+    }
+}
@@ -0,0 +1,111 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.response.ClientOrderSummaryResDto;
+import dev.senna.exception.ClientNotFoundException;
+import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.enums.OrderStatus;
+import dev.senna.repository.ClientOrderSummaryRepository;
+import dev.senna.repository.ClientRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mantém a tabela de resumo de pedidos por cliente. Os métodos de escrita são chamados
+ * dentro da transação de {@link OrderService}, então o resumo nunca diverge dos pedidos.
+ */
+@ApplicationScoped
+public class ClientOrderSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientOrderSummaryService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Inject
+    ClientOrderSummaryRepository summaryRepository;
+
+    @Inject
+    ClientRepository clientRepository;
+
+    public void orderCreated(OrderEntity order) {
+        summaryRepository.applyDelta(order.getClient().getClientId(),
+                delta(OrderStatus.PRODUCAO, null, order.getStatus()),
+                delta(OrderStatus.FINALIZADO, null, order.getStatus()),
+                delta(OrderStatus.POSTADO, null, order.getStatus()),
+                order.getPostedDate());
+    }
+
+    /**
+     * Move o pedido entre contadores depois de uma atualização.
+     *
+     * @param previousClientId cliente do pedido antes da atualização
+     * @param previousStatus   status do pedido antes da atualização
+     */
+    public void orderChanged(UUID previousClientId, OrderStatus previousStatus, OrderEntity order) {
+        var clientId = order.getClient().getClientId();
+        var status = order.getStatus();
+
+        if (clientId.equals(previousClientId) && status == previousStatus) {
+            return;
+        }
+
+        if (clientId.equals(previousClientId)) {
+            summaryRepository.applyDelta(clientId,
+                    delta(OrderStatus.PRODUCAO, previousStatus, status),
+                    delta(OrderStatus.FINALIZADO, previousStatus, status),
+                    delta(OrderStatus.POSTADO, previousStatus, status),
+                    order.getPostedDate());
+            return;
+        }
+
+        log.debug("Moving order {} summary from client {} to client {}", order.getId(), previousClientId, clientId);
+
+        summaryRepository.applyDelta(previousClientId,
+                delta(OrderStatus.PRODUCAO, previousStatus, null),
+                delta(OrderStatus.FINALIZADO, previousStatus, null),
+                delta(OrderStatus.POSTADO, previousStatus, null),
+                null);
+        summaryRepository.applyDelta(clientId,
+                delta(OrderStatus.PRODUCAO, null, status),
+                delta(OrderStatus.FINALIZADO, null, status),
+                delta(OrderStatus.POSTADO, null, status),
+                order.getPostedDate());
+
+        if (previousStatus == OrderStatus.POSTADO) {
+            summaryRepository.refreshLastPostedDate(previousClientId);
+        }
+    }
+
+    public void clientRemoved(UUID clientId) {
+        summaryRepository.deleteById(clientId);
+    }
+
+    public ClientOrderSummaryResDto getSummary(UUID clientId) {
+        var client = clientRepository.findByIdOptional(clientId)
+                .orElseThrow(() -> new ClientNotFoundException(clientId));
+
+        return summaryRepository.findByIdOptional(clientId)
+                .map(summary -> new ClientOrderSummaryResDto(clientId, client.getClientName(),
+                        summary.getProductionCount(), summary.getFinishedCount(), summary.getPostedCount(),
+                        summary.getLastPostedDate()))
+                .orElseGet(() -> new ClientOrderSummaryResDto(clientId, client.getClientName(), 0, 0, 0, null));
+    }
+
+    public List<ClientOrderSummaryResDto> listSummaries(Integer page, Integer pageSize) {
+        int validatedPage = page == null || page < 0 ? 0 : page;
+        int validatedPageSize = pageSize == null || pageSize <= 0
+                ? DEFAULT_PAGE_SIZE
+                : Math.min(pageSize, MAX_PAGE_SIZE);
+
+        return summaryRepository.listSummaries(validatedPage, validatedPageSize);
+    }
+
+    private static long delta(OrderStatus counter, OrderStatus removed, OrderStatus added) {
+        return (counter == added ? 1 : 0) - (counter == removed ? 1 : 0);
+    }
+}
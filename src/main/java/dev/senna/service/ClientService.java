@@ -3,19 +3,27 @@ package dev.senna.service;
 import dev.senna.controller.dto.request.CreateClientReqDto;
 import dev.senna.controller.dto.request.UpdateClientReqDto;
 import dev.senna.controller.dto.response.ClientResDto;
+import dev.senna.controller.dto.response.PurgeClientResponseDto;
 import dev.senna.exception.ClientAlreadyExistsException;
 import dev.senna.exception.ClientHasOrdersException;
 import dev.senna.exception.ClientNotFoundException;
+import dev.senna.infra.ClientNameIndex;
+import dev.senna.infra.UuidV7;
 import dev.senna.model.entity.ClientEntity;
 import dev.senna.repository.ClientRepository;
+import dev.senna.repository.ItemRepository;
+import dev.senna.repository.OrderArchiveRepository;
+import dev.senna.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.awt.font.TextHitInfo;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,22 +31,45 @@ import java.util.UUID;
 public class ClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ClientService.class);
+
+    private static final int PURGE_ITEM_BATCH_SIZE = 1000;
+    private static final int PURGE_ORDER_BATCH_SIZE = 200;
+
     @Inject
     private ClientRepository clientRepository;
 
+    @Inject
+    private OrderRepository orderRepository;
+
+    @Inject
+    private ItemRepository itemRepository;
+
+    @Inject
+    private ProductionBoardService productionBoardService;
+
+    @Inject
+    private ClientAutocompleteService clientAutocompleteService;
+
+    @Inject
+    private ClientOrderSummaryService clientOrderSummaryService;
+
+    @Inject
+    private OrderArchiveRepository orderArchiveRepository;
+
     public UUID createClient(CreateClientReqDto reqDto) {
 
-        ClientEntity clientEntity = new ClientEntity();
-        clientEntity.setClientName(reqDto.clientName());
+        // Gerado aqui porque a inserção é SQL nativo e não passa pelo gerador da entidade
+        var clientId = UuidV7.generate();
+        var normalizedName = ClientNameIndex.normalize(reqDto.clientName());
 
-        if (clientRepository.findByUserName(clientEntity.getClientName())) {
+        if (!insertIfNameAvailable(clientId, reqDto.clientName(), normalizedName)) {
             log.error("Client already exists with the name " + reqDto.clientName());
             throw new ClientAlreadyExistsException(reqDto.clientName());
         }
 
-        clientRepository.persist(clientEntity);
+        clientAutocompleteService.clientSaved(clientId, reqDto.clientName());
 
-        return clientEntity.getClientId();
+        return clientId;
     }
 
     public ClientResDto findClientById(UUID clientId) {
@@ -61,19 +92,50 @@ public class ClientService {
 
     @Transactional
     public ClientResDto updateClient(UUID clientId, UpdateClientReqDto reqDto) {
-        var clientEntity = clientRepository.findByIdOptional(clientId)
-                .orElseThrow(() -> new ClientNotFoundException(clientId));
+        var normalizedName = ClientNameIndex.normalize(reqDto.clientName());
+
+        // A existência é checada antes: depois de uma violação do índice único o PostgreSQL aborta
+        // a transação, e nenhuma consulta roda mais nela (o cliente costuma vir do cache L2)
+        if (clientRepository.findByIdOptional(clientId).isEmpty()) {
+            throw new ClientNotFoundException(clientId);
+        }
 
-        if (!clientEntity.getClientName().equals(reqDto.clientName()) &&
-                clientRepository.findByUserName(reqDto.clientName())) {
+        if (!renameIfNameAvailable(clientId, reqDto.clientName(), normalizedName)) {
             log.error("Client already exists with the name " + reqDto.clientName());
             throw new ClientAlreadyExistsException(reqDto.clientName());
         }
 
-        clientEntity.setClientName(reqDto.clientName());
-        clientRepository.persist(clientEntity);
+        productionBoardService.clientRenamed(clientId, reqDto.clientName());
+        clientAutocompleteService.clientSaved(clientId, reqDto.clientName());
+
+        return new ClientResDto(clientId, reqDto.clientName());
+    }
+
+    private boolean insertIfNameAvailable(UUID clientId, String clientName, String normalizedName) {
+        try {
+            return clientRepository.insertIfNameAvailable(clientId, clientName, normalizedName);
+        } catch (PersistenceException e) {
+            // Corrida perdida para outro cadastro do mesmo nome (índice único)
+            if (isUniqueViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private boolean renameIfNameAvailable(UUID clientId, String clientName, String normalizedName) {
+        try {
+            return clientRepository.renameIfNameAvailable(clientId, clientName, normalizedName);
+        } catch (PersistenceException e) {
+            if (isUniqueViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
 
-        return new ClientResDto(clientEntity.getClientId(), clientEntity.getClientName());
+    private static boolean isUniqueViolation(PersistenceException e) {
+        return e instanceof ConstraintViolationException || e.getCause() instanceof ConstraintViolationException;
     }
 
     @Transactional
@@ -81,7 +143,7 @@ public class ClientService {
         var clientEntity = clientRepository.findByIdOptional(clientId)
                 .orElseThrow(() -> new ClientNotFoundException(clientId));
 
-        if (clientEntity.getOrdersList() != null && !clientEntity.getOrdersList().isEmpty()) {
+        if (orderRepository.existsByClient(clientId) || orderArchiveRepository.existsByClient(clientId)) {
             log.error("The client with id " + clientId + " has orders associated");
             throw new ClientHasOrdersException(
                     clientEntity.getClientId(),
@@ -89,7 +151,67 @@ public class ClientService {
             );
         }
 
-        clientRepository.delete(clientEntity);
+        clientOrderSummaryService.clientRemoved(clientId);
+        clientRepository.delete("clientId", clientId);
+        clientAutocompleteService.clientDeleted(clientId);
+    }
+
+    /**
+     * Remove o cliente junto com todo o histórico. Itens e pedidos são apagados em lotes,
+     * cada um na sua própria transação, para não carregar o histórico na heap nem segurar
+     * locks por muito tempo. Se falhar no meio, pode ser executado de novo.
+     */
+    public PurgeClientResponseDto purgeClient(UUID clientId) {
+        var clientName = QuarkusTransaction.requiringNew().call(() -> clientRepository.findByIdOptional(clientId)
+                .map(ClientEntity::getClientName)
+                .orElseThrow(() -> new ClientNotFoundException(clientId)));
+
+        log.warn("Purging client {} ({}) with all of its orders and items", clientName, clientId);
+
+        long deletedItems = 0;
+        long deleted;
+        do {
+            deleted = QuarkusTransaction.requiringNew().call(() -> {
+                var itemIds = itemRepository.findIdsByClient(clientId, PURGE_ITEM_BATCH_SIZE);
+                if (itemIds.isEmpty()) {
+                    return 0L;
+                }
+                productionBoardService.itemsDeleted(itemIds);
+                return itemRepository.deleteByIds(itemIds);
+            });
+            deletedItems += deleted;
+        } while (deleted > 0);
+
+        long deletedOrders = 0;
+        do {
+            deleted = QuarkusTransaction.requiringNew().call(() -> {
+                var orderIds = orderRepository.findIdsByClient(clientId, PURGE_ORDER_BATCH_SIZE);
+                if (orderIds.isEmpty()) {
+                    return 0L;
+                }
+                productionBoardService.ordersDeleted(orderIds);
+                return orderRepository.deleteByIds(orderIds);
+            });
+            deletedOrders += deleted;
+        } while (deleted > 0);
+
+        do {
+            deleted = QuarkusTransaction.requiringNew().call(() -> {
+                var archivedIds = orderArchiveRepository.findIdsByClient(clientId, PURGE_ORDER_BATCH_SIZE);
+                return archivedIds.isEmpty() ? 0L : orderArchiveRepository.deleteByIds(archivedIds);
+            });
+            deletedOrders += deleted;
+        } while (deleted > 0);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            clientOrderSummaryService.clientRemoved(clientId);
+            clientRepository.delete("clientId", clientId);
+            clientAutocompleteService.clientDeleted(clientId);
+        });
+
+        log.info("Client {} purged - {} orders and {} items deleted", clientId, deletedOrders, deletedItems);
+
+        return new PurgeClientResponseDto(clientId, deletedOrders, deletedItems);
     }
 
 }
@@ -0,0 +1,58 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.request.ReleaseItemsRequestDto;
+import dev.senna.controller.dto.response.ClaimItemsResponseDto;
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.repository.ItemRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+@ApplicationScoped
+public class ItemClaimService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemClaimService.class);
+
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(15);
+    private static final int DEFAULT_CLAIM_SIZE = 5;
+    private static final int MAX_CLAIM_SIZE = 50;
+
+    @Inject
+    private ItemRepository itemRepository;
+
+    @Transactional
+    public ClaimItemsResponseDto claimNext(ItemStatus status, Integer limit, String operator) {
+        Objects.requireNonNull(status, "ItemStatus must not be null");
+
+        var now = Instant.now();
+        var leaseExpiresAt = now.plus(CLAIM_LEASE);
+        int validatedLimit = limit == null || limit <= 0 ? DEFAULT_CLAIM_SIZE : Math.min(limit, MAX_CLAIM_SIZE);
+
+        var claimedIds = itemRepository.claimNext(status, validatedLimit, operator, now, leaseExpiresAt);
+
+        log.info("Operador {} reservou {} itens da etapa {} até {}", operator, claimedIds.size(), status, leaseExpiresAt);
+
+        var items = claimedIds.isEmpty()
+                ? List.<ListItemProductionLineResponse>of()
+                : itemRepository.findProjectionsByIds(claimedIds);
+
+        return new ClaimItemsResponseDto(items, leaseExpiresAt);
+    }
+
+    @Transactional
+    public int release(ReleaseItemsRequestDto reqDto, String operator) {
+        int released = itemRepository.releaseClaims(reqDto.itemIds(), operator);
+
+        log.info("Operador {} liberou {} de {} itens", operator, released, reqDto.itemIds().size());
+
+        return released;
+    }
+}
@@ -1,24 +1,43 @@
 package dev.senna.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.senna.controller.ClientController;
+import dev.senna.controller.dto.response.BulkAssignOrderResponseDto;
+import dev.senna.controller.dto.response.CursorPageResponseDto;
 import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.controller.dto.response.Versioned;
 import dev.senna.controller.dto.request.AddItemRequestDto;
 import dev.senna.controller.dto.request.AssignOrderToItemRequestDto;
+import dev.senna.controller.dto.request.BulkAssignOrderRequestDto;
 import dev.senna.controller.dto.request.UpdateItemRequestDto;
+import dev.senna.exception.ItemClaimedByAnotherOperatorException;
 import dev.senna.exception.ItemNotFoundException;
 import dev.senna.exception.InvalidEditParameterException;
 import dev.senna.exception.OrderNotFoundException;
+import dev.senna.exception.StaleVersionException;
+import dev.senna.infra.ImageStore;
+import dev.senna.infra.ThumbnailPipeline;
 import dev.senna.model.entity.ItemEntity;
 import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
 import dev.senna.repository.ItemRepository;
 import dev.senna.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.security.ForbiddenException;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -31,11 +50,28 @@ public class ItemService {
     @Inject
     private OrderRepository orderRepository;
 
+    @Inject
+    private ProductionBoardService productionBoardService;
+
+    @Inject
+    private ImageStore imageStore;
+
+    @Inject
+    private ThumbnailPipeline thumbnailPipeline;
+
     @Inject
     SecurityIdentity identity;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     private static final Logger log = LoggerFactory.getLogger(ClientController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+
     public Long addItem(AddItemRequestDto reqDto) {
 
         log.debug("Creating item");
@@ -56,19 +92,21 @@ public class ItemService {
       item.setSaleQuantity(reqDto.saleQuantity());
       item.setQuantity(reqDto.saleQuantity());
       item.setMaterial(reqDto.material());
-      item.setImage(reqDto.image());
+      item.setImage(imageStore.storeEncoded(reqDto.image()));
       item.setStatus(ItemStatus.IMPRESSO);
 
       itemRepository.persist(item);
+      productionBoardService.itemSaved(item);
+      thumbnailPipeline.submit(item.getImage());
 
       log.info("Created Item {}", item);
 
       return item.getId();
     }
 
-    public ItemEntity findItemById(Long itemId) {
+    public Versioned<ListItemProductionLineResponse> findItemById(Long itemId) {
 
-        var item = itemRepository.findByIdOptional(itemId)
+        var item = itemRepository.findProjectionById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(itemId));
         log.info("Item founded with success!");
         return item;
@@ -115,18 +153,78 @@ public class ItemService {
         item.setOrder(order);
 
         itemRepository.persist(item);
+        productionBoardService.itemSaved(item);
 
         log.info("Item ID {} foi atribuído com sucesso ao pedido ID {}", item.getId(), order.getId());
     }
 
-    public void updateItem(Long itemId, UpdateItemRequestDto reqDto) {
+    public BulkAssignOrderResponseDto assignOrderInBulk(BulkAssignOrderRequestDto reqDto) {
+        log.debug("Assigning order ID {} to {} items", reqDto.orderId(), reqDto.itemIds().size());
+
+        if (orderRepository.count("id", reqDto.orderId()) == 0) {
+            throw new OrderNotFoundException(reqDto.orderId());
+        }
+
+        var requestedIds = new LinkedHashSet<>(reqDto.itemIds());
+        var assignedIds = new HashSet<>(itemRepository.assignOrderToUnassigned(reqDto.orderId(), requestedIds));
+
+        var assigned = requestedIds.stream().filter(assignedIds::contains).toList();
+        var notAssigned = requestedIds.stream().filter(id -> !assignedIds.contains(id)).toList();
+
+        productionBoardService.itemsAssigned(reqDto.orderId(), assigned);
+
+        log.info("{} itens atribuídos ao pedido ID {} - {} já possuíam pedido ou não existem",
+                assigned.size(), reqDto.orderId(), notAssigned.size());
+
+        return new BulkAssignOrderResponseDto(reqDto.orderId(), assigned, notAssigned);
+    }
+
+    /**
+     * Troca só o status, sem If-Match: em caso de conflito o item é relido e a troca reaplicada
+     * em uma nova transação, até {@value #STATUS_UPDATE_ATTEMPTS} vezes.
+     */
+    public long updateItemStatusWithRetry(Long itemId, UpdateItemRequestDto reqDto) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return QuarkusTransaction.requiringNew().call(() -> updateItem(itemId, reqDto, null));
+            } catch (StaleVersionException e) {
+                if (attempt == STATUS_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Conflito de versão ao alterar o status do item {} - tentativa {} de {}",
+                        itemId, attempt, STATUS_UPDATE_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * @param expectedVersion versão enviada no If-Match, ou null para aceitar qualquer versão
+     * @return a nova versão do item
+     */
+    @Transactional
+    public long updateItem(Long itemId, UpdateItemRequestDto reqDto, Long expectedVersion) {
         var item = itemRepository.findByIdOptional(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(itemId));
 
+        if (expectedVersion != null && expectedVersion != item.getVersion()) {
+            log.warn("Item ID {} está na versão {} mas o If-Match esperava {}", itemId, item.getVersion(), expectedVersion);
+            throw new StaleVersionException("Item", itemId);
+        }
+
         orderRepository.findByIdOptional(reqDto.orderId())
                 .orElseThrow(() -> new OrderNotFoundException(reqDto.orderId()));
 
+        if (item.getClaimedBy() != null) {
+            var operator = identity.getPrincipal().getName();
+            if (item.isClaimedByAnotherOperator(operator, Instant.now())) {
+                log.warn("Item ID {} está reservado por {} - atualização de {} recusada", itemId, item.getClaimedBy(), operator);
+                throw new ItemClaimedByAnotherOperatorException(itemId, item.getClaimedBy());
+            }
+        }
+
         var roles = identity.getRoles();
+        var previousStatus = item.getStatus();
+        var previousImage = item.getImage();
 
         boolean updated = false;
 
@@ -144,8 +242,43 @@ public class ItemService {
             throw new InvalidEditParameterException();
         }
 
+        // Ao avançar de etapa o item volta a ficar livre para o próximo operador
+        if (item.getStatus() != previousStatus) {
+            item.setClaimedBy(null);
+            item.setClaimExpiresAt(null);
+        }
+
+        // O UPDATE com "WHERE version = ?" roda aqui para o conflito virar 412 e não erro no commit
+        try {
+            itemRepository.flush();
+        } catch (OptimisticLockException e) {
+            log.warn("Item ID {} foi alterado por outra requisição durante a atualização", itemId);
+            throw new StaleVersionException("Item", itemId);
+        }
+
+        productionBoardService.itemSaved(item);
+
+        if (!Objects.equals(previousImage, item.getImage())) {
+            thumbnailPipeline.submit(item.getImage());
+        }
+
         log.info("Item ID {} atualizado com sucesso pelo usuário {} - Novos valores: {}",
                 itemId, identity.getPrincipal().getName(), item);
+
+        return item.getVersion();
+    }
+
+    @Transactional
+    public void attachImage(Long itemId, String imageHash) {
+        var item = itemRepository.findByIdOptional(itemId)
+                .orElseThrow(() -> new ItemNotFoundException(itemId));
+
+        item.setImage(imageHash);
+
+        productionBoardService.itemSaved(item);
+        thumbnailPipeline.submit(imageHash);
+
+        log.info("Imagem {} anexada ao item ID {}", imageHash, itemId);
     }
 
     private boolean applyOfficerUpdates(ItemEntity item, UpdateItemRequestDto reqDto) {
@@ -185,7 +318,7 @@ public class ItemService {
             updated = true;
         }
         if (reqDto.image() != null) {
-            item.setImage(reqDto.image());
+            item.setImage(imageStore.storeEncoded(reqDto.image()));
             updated = true;
         }
         if (reqDto.itemStatus() != null) {
@@ -197,22 +330,72 @@ public class ItemService {
     }
 
 
-    public List<ListItemProductionLineResponse> findByStatus(ItemStatus status) {
+    public CursorPageResponseDto<ListItemProductionLineResponse> findByStatus(ItemStatus status, Long cursor, Integer limit) {
 
         Objects.requireNonNull(status, "ItemStatus must not be null");
 
-        var items = itemRepository.findByStatus(status);
+        int validatedLimit = validateLimit(limit);
 
-        return items.stream()
-                .map(itemEntity -> new ListItemProductionLineResponse(
-                        itemEntity.getId(),
-                        itemEntity.getName(),
-                        itemEntity.getQuantity(),
-                        itemEntity.getSaleQuantity(),
-                        itemEntity.getMaterial(),
-                        itemEntity.getImage(),
-                        itemEntity.getStatus(),
-                        itemEntity.getOrder() != null ? itemEntity.getOrder().getId() : null
-                )).toList();
+        // Busca um registro a mais para saber se existe próxima página
+        var items = itemRepository.findByStatus(status, cursor, validatedLimit + 1);
+
+        return toCursorPage(items, validatedLimit);
+    }
+
+    public CursorPageResponseDto<ListItemProductionLineResponse> listUnassigned(Material material, ItemStatus status,
+                                                                               Long cursor, Integer limit) {
+
+        int validatedLimit = validateLimit(limit);
+
+        log.debug("Listing unassigned items - material: {}, status: {}, cursor: {}, limit: {}",
+                material, status, cursor, validatedLimit);
+
+        var items = itemRepository.findUnassigned(material, status, cursor, validatedLimit + 1);
+
+        return toCursorPage(items, validatedLimit);
+    }
+
+    private CursorPageResponseDto<ListItemProductionLineResponse> toCursorPage(
+            List<ListItemProductionLineResponse> items, int limit) {
+
+        if (items.size() <= limit) {
+            return new CursorPageResponseDto<>(items, null);
+        }
+
+        var page = items.subList(0, limit);
+        return new CursorPageResponseDto<>(page, page.get(limit - 1).id());
+    }
+
+    @Transactional
+    public void streamByStatus(ItemStatus status, OutputStream output) throws IOException {
+
+        Objects.requireNonNull(status, "ItemStatus must not be null");
+
+        log.debug("Streaming items with status {}", status);
+
+        try (var results = itemRepository.scrollByStatus(status, STREAM_FETCH_SIZE);
+             var generator = objectMapper.getFactory().createGenerator(output)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+
+            long written = 0;
+            while (results.next()) {
+                generator.writeObject(results.get());
+                if (++written % STREAM_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+
+            generator.writeEndArray();
+            log.info("Streamed {} items with status {}", written, status);
+        }
+    }
+
+    private int validateLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 }
@@ -0,0 +1,117 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.response.ItemResponseDto;
+import dev.senna.controller.dto.response.ListOrdersResponseDto;
+import dev.senna.controller.dto.response.OrderResponseDTO;
+import dev.senna.controller.dto.response.Versioned;
+import dev.senna.model.entity.ArchivedItem;
+import dev.senna.model.entity.ItemEntity;
+import dev.senna.model.entity.OrderArchiveEntity;
+import dev.senna.repository.ItemRepository;
+import dev.senna.repository.OrderArchiveRepository;
+import dev.senna.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Move pedidos postados antigos de tb_order/tb_item para tb_order_archive e os lê de volta
+ * quando a consulta pede o histórico. Os contadores do resumo por cliente não mudam: o pedido
+ * continua postado, só muda de tabela.
+ */
+@ApplicationScoped
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    ItemRepository itemRepository;
+
+    @Inject
+    OrderArchiveRepository archiveRepository;
+
+    @Inject
+    ProductionBoardService productionBoardService;
+
+    /**
+     * Arquiva os pedidos postados antes de {@code cutoff}, um lote por transação, até não sobrar
+     * nenhum. Se falhar no meio, os lotes já confirmados ficam arquivados e o resto vai na próxima execução.
+     *
+     * @return quantidade de pedidos arquivados
+     */
+    public long archivePostedBefore(LocalDate cutoff, int batchSize) {
+        long total = 0;
+        int archived;
+        do {
+            archived = QuarkusTransaction.requiringNew().call(() -> archiveBatch(cutoff, batchSize));
+            total += archived;
+        } while (archived == batchSize);
+
+        return total;
+    }
+
+    @Transactional
+    public int archiveBatch(LocalDate cutoff, int batchSize) {
+        var orderIds = orderRepository.findPostedIdsBefore(cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        var orders = orderRepository.findWithItemsByIds(orderIds);
+        var archivedAt = Instant.now();
+
+        for (var order : orders) {
+            archiveRepository.persist(OrderArchiveEntity.of(order, archivedAt));
+        }
+
+        var itemIds = orders.stream()
+                .flatMap(order -> order.getItems().stream())
+                .map(ItemEntity::getId)
+                .toList();
+
+        itemRepository.deleteByOrderIds(orderIds);
+        orderRepository.deleteByIds(orderIds);
+
+        productionBoardService.itemsDeleted(itemIds);
+        productionBoardService.ordersDeleted(orderIds);
+
+        log.debug("{} pedidos postados antes de {} arquivados com {} itens", orders.size(), cutoff, itemIds.size());
+
+        return orders.size();
+    }
+
+    public Optional<Versioned<OrderResponseDTO>> findArchived(Long orderId) {
+        return archiveRepository.findWithClient(orderId)
+                .map(archive -> new Versioned<>(new OrderResponseDTO(archive.getId(), archive.getSaleDate(),
+                        archive.getDeliveryDate(), archive.getClient().getClientName(), archive.getStatus(),
+                        archive.getItems().stream().map(OrderArchiveService::toItemResponse).toList()),
+                        archive.getVersion()));
+    }
+
+    /**
+     * Pedidos arquivados mais recentes por data de venda, já no formato da listagem de pedidos.
+     */
+    public List<ListOrdersResponseDto> listArchived(UUID clientId, LocalDate saleFrom, LocalDate saleTo, int limit) {
+        return archiveRepository.findRecentBySaleDate(clientId, saleFrom, saleTo, limit).stream()
+                .map(archive -> new ListOrdersResponseDto(archive.getSaleDate(), archive.getDeliveryDate(),
+                        archive.getClient().getClientName(), archive.getStatus()))
+                .toList();
+    }
+
+    private static ItemResponseDto toItemResponse(ArchivedItem item) {
+        return new ItemResponseDto(item.id(), item.name(), item.quantity(), item.saleQuantity(),
+                item.material(), item.image(), item.status());
+    }
+}
@@ -9,6 +9,7 @@ import dev.senna.model.entity.OrderEntity;
 import dev.senna.model.enums.OrderStatus;
 import dev.senna.repository.ClientRepository;
 import dev.senna.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Parameters;
 import io.quarkus.panache.common.Sort;
@@ -16,16 +17,19 @@ import io.quarkus.security.ForbiddenException;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -38,6 +42,15 @@ public class OrderService {
     @Inject
     private ClientRepository clientRepository;
 
+    @Inject
+    private ProductionBoardService productionBoardService;
+
+    @Inject
+    private ClientOrderSummaryService clientOrderSummaryService;
+
+    @Inject
+    private OrderArchiveService orderArchiveService;
+
     @Inject
     SecurityIdentity identity;
 
@@ -46,6 +59,8 @@ public class OrderService {
     // Constantes para melhor manutenibilidade
     private static final int DEFAULT_PAGE_SIZE = 20;
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+    private static final int RECENT_ORDERS = 4;
 
     @Transactional
     public Long createOrder(@Valid CreateOrderReqDto reqDto) throws OrderServiceException {
@@ -68,6 +83,8 @@ public class OrderService {
             order.setStatus(OrderStatus.PRODUCAO);
 
             orderRepository.persist(order);
+            productionBoardService.orderSaved(order);
+            clientOrderSummaryService.orderCreated(order);
 
             log.info("Pedido criado com sucesso - ID: {}, Cliente: {}, Status: {}",
                     order.getId(), client.getClientName(), OrderStatus.PRODUCAO);
@@ -75,11 +92,21 @@ public class OrderService {
             return order.getId();
     }
 
-    public List<ListOrdersResponseDto> listOrders(OrderStatus status, UUID clientId, Integer page, Integer pageSize) {
+    /**
+     * @param saleFrom início (inclusivo) da janela de data de venda, ou null
+     * @param saleTo   fim (inclusivo) da janela de data de venda, ou null
+     * @param includeHistory inclui os pedidos arquivados, intercalados por data de venda
+     */
+    public List<ListOrdersResponseDto> listOrders(OrderStatus status, UUID clientId, LocalDate saleFrom, LocalDate saleTo,
+                                                  boolean includeHistory, Integer page, Integer pageSize) {
 
         int validatedPage = validatePage(page);
         int validatedPageSize = validatePageSize(pageSize);
 
+        if (saleFrom != null && saleTo != null && saleTo.isBefore(saleFrom)) {
+            throw new InvalidDateException("Fim da janela de venda anterior ao início", saleTo);
+        }
+
         StringBuilder queryBuilder = new StringBuilder("SELECT o FROM OrderEntity o JOIN FETCH o.client c WHERE 1=1");
         Parameters param = new Parameters();
 
@@ -93,16 +120,44 @@ public class OrderService {
             param.and("clientId", clientId);
         }
 
-        var orders = orderRepository.find(queryBuilder.toString(), Sort.by("saleDate").descending(), param)
-                .page(Page.of(validatedPage, validatedPageSize))
-                .list();
+        // A janela de venda é a chave de partição de tb_order: o Postgres só lê os meses do intervalo
+        if (saleFrom != null) {
+            queryBuilder.append(" AND o.saleDate >= :saleFrom");
+            param.and("saleFrom", saleFrom);
+        }
+
+        if (saleTo != null) {
+            queryBuilder.append(" AND o.saleDate <= :saleTo");
+            param.and("saleTo", saleTo);
+        }
+
+        var query = orderRepository.find(queryBuilder.toString(), Sort.by("saleDate").descending(), param);
+
+        // Só há pedidos POSTADO no arquivo
+        if (!includeHistory || (status != null && status != OrderStatus.POSTADO)) {
+            return query.page(Page.of(validatedPage, validatedPageSize)).list().stream()
+                    .map(this::toListOrdersResponse)
+                    .toList();
+        }
+
+        // Cada fonte entrega as primeiras (page + 1) * pageSize linhas e a página sai da intercalação.
+        // O custo cresce com a página, por isso o histórico é opt-in.
+        int window = (validatedPage + 1) * validatedPageSize;
+        var live = query.range(0, window - 1).list().stream().map(this::toListOrdersResponse);
+        var archived = orderArchiveService.listArchived(clientId, saleFrom, saleTo, window).stream();
+
+        return Stream.concat(live, archived)
+                .sorted(Comparator.comparing(ListOrdersResponseDto::saleDate).reversed())
+                .skip((long) validatedPage * validatedPageSize)
+                .limit(validatedPageSize)
+                .toList();
+    }
 
-        return orders.stream()
-                .map(order -> new ListOrdersResponseDto(order.getSaleDate(),
-                        order.getDeliveryDate(),
-                        order.getClient().getClientName(),
-                        order.getStatus()))
-                        .toList();
+    private ListOrdersResponseDto toListOrdersResponse(OrderEntity order) {
+        return new ListOrdersResponseDto(order.getSaleDate(),
+                order.getDeliveryDate(),
+                order.getClient().getClientName(),
+                order.getStatus());
     }
 
     public List<ListOrderProductionResponseDto> listProduction(Integer page, Integer pageSize) {
@@ -112,9 +167,9 @@ public class OrderService {
         log.debug("Listing actual production line - page: {}, size: {}", validatedPage, validatedPageSize);
 
         try {
-            var orders = orderRepository.find("status", OrderStatus.PRODUCAO)
-                    .page(Page.of(validatedPage, validatedPageSize))
-                    .list();
+            // Duas consultas por página, qualquer que seja o tamanho: ids paginados e depois pedidos com cliente e itens
+            var orderIds = orderRepository.findInProductionIds(validatedPage, validatedPageSize);
+            var orders = orderRepository.findWithItemsByIdsInOrder(orderIds);
 
             log.info("Encontrados {} pedidos em produção para listagem detalhada na página {}",
                     orders.size(), validatedPage);
@@ -158,8 +213,8 @@ public class OrderService {
         log.debug("Listando últimos pedidos enviados - página: {}, tamanho: {}", validatedPage, validatedPageSize);
 
         try {
-            var orderQuery = orderRepository.findLastSent(validatedPage, validatedPageSize);
-            var orderEntities = orderQuery.list();
+            var orderIds = orderRepository.findLastSentIds(validatedPage, validatedPageSize);
+            var orderEntities = orderRepository.findWithItemsByIdsInOrder(orderIds);
 
             log.info("Encontrados {} pedidos enviados na página {}", orderEntities.size(), validatedPage);
 
@@ -193,8 +248,29 @@ public class OrderService {
         }
     }
 
+    /**
+     * Troca só o status, sem If-Match: um conflito com outra escrita não chega ao cliente.
+     * O pedido é relido e a troca reaplicada em uma nova transação, até {@value #STATUS_UPDATE_ATTEMPTS} vezes.
+     */
+    public Versioned<UpdateOrderResDto> updateOrderStatusWithRetry(Long orderId, @Valid UpdateOrderReqDto reqDto) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return QuarkusTransaction.requiringNew().call(() -> updateOrder(orderId, reqDto, null));
+            } catch (StaleVersionException e) {
+                if (attempt == STATUS_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Conflito de versão ao alterar o status do pedido {} - tentativa {} de {}",
+                        orderId, attempt, STATUS_UPDATE_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * @param expectedVersion versão enviada no If-Match, ou null para aceitar qualquer versão
+     */
     @Transactional
-    public UpdateOrderResDto updateOrder(Long orderId, @Valid UpdateOrderReqDto reqDto) {
+    public Versioned<UpdateOrderResDto> updateOrder(Long orderId, @Valid UpdateOrderReqDto reqDto, Long expectedVersion) {
         log.info("Iniciando atualização do pedido ID: {} - Novos Parâmetros - Status: {} - Sale Date: {} - Delivery Date: {} - Client ID: {} ",
                 orderId, reqDto.status(), reqDto.saleDate(), reqDto.deliveryDate(), reqDto.clientId());
 
@@ -209,6 +285,15 @@ public class OrderService {
                     orderToBeUpdated.getId(), orderToBeUpdated.getStatus(),
                     orderToBeUpdated.getClient().getClientName());
 
+            if (expectedVersion != null && expectedVersion != orderToBeUpdated.getVersion()) {
+                log.warn("Pedido {} está na versão {} mas o If-Match esperava {}",
+                        orderId, orderToBeUpdated.getVersion(), expectedVersion);
+                throw new StaleVersionException("Order", orderId);
+            }
+
+            var previousClientId = orderToBeUpdated.getClient().getClientId();
+            var previousStatus = orderToBeUpdated.getStatus();
+
             boolean isAdmin = identity.getRoles().contains("ADMIN");
             boolean isOfficer = identity.getRoles().contains("OFFICER");
 
@@ -262,11 +347,14 @@ public class OrderService {
             }
 
             orderRepository.persist(orderToBeUpdated);
+            flushVersion(orderId);
+            productionBoardService.orderSaved(orderToBeUpdated);
+            clientOrderSummaryService.orderChanged(previousClientId, previousStatus, orderToBeUpdated);
 
             log.info("Pedido {} atualizado com sucesso - Status final: {}",
                     orderToBeUpdated.getId(), orderToBeUpdated.getStatus());
 
-            return new UpdateOrderResDto(orderToBeUpdated);
+            return new Versioned<>(new UpdateOrderResDto(orderToBeUpdated), orderToBeUpdated.getVersion());
 
         } catch (Exception e) {
             log.error("Erro ao atualizar pedido ID: {} - Erro: {}", orderId, e.getMessage(), e);
@@ -274,6 +362,16 @@ public class OrderService {
         }
     }
 
+    // O UPDATE com "WHERE version = ?" roda aqui, ainda dentro do service, para o conflito virar 412
+    private void flushVersion(Long orderId) {
+        try {
+            orderRepository.flush();
+        } catch (OptimisticLockException e) {
+            log.warn("Pedido {} foi alterado por outra requisição durante a atualização", orderId);
+            throw new StaleVersionException("Order", orderId);
+        }
+    }
+
     @Transactional
     public void updatePostedDateIfNeeded(OrderEntity order, OrderStatus newStatus) {
         boolean isChangingToPosted = OrderStatus.POSTADO.equals(newStatus);
@@ -422,7 +520,7 @@ public class OrderService {
     public List<RecentOrdersRespDTO> listRecentOrders() {
         log.debug("Listing recent orders");
 
-        var recentOrders = orderRepository.findTop4ByOrderByIdDesc();
+        var recentOrders = orderRepository.findWithItemsByIdsInOrder(orderRepository.findRecentIds(RECENT_ORDERS));
         return recentOrders.stream()
                 .map(this::convertToRecentOrdersDTO)
                 .toList();
@@ -447,14 +545,23 @@ public class OrderService {
                 itemEntity.getStatus());
     }
 
-    public OrderResponseDTO getOrderById(Long orderId) {
+    /**
+     * @param includeHistory procura também entre os pedidos arquivados
+     */
+    public Versioned<OrderResponseDTO> getOrderById(Long orderId, boolean includeHistory) {
         log.debug("Getting order by ID: {}", orderId);
 
-        var orderEntity = orderRepository.findByIdOptional(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        var live = orderRepository.findByIdOptional(orderId);
+        if (live.isEmpty() && includeHistory) {
+            return orderArchiveService.findArchived(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+        }
+
+        var orderEntity = live.orElseThrow(() -> new OrderNotFoundException(orderId));
 
-        return new OrderResponseDTO(orderEntity.getId() ,orderEntity.getSaleDate(), orderEntity.getDeliveryDate(),
+        return new Versioned<>(new OrderResponseDTO(orderEntity.getId() ,orderEntity.getSaleDate(), orderEntity.getDeliveryDate(),
                 orderEntity.getClient().getClientName(), orderEntity.getStatus(),
-                orderEntity.getItems().stream().map(this::convertToItemResponseDto).toList());
+                orderEntity.getItems().stream().map(this::convertToItemResponseDto).toList()),
+                orderEntity.getVersion());
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.controller.dto.response.ListOrderProductionResponseDto;
+import dev.senna.controller.dto.response.StageQueueItemResponseDto;
+import dev.senna.infra.AfterCommit;
+import dev.senna.infra.ProductionBoardStore;
+import dev.senna.model.entity.ItemEntity;
+import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.repository.ItemRepository;
+import dev.senna.repository.OrderRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@ApplicationScoped
+public class ProductionBoardService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionBoardService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    @Inject
+    ItemRepository itemRepository;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    // Escritas só chegam ao quadro depois do commit; commits concorrentes podem chegar fora de
+    // ordem, e o store descarta versões antigas
+    @Inject
+    AfterCommit afterCommit;
+
+    private final ProductionBoardStore store = new ProductionBoardStore();
+
+    @Transactional
+    void loadOnStartup(@Observes StartupEvent event) {
+        log.info("Loading production board projection...");
+        long start = System.nanoTime();
+
+        store.clear();
+
+        orderRepository.listInProductionWithClient()
+                .forEach(order -> store.upsertOrder(order.getId(), order.getVersion(), order.getStatus(),
+                        order.getDeliveryDate(), order.getClient().getClientId(), order.getClient().getClientName()));
+
+        try (var items = itemRepository.scrollNotPacked(LOAD_FETCH_SIZE)) {
+            while (items.next()) {
+                var row = items.get();
+                var item = (ListItemProductionLineResponse) row[0];
+                store.upsertItem(item.id(), (Long) row[1], item.name(), item.quantity(), item.saleQuantity(),
+                        item.material(), item.image(), item.itemStatus(), item.orderId());
+            }
+        }
+
+        log.info("Production board loaded - {} items, {} orders in {} ms",
+                store.itemCount(), store.orderCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<ListItemProductionLineResponse> listItems(Integer page, Integer pageSize) {
+        return store.listItems(validatePage(page), validatePageSize(pageSize));
+    }
+
+    public List<ListOrderProductionResponseDto> listOrders(Integer page, Integer pageSize) {
+        return store.listOrders(validatePage(page), validatePageSize(pageSize));
+    }
+
+    public List<StageQueueItemResponseDto> nextForStage(ItemStatus status, Integer limit) {
+        Objects.requireNonNull(status, "ItemStatus must not be null");
+        return store.nextForStage(status, validatePageSize(limit));
+    }
+
+    // Leitura sem espera pelo lock do quadro, para quem atende no event loop
+    public <T> Optional<T> tryRead(Supplier<T> read) {
+        return store.tryRead(read);
+    }
+
+    public void itemSaved(ItemEntity item) {
+        long id = item.getId();
+        var name = item.getName();
+        var quantity = item.getQuantity();
+        var saleQuantity = item.getSaleQuantity();
+        var material = item.getMaterial();
+        var image = item.getImage();
+        var status = item.getStatus();
+        Long orderId = item.getOrder() != null ? item.getOrder().getId() : null;
+
+        // A versão só sobe no flush: é lida da entidade depois do commit
+        afterCommit.run(() -> store.upsertItem(id, item.getVersion(), name, quantity, saleQuantity, material,
+                image, status, orderId));
+    }
+
+    public void itemsAssigned(Long orderId, List<Long> itemIds) {
+        afterCommit.run(() -> store.assignOrder(orderId, itemIds));
+    }
+
+    public void orderSaved(OrderEntity order) {
+        long id = order.getId();
+        var status = order.getStatus();
+        var deliveryDate = order.getDeliveryDate();
+        var clientId = order.getClient().getClientId();
+        var clientName = order.getClient().getClientName();
+
+        afterCommit.run(() -> store.upsertOrder(id, order.getVersion(), status, deliveryDate, clientId, clientName));
+    }
+
+    public void itemsDeleted(List<Long> itemIds) {
+        afterCommit.run(() -> itemIds.forEach(store::removeItem));
+    }
+
+    public void ordersDeleted(List<Long> orderIds) {
+        afterCommit.run(() -> orderIds.forEach(store::removeOrder));
+    }
+
+    public void clientRenamed(UUID clientId, String clientName) {
+        afterCommit.run(() -> store.renameClient(clientId, clientName));
+    }
+
+    private int validatePage(Integer page) {
+        return page == null || page < 0 ? 0 : page;
+    }
+
+    private int validatePageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,73 @@
+-- Esquema como o Hibernate (schema-management=update) deixou o banco antes das migrações.
+-- Bancos já existentes entram com baseline nesta versão e não executam este script.
+
+CREATE TABLE tb_client (
+    clientId        UUID         NOT NULL,
+    client_name     VARCHAR(255),
+    normalized_name VARCHAR(255),
+    CONSTRAINT pk_client PRIMARY KEY (clientId),
+    CONSTRAINT uk_client_normalized_name UNIQUE (normalized_name)
+);
+
+CREATE TABLE tb_order (
+    order_id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    sale_date     DATE         NOT NULL,
+    delivery_date DATE         NOT NULL,
+    postedDate    DATE,
+    client_id     UUID         NOT NULL,
+    order_status  VARCHAR(255) CHECK (order_status IN ('PRODUCAO', 'FINALIZADO', 'POSTADO')),
+    CONSTRAINT pk_order PRIMARY KEY (order_id),
+    CONSTRAINT fk_order_client FOREIGN KEY (client_id) REFERENCES tb_client (clientId)
+);
+
+CREATE INDEX idx_order_client ON tb_order (client_id);
+
+CREATE TABLE tb_item (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_name        VARCHAR(255) NOT NULL,
+    item_quantity    INTEGER,
+    sale_quantity    INTEGER      NOT NULL,
+    material         VARCHAR(255) NOT NULL
+        CHECK (material IN ('ADESIVO', 'ELETROSTATICO', 'BRANCO_FOSCO', 'LONA')),
+    image            VARCHAR(64),
+    actual_status    VARCHAR(255) NOT NULL
+        CHECK (actual_status IN ('IMPRESSO', 'ENCARTELADO', 'EM_SILK', 'CHAPADO', 'VERSO_PRONTO', 'ACABAMENTO', 'EMBALADO')),
+    order_id         BIGINT,
+    claimed_by       VARCHAR(255),
+    claim_expires_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_item PRIMARY KEY (id),
+    CONSTRAINT fk_item_order FOREIGN KEY (order_id) REFERENCES tb_order (order_id)
+);
+
+CREATE INDEX idx_item_order ON tb_item (order_id);
+
+-- Índice parcial dos itens sem pedido (antes criado pelo ItemIndexCreator na subida)
+CREATE INDEX idx_item_unassigned ON tb_item (material, actual_status, id) WHERE order_id IS NULL;
+
+CREATE TABLE tb_client_order_summary (
+    client_id        UUID   NOT NULL,
+    production_count BIGINT NOT NULL,
+    finished_count   BIGINT NOT NULL,
+    posted_count     BIGINT NOT NULL,
+    last_posted_date DATE,
+    CONSTRAINT pk_client_order_summary PRIMARY KEY (client_id)
+);
+
+CREATE TABLE tb_users (
+    userId    UUID         NOT NULL,
+    username  VARCHAR(255),
+    password  VARCHAR(255),
+    user_role VARCHAR(255) CHECK (user_role IN ('OFFICER', 'ADMIN', 'DEV')),
+    CONSTRAINT pk_users PRIMARY KEY (userId),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE tb_refresh_token (
+    token_id  UUID                        NOT NULL,
+    userId    UUID                        NOT NULL,
+    tokenHash VARCHAR(255)                NOT NULL,
+    expiresAt TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked   BOOLEAN                     NOT NULL,
+    CONSTRAINT pk_refresh_token PRIMARY KEY (token_id),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (tokenHash)
+);
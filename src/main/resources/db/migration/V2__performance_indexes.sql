@@ -0,0 +1,15 @@
+-- Índices dos caminhos de acesso reais. IF NOT EXISTS porque bancos migrados por baseline
+-- podem já ter algum deles criado à mão.
+
+-- listProduction, findLastSent (status + ORDER BY delivery_date, order_id) e as contagens por status
+CREATE INDEX IF NOT EXISTS idx_order_status_delivery ON tb_order (order_status, delivery_date, order_id);
+
+-- Relatórios semanais do AnalyticsService (postedDate BETWEEN)
+CREATE INDEX IF NOT EXISTS idx_order_posted_date ON tb_order (postedDate);
+
+-- Fila de produção por estágio (findByStatus paginado por id e claimNext)
+CREATE INDEX IF NOT EXISTS idx_item_status ON tb_item (actual_status, id);
+
+-- Criados pelo Hibernate em bancos antigos só se a anotação já existia: garante os dois
+CREATE INDEX IF NOT EXISTS idx_item_order ON tb_item (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_client ON tb_order (client_id);
@@ -0,0 +1,39 @@
+-- Enums gravados como códigos smallint estáveis (ver getCode()/getId() de cada enum) no lugar
+-- de varchar(255). Os índices que usam essas colunas são reconstruídos pelo ALTER TYPE.
+
+ALTER TABLE tb_order DROP CONSTRAINT IF EXISTS tb_order_order_status_check;
+ALTER TABLE tb_order ALTER COLUMN order_status TYPE SMALLINT USING CASE order_status
+    WHEN 'PRODUCAO' THEN 1
+    WHEN 'FINALIZADO' THEN 2
+    WHEN 'POSTADO' THEN 3
+END;
+ALTER TABLE tb_order ADD CONSTRAINT ck_order_status CHECK (order_status BETWEEN 1 AND 3);
+
+ALTER TABLE tb_item DROP CONSTRAINT IF EXISTS tb_item_material_check;
+ALTER TABLE tb_item ALTER COLUMN material TYPE SMALLINT USING CASE material
+    WHEN 'ADESIVO' THEN 1
+    WHEN 'ELETROSTATICO' THEN 2
+    WHEN 'BRANCO_FOSCO' THEN 3
+    WHEN 'LONA' THEN 4
+END;
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_material CHECK (material BETWEEN 1 AND 4);
+
+ALTER TABLE tb_item DROP CONSTRAINT IF EXISTS tb_item_actual_status_check;
+ALTER TABLE tb_item ALTER COLUMN actual_status TYPE SMALLINT USING CASE actual_status
+    WHEN 'IMPRESSO' THEN 1
+    WHEN 'ENCARTELADO' THEN 2
+    WHEN 'EM_SILK' THEN 3
+    WHEN 'CHAPADO' THEN 4
+    WHEN 'VERSO_PRONTO' THEN 5
+    WHEN 'ACABAMENTO' THEN 6
+    WHEN 'EMBALADO' THEN 7
+END;
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_actual_status CHECK (actual_status BETWEEN 1 AND 7);
+
+ALTER TABLE tb_users DROP CONSTRAINT IF EXISTS tb_users_user_role_check;
+ALTER TABLE tb_users ALTER COLUMN user_role TYPE SMALLINT USING CASE user_role
+    WHEN 'OFFICER' THEN 1
+    WHEN 'ADMIN' THEN 2
+    WHEN 'DEV' THEN 3
+END;
+ALTER TABLE tb_users ADD CONSTRAINT ck_users_role CHECK (user_role BETWEEN 1 AND 3);
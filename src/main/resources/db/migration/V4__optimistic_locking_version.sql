@@ -0,0 +1,3 @@
+-- Versão usada pelo @Version do Hibernate (controle otimista e ETag dos PATCH)
+ALTER TABLE tb_order ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tb_item ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,140 @@
+-- tb_order particionada por mês de sale_date e tb_item alinhada a ela por order_sale_date
+-- (cópia da data de venda do pedido). Itens sem pedido têm order_sale_date nula e ficam na
+-- partição default. As partições futuras são criadas por ensure_order_partitions(), chamada
+-- no fim desta migração e depois pelo OrderPartitionMaintainer.
+--
+-- Exige Postgres 15+: trocar a data de venda move o pedido de partição e o ON UPDATE CASCADE
+-- move os itens junto.
+
+ALTER TABLE tb_item RENAME TO tb_item_legacy;
+ALTER TABLE tb_order RENAME TO tb_order_legacy;
+
+-- Colunas identity não são permitidas em tabelas particionadas antes do Postgres 17
+CREATE SEQUENCE seq_order_id;
+SELECT setval('seq_order_id', COALESCE((SELECT MAX(order_id) FROM tb_order_legacy), 0) + 1, false);
+
+CREATE SEQUENCE seq_item_id;
+SELECT setval('seq_item_id', COALESCE((SELECT MAX(id) FROM tb_item_legacy), 0) + 1, false);
+
+CREATE TABLE tb_order (
+    order_id      BIGINT   NOT NULL DEFAULT nextval('seq_order_id'),
+    sale_date     DATE     NOT NULL,
+    delivery_date DATE     NOT NULL,
+    postedDate    DATE,
+    client_id     UUID     NOT NULL,
+    order_status  SMALLINT,
+    version       BIGINT   NOT NULL DEFAULT 0
+) PARTITION BY RANGE (sale_date);
+
+CREATE TABLE tb_order_default PARTITION OF tb_order DEFAULT;
+
+CREATE TABLE tb_item (
+    id               BIGINT       NOT NULL DEFAULT nextval('seq_item_id'),
+    item_name        VARCHAR(255) NOT NULL,
+    item_quantity    INTEGER,
+    sale_quantity    INTEGER      NOT NULL,
+    material         SMALLINT     NOT NULL,
+    -- 255 como no esquema antigo: bancos que entraram pelo baseline ainda podem ter URLs e
+    -- Base64 inline que o LegacyImageMigrator só move depois do Flyway
+    image            VARCHAR(255),
+    actual_status    SMALLINT     NOT NULL,
+    order_id         BIGINT,
+    order_sale_date  DATE,
+    claimed_by       VARCHAR(255),
+    claim_expires_at TIMESTAMP(6) WITH TIME ZONE,
+    version          BIGINT       NOT NULL DEFAULT 0
+) PARTITION BY RANGE (order_sale_date);
+
+-- Chave nula só cabe na default: é onde ficam os itens ainda sem pedido
+CREATE TABLE tb_item_default PARTITION OF tb_item DEFAULT;
+
+ALTER SEQUENCE seq_order_id OWNED BY tb_order.order_id;
+ALTER SEQUENCE seq_item_id OWNED BY tb_item.id;
+
+-- Cria as partições mensais de from_date até months_ahead meses depois do mês corrente.
+-- Um mês que já tem linhas na partição default é pulado com aviso: criar a partição exigiria
+-- mover essas linhas, e elas continuam acessíveis onde estão.
+CREATE OR REPLACE FUNCTION ensure_order_partitions(from_date DATE, months_ahead INTEGER)
+    RETURNS INTEGER
+    LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_date)::date;
+    last_month  DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::date;
+    month_end   DATE;
+    suffix      TEXT;
+    created     INTEGER := 0;
+BEGIN
+    -- Duas instâncias rodando o job ao mesmo tempo não disputam o mesmo CREATE TABLE
+    PERFORM pg_advisory_xact_lock(hashtext('ensure_order_partitions'));
+
+    WHILE month_start <= last_month LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        suffix := to_char(month_start, 'YYYY_MM');
+
+        IF to_regclass('tb_order_p' || suffix) IS NULL THEN
+            IF EXISTS (SELECT 1 FROM tb_order_default WHERE sale_date >= month_start AND sale_date < month_end) THEN
+                RAISE WARNING 'tb_order_default já tem pedidos de %: partição não criada', suffix;
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF tb_order FOR VALUES FROM (%L) TO (%L)',
+                               'tb_order_p' || suffix, month_start, month_end);
+                created := created + 1;
+            END IF;
+        END IF;
+
+        IF to_regclass('tb_item_p' || suffix) IS NULL THEN
+            IF EXISTS (SELECT 1 FROM tb_item_default WHERE order_sale_date >= month_start AND order_sale_date < month_end) THEN
+                RAISE WARNING 'tb_item_default já tem itens de %: partição não criada', suffix;
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF tb_item FOR VALUES FROM (%L) TO (%L)',
+                               'tb_item_p' || suffix, month_start, month_end);
+                created := created + 1;
+            END IF;
+        END IF;
+
+        month_start := month_end;
+    END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+SELECT ensure_order_partitions(COALESCE((SELECT MIN(sale_date) FROM tb_order_legacy), CURRENT_DATE), 3);
+
+INSERT INTO tb_order (order_id, sale_date, delivery_date, postedDate, client_id, order_status, version)
+SELECT order_id, sale_date, delivery_date, postedDate, client_id, order_status, version
+FROM tb_order_legacy;
+
+INSERT INTO tb_item (id, item_name, item_quantity, sale_quantity, material, image, actual_status,
+                     order_id, order_sale_date, claimed_by, claim_expires_at, version)
+SELECT i.id, i.item_name, i.item_quantity, i.sale_quantity, i.material, i.image, i.actual_status,
+       i.order_id, o.sale_date, i.claimed_by, i.claim_expires_at, i.version
+FROM tb_item_legacy i
+         LEFT JOIN tb_order_legacy o ON o.order_id = i.order_id;
+
+DROP TABLE tb_item_legacy;
+DROP TABLE tb_order_legacy;
+
+-- Restrições e índices depois da carga; nas tabelas particionadas eles se propagam às partições.
+-- A chave primária precisa conter a chave de partição; order_id continua único pela sequência.
+ALTER TABLE tb_order ADD CONSTRAINT pk_order PRIMARY KEY (order_id, sale_date);
+ALTER TABLE tb_order ADD CONSTRAINT ck_order_status CHECK (order_status BETWEEN 1 AND 3);
+ALTER TABLE tb_order ADD CONSTRAINT fk_order_client FOREIGN KEY (client_id) REFERENCES tb_client (clientId);
+
+-- tb_item não tem chave primária: order_sale_date é nula nos itens sem pedido
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_material CHECK (material BETWEEN 1 AND 4);
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_actual_status CHECK (actual_status BETWEEN 1 AND 7);
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_order_sale_date CHECK ((order_id IS NULL) = (order_sale_date IS NULL));
+ALTER TABLE tb_item ADD CONSTRAINT fk_item_order FOREIGN KEY (order_id, order_sale_date)
+    REFERENCES tb_order (order_id, sale_date) ON UPDATE CASCADE;
+
+CREATE INDEX idx_order_client ON tb_order (client_id);
+CREATE INDEX idx_order_status_delivery ON tb_order (order_status, delivery_date, order_id);
+CREATE INDEX idx_order_posted_date ON tb_order (postedDate);
+-- listOrders ordena por sale_date: com LIMIT o Append ordenado para nas partições recentes
+CREATE INDEX idx_order_sale_date ON tb_order (sale_date, order_id);
+
+CREATE INDEX idx_item_id ON tb_item (id);
+CREATE INDEX idx_item_order ON tb_item (order_id);
+CREATE INDEX idx_item_status ON tb_item (actual_status, id);
+CREATE INDEX idx_item_unassigned ON tb_item (material, actual_status, id) WHERE order_id IS NULL;
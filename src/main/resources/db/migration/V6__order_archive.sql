@@ -0,0 +1,18 @@
+-- Pedidos postados há muito tempo saem de tb_order/tb_item e ficam aqui, um registro por pedido
+-- com os itens num snapshot JSONB. Movidos pelo PostedOrderArchiver; nunca são editados.
+CREATE TABLE tb_order_archive (
+    order_id      BIGINT                      NOT NULL,
+    client_id     UUID                        NOT NULL,
+    sale_date     DATE                        NOT NULL,
+    delivery_date DATE                        NOT NULL,
+    posted_date   DATE,
+    order_status  SMALLINT                    NOT NULL,
+    version       BIGINT                      NOT NULL,
+    items         JSONB                       NOT NULL,
+    archived_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_order_archive PRIMARY KEY (order_id),
+    CONSTRAINT fk_order_archive_client FOREIGN KEY (client_id) REFERENCES tb_client (clientId)
+);
+
+CREATE INDEX idx_order_archive_client ON tb_order_archive (client_id);
+CREATE INDEX idx_order_archive_sale_date ON tb_order_archive (sale_date, order_id);
@@ -0,0 +1,134 @@
+-- tb_item volta a ser uma tabela comum com chave primária em id. Particionada por
+-- order_sale_date ela não podia ter PK (a chave de partição é nula nos itens sem pedido), e as
+-- leituras de item são por id ou por order_id, sem proveito da poda. order_sale_date continua:
+-- é ela que fecha a FK composta com tb_order e acompanha a troca da data de venda.
+--
+-- ensure_order_partitions passa a cuidar só de tb_order e resgata para a partição nova os
+-- pedidos que caíram na default, em vez de pular o mês.
+
+ALTER TABLE tb_item RENAME TO tb_item_partitioned;
+
+CREATE TABLE tb_item (
+    id               BIGINT       NOT NULL DEFAULT nextval('seq_item_id'),
+    item_name        VARCHAR(255) NOT NULL,
+    item_quantity    INTEGER,
+    sale_quantity    INTEGER      NOT NULL,
+    material         SMALLINT     NOT NULL,
+    -- Continua 255 (ver V5): estreitar para o hash de 64 fica para uma migração posterior, quando
+    -- não restarem valores antigos
+    image            VARCHAR(255),
+    actual_status    SMALLINT     NOT NULL,
+    order_id         BIGINT,
+    order_sale_date  DATE,
+    claimed_by       VARCHAR(255),
+    claim_expires_at TIMESTAMP(6) WITH TIME ZONE,
+    version          BIGINT       NOT NULL DEFAULT 0
+);
+
+INSERT INTO tb_item (id, item_name, item_quantity, sale_quantity, material, image, actual_status,
+                     order_id, order_sale_date, claimed_by, claim_expires_at, version)
+SELECT id, item_name, item_quantity, sale_quantity, material, image, actual_status,
+       order_id, order_sale_date, claimed_by, claim_expires_at, version
+FROM tb_item_partitioned;
+
+-- A sequência pertence à tabela antiga: sem trocar o dono ela seria apagada no DROP
+ALTER SEQUENCE seq_item_id OWNED BY tb_item.id;
+
+-- Leva junto tb_item_default e as partições tb_item_pAAAA_MM
+DROP TABLE tb_item_partitioned;
+
+ALTER TABLE tb_item ADD CONSTRAINT pk_item PRIMARY KEY (id);
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_material CHECK (material BETWEEN 1 AND 4);
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_actual_status CHECK (actual_status BETWEEN 1 AND 7);
+ALTER TABLE tb_item ADD CONSTRAINT ck_item_order_sale_date CHECK ((order_id IS NULL) = (order_sale_date IS NULL));
+ALTER TABLE tb_item ADD CONSTRAINT fk_item_order FOREIGN KEY (order_id, order_sale_date)
+    REFERENCES tb_order (order_id, sale_date) ON UPDATE CASCADE;
+
+-- idx_item_id saiu: a chave primária já indexa id
+CREATE INDEX idx_item_order ON tb_item (order_id);
+CREATE INDEX idx_item_status ON tb_item (actual_status, id);
+CREATE INDEX idx_item_unassigned ON tb_item (material, actual_status, id) WHERE order_id IS NULL;
+
+DROP FUNCTION ensure_order_partitions(DATE, INTEGER);
+
+-- Cria as partições mensais de tb_order de from_date até months_ahead meses depois do mês
+-- corrente. Antes disso, os pedidos que estão na default (data de venda além da janela já
+-- criada) vão para a partição do seu mês: são copiados para uma tabela nova, apagados da
+-- default e a tabela é anexada. Resgatar primeiro evita que o CREATE ... PARTITION OF de um mês
+-- da janela falhe por já haver pedidos dele na default.
+--
+-- Os itens desses pedidos ficam sem pedido enquanto eles estão fora de tb_order e voltam a
+-- apontar para eles no fim: a FK só confere as linhas movidas, sem revalidar tb_item inteira.
+CREATE FUNCTION ensure_order_partitions(from_date DATE, months_ahead INTEGER)
+    RETURNS INTEGER
+    LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_date)::date;
+    last_month  DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::date;
+    month_end   DATE;
+    part_name   TEXT;
+    created     INTEGER := 0;
+    rescue      RECORD;
+    item_ids    BIGINT[];
+    item_orders BIGINT[];
+BEGIN
+    -- Duas instâncias rodando o job ao mesmo tempo não disputam o mesmo CREATE TABLE
+    PERFORM pg_advisory_xact_lock(hashtext('ensure_order_partitions'));
+
+    FOR rescue IN
+        SELECT DISTINCT date_trunc('month', sale_date)::date AS month_start
+        FROM tb_order_default
+        ORDER BY 1
+    LOOP
+        month_end := (rescue.month_start + INTERVAL '1 month')::date;
+        part_name := 'tb_order_p' || to_char(rescue.month_start, 'YYYY_MM');
+
+        SELECT array_agg(i.id), array_agg(i.order_id)
+        INTO item_ids, item_orders
+        FROM tb_item i
+        WHERE i.order_id IN (SELECT o.order_id FROM tb_order_default o
+                             WHERE o.sale_date >= rescue.month_start AND o.sale_date < month_end);
+
+        IF item_ids IS NOT NULL THEN
+            UPDATE tb_item SET order_id = NULL, order_sale_date = NULL WHERE id = ANY (item_ids);
+        END IF;
+
+        EXECUTE format('CREATE TABLE %I (LIKE tb_order INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name);
+        EXECUTE format('INSERT INTO %I SELECT * FROM tb_order_default WHERE sale_date >= %L AND sale_date < %L',
+                       part_name, rescue.month_start, month_end);
+        DELETE FROM tb_order_default WHERE sale_date >= rescue.month_start AND sale_date < month_end;
+        EXECUTE format('ALTER TABLE tb_order ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       part_name, rescue.month_start, month_end);
+
+        IF item_ids IS NOT NULL THEN
+            UPDATE tb_item i
+            SET order_id = o.order_id, order_sale_date = o.sale_date
+            FROM unnest(item_ids, item_orders) AS moved(id, order_id)
+                     JOIN tb_order o ON o.order_id = moved.order_id
+            WHERE i.id = moved.id;
+        END IF;
+
+        RAISE NOTICE 'pedidos de % movidos de tb_order_default para %', to_char(rescue.month_start, 'YYYY_MM'), part_name;
+        created := created + 1;
+    END LOOP;
+
+    WHILE month_start <= last_month LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        part_name := 'tb_order_p' || to_char(month_start, 'YYYY_MM');
+
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF tb_order FOR VALUES FROM (%L) TO (%L)',
+                           part_name, month_start, month_end);
+            created := created + 1;
+        END IF;
+
+        month_start := month_end;
+    END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+-- Pedidos que já tenham caído na default até aqui vão para as suas partições
+SELECT ensure_order_partitions(CURRENT_DATE, 3);
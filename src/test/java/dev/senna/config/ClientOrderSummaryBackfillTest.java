@@ -0,0 +1,64 @@
+package dev.senna.config;
+
+import dev.senna.repository.ClientOrderSummaryRepository;
+import dev.senna.repository.OrderArchiveRepository;
+import dev.senna.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientOrderSummaryBackfillTest {
+
+    @InjectMocks
+    private ClientOrderSummaryBackfill backfill;
+
+    @Mock
+    private ClientOrderSummaryRepository summaryRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Test
+    @DisplayName("Should rebuild when every order is archived")
+    void shouldRebuildFromArchivedOrdersOnly() {
+        when(summaryRepository.count()).thenReturn(0L);
+        when(orderRepository.count()).thenReturn(0L);
+        when(orderArchiveRepository.count()).thenReturn(3L);
+
+        backfill.backfillOnStartup(null);
+
+        verify(summaryRepository).rebuild();
+    }
+
+    @Test
+    @DisplayName("Should skip the rebuild when there are no orders at all")
+    void shouldSkipWithoutOrders() {
+        when(summaryRepository.count()).thenReturn(0L);
+        when(orderRepository.count()).thenReturn(0L);
+        when(orderArchiveRepository.count()).thenReturn(0L);
+
+        backfill.backfillOnStartup(null);
+
+        verify(summaryRepository, never()).rebuild();
+    }
+
+    @Test
+    @DisplayName("Should skip the rebuild when the summary is already filled")
+    void shouldSkipWhenSummaryExists() {
+        when(summaryRepository.count()).thenReturn(5L);
+
+        backfill.backfillOnStartup(null);
+
+        verify(summaryRepository, never()).rebuild();
+        verifyNoInteractions(orderRepository, orderArchiveRepository);
+    }
+}
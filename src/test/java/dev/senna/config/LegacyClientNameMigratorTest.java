@@ -0,0 +1,30 @@
+package dev.senna.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegacyClientNameMigratorTest {
+
+    @Test
+    @DisplayName("Should suffix a colliding normalized name with the client id")
+    void shouldSuffixCollidingNameWithClientId() {
+        var clientId = UUID.fromString("0190f3c2-7a4b-7c3d-8e5f-123456789abc");
+
+        assertEquals("acme ltda#" + clientId, LegacyClientNameMigrator.disambiguate("acme ltda", clientId));
+    }
+
+    @Test
+    @DisplayName("Should keep the disambiguated name within the column length")
+    void shouldKeepDisambiguatedNameWithinColumnLength() {
+        var clientId = UUID.randomUUID();
+
+        var disambiguated = LegacyClientNameMigrator.disambiguate("a".repeat(255), clientId);
+
+        assertEquals(255, disambiguated.length());
+        assertTrue(disambiguated.endsWith("#" + clientId));
+    }
+}
@@ -0,0 +1,133 @@
+package dev.senna.controller;
+
+import dev.senna.infra.JwtService;
+import dev.senna.model.entity.UserEntity;
+import dev.senna.model.enums.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.http.TestHTTPResource;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga em {@code GET /api/order} com muito mais requisições simultâneas do que threads no pool
+ * de workers. Cada subclasse sobe a aplicação em um modo de execução dos controllers; vazão,
+ * pico de threads vivas e virtual threads presas saem no log para comparar os dois.
+ */
+abstract class ControllerThreadingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ControllerThreadingBenchmark.class);
+
+    private static final int ORDERS = 500;
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 1_000;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    JwtService jwtService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @TestHTTPResource("/api/order?pageSize=20&clientId=")
+    URL ordersUrl;
+
+    private UUID clientId;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        clientId = UUID.randomUUID();
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("INSERT INTO tb_client (clientId, client_name, normalized_name) " +
+                    "VALUES ('" + clientId + "', 'BENCHMARK CLIENT', 'benchmark client')");
+            statement.execute("INSERT INTO tb_order (sale_date, delivery_date, client_id, order_status) " +
+                    "SELECT CURRENT_DATE - (g % 60), CURRENT_DATE + 10, '" + clientId + "', 1 " +
+                    "FROM generate_series(1, " + ORDERS + ") g");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DELETE FROM tb_order WHERE client_id = '" + clientId + "'");
+            statement.execute("DELETE FROM tb_client WHERE clientId = '" + clientId + "'");
+        }
+    }
+
+    abstract String mode();
+
+    @Test
+    void shouldServeOrdersUnderHighConcurrency() throws Exception {
+        var token = jwtService.generateAccessToken(
+                new UserEntity(UUID.randomUUID(), "benchmark", "", UserRole.ADMIN));
+        var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        var request = HttpRequest.newBuilder(URI.create(ordersUrl + clientId.toString()))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        // Aquecimento do JIT e do pool de conexões antes de medir
+        run(client, request, 500);
+
+        var threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        var failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        run(client, request, REQUESTS, failures);
+        long elapsedNanos = System.nanoTime() - start;
+
+        var pinned = registry.find("virtual.threads.pinned").counter();
+        log.info("{}: {} req/s, peak of {} live threads, {} failed, {} pinned", mode(),
+                REQUESTS * 1_000_000_000L / elapsedNanos, threads.getPeakThreadCount(), failures.get(),
+                pinned == null ? 0 : (long) pinned.count());
+
+        assertEquals(0, failures.get());
+    }
+
+    private static void run(HttpClient client, HttpRequest request, int requests) throws Exception {
+        run(client, request, requests, new AtomicInteger());
+    }
+
+    // Mantém no máximo CONCURRENCY requisições em voo
+    private static void run(HttpClient client, HttpRequest request, int requests, AtomicInteger failures) throws Exception {
+        var inFlight = new Semaphore(CONCURRENCY);
+        var futures = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).get(5, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,270 @@
+package dev.senna.controller;
+
+import dev.senna.exception.ImageTooLargeException;
+import dev.senna.exception.InvalidImageException;
+import dev.senna.infra.ImageStore;
+import dev.senna.infra.ThumbnailPipeline;
+import dev.senna.service.ItemService;
+import io.vertx.core.Vertx;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sobe apenas o router do Vert.x com as rotas de imagem, sem o restante da aplicação,
+ * para que a medição de heap não se misture com o boot do Quarkus.
+ */
+class ImageRoutesUploadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageRoutesUploadTest.class);
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+    private static final long FIFTY_MB = 50L * 1024 * 1024;
+    private static final String BOUNDARY = "----uaicores-upload-boundary";
+
+    @TempDir
+    Path directory;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private ImageStore imageStore;
+    private ItemService itemService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+
+        imageStore = new ImageStore(directory.toString(), 64L * 1024 * 1024);
+        itemService = mock(ItemService.class);
+
+        var routes = new ImageRoutes();
+        routes.imageStore = imageStore;
+        routes.thumbnailPipeline = mock(ThumbnailPipeline.class);
+        routes.itemService = itemService;
+
+        var router = Router.router(vertx);
+        routes.registerRoutes(router);
+        server = vertx.createHttpServer().requestHandler(router).listen(0)
+                .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Nested
+    @DisplayName("POST /api/images tests")
+    class UploadTests {
+
+        @Test
+        @DisplayName("Should stream a 50 MB upload to disk keeping the heap flat")
+        void shouldStreamA50MbUploadKeepingTheHeapFlat() throws Exception {
+            var body = new MultipartImageStream(FIFTY_MB);
+            long baseline = usedHeapAfterGc();
+
+            var response = upload("/api/images", body);
+
+            assertEquals(201, response.statusCode(), response.body());
+            var hash = body.sha256();
+            assertTrue(response.body().contains("\"hash\":\"" + hash + "\""), response.body());
+
+            var stored = imageStore.resolve(hash).orElseThrow();
+            assertEquals(FIFTY_MB, Files.size(stored));
+            try (var incoming = Files.list(directory.resolve("incoming"))) {
+                assertEquals(0, incoming.count(), "Temporary upload files should be moved or removed");
+            }
+
+            long growth = body.peakHeap - baseline;
+            log.info("50 MB upload: peak retained heap growth {} KB", growth / 1024);
+            assertTrue(growth < 16L * 1024 * 1024, "Upload should not be buffered in the heap, grew " + growth + " bytes");
+        }
+
+        @Test
+        @DisplayName("Should attach the uploaded image to the item")
+        void shouldAttachTheUploadedImageToTheItem() throws Exception {
+            var body = new MultipartImageStream(64 * 1024);
+
+            var response = upload("/api/images?itemId=7", body);
+
+            assertEquals(201, response.statusCode(), response.body());
+            verify(itemService).attachImage(7L, body.sha256());
+        }
+
+        @Test
+        @DisplayName("Should reject requests that are not multipart")
+        void shouldRejectRequestsThatAreNotMultipart() throws Exception {
+            var request = HttpRequest.newBuilder(uri("/api/images"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                    .build();
+
+            var response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(415, response.statusCode());
+            verifyNoInteractions(itemService);
+        }
+    }
+
+    @Nested
+    @DisplayName("ImageStore.receive() tests")
+    class ReceiveTests {
+
+        @Test
+        @DisplayName("Should stop receiving as soon as the size limit is exceeded")
+        void shouldStopReceivingWhenTheSizeLimitIsExceeded() throws Exception {
+            var smallStore = new ImageStore(directory.toString(), 1024 * 1024);
+            var source = writeFile("big.png", 2 * 1024 * 1024, PNG_SIGNATURE);
+
+            var cause = assertThrows(ExecutionException.class, () -> receive(smallStore, source)).getCause();
+
+            assertInstanceOf(ImageTooLargeException.class, cause);
+            assertNoIncomingFilesLeft();
+        }
+
+        @Test
+        @DisplayName("Should reject content whose first bytes are not a supported image")
+        void shouldRejectContentThatIsNotAnImage() throws Exception {
+            var source = writeFile("fake.png", 4096, "<html><script>".getBytes(StandardCharsets.US_ASCII));
+
+            var cause = assertThrows(ExecutionException.class, () -> receive(imageStore, source)).getCause();
+
+            assertInstanceOf(InvalidImageException.class, cause);
+            assertNoIncomingFilesLeft();
+        }
+
+        private ImageStore.StoredImage receive(ImageStore store, Path source) throws Exception {
+            return vertx.fileSystem().open(source.toString(), new OpenOptions().setRead(true))
+                    .compose(file -> store.receive(vertx, file))
+                    .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+
+        private Path writeFile(String name, int size, byte[] header) throws Exception {
+            var content = new byte[size];
+            System.arraycopy(header, 0, content, 0, header.length);
+            var path = Files.createTempFile(name, null);
+            Files.write(path, content);
+            return path;
+        }
+
+        private void assertNoIncomingFilesLeft() throws Exception {
+            try (var incoming = Files.list(directory.resolve("incoming"))) {
+                assertEquals(0, incoming.count());
+            }
+        }
+    }
+
+    private HttpResponse<String> upload(String path, MultipartImageStream body) throws Exception {
+        var request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body))
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.actualPort() + path);
+    }
+
+    private static long usedHeapAfterGc() {
+        var runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Gera o corpo multipart sob demanda (assinatura PNG seguida de zeros), sem manter o arquivo
+     * em memória, e mede a heap retida a cada 5 MB enviados.
+     */
+    private static final class MultipartImageStream extends InputStream {
+
+        private static final long SAMPLE_EVERY = 5L * 1024 * 1024;
+
+        private final byte[] preamble = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"artwork.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        private final byte[] epilogue = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        private final long fileSize;
+        private final MessageDigest digest;
+
+        private long position;
+        private long nextSample = SAMPLE_EVERY;
+        private long peakHeap;
+
+        private MultipartImageStream(long fileSize) throws Exception {
+            this.fileSize = fileSize;
+            this.digest = MessageDigest.getInstance("SHA-256");
+        }
+
+        @Override
+        public int read() {
+            var single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            long total = preamble.length + fileSize + epilogue.length;
+            if (position >= total) {
+                return -1;
+            }
+
+            int count = (int) Math.min(length, total - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = byteAt(position + i);
+            }
+
+            long fileStart = Math.max(position, preamble.length) - preamble.length;
+            long fileEnd = Math.min(position + count, preamble.length + fileSize) - preamble.length;
+            if (fileEnd > fileStart) {
+                digest.update(buffer, offset + (int) (fileStart + preamble.length - position), (int) (fileEnd - fileStart));
+            }
+
+            position += count;
+            if (position >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                peakHeap = Math.max(peakHeap, usedHeapAfterGc());
+            }
+            return count;
+        }
+
+        private byte byteAt(long index) {
+            if (index < preamble.length) {
+                return preamble[(int) index];
+            }
+            long fileIndex = index - preamble.length;
+            if (fileIndex < fileSize) {
+                return fileIndex < PNG_SIGNATURE.length ? PNG_SIGNATURE[(int) fileIndex] : 0;
+            }
+            return epilogue[(int) (fileIndex - fileSize)];
+        }
+
+        private String sha256() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
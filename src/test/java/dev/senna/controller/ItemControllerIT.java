@@ -3,15 +3,21 @@ package dev.senna.controller;
 import dev.senna.controller.dto.request.AddItemRequestDto;
 import dev.senna.controller.dto.request.AssignOrderToItemRequestDto;
 import dev.senna.controller.dto.request.UpdateItemRequestDto;
+import dev.senna.infra.JwtService;
 import dev.senna.model.entity.ClientEntity;
 import dev.senna.model.entity.ItemEntity;
 import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.entity.UserEntity;
 import dev.senna.model.enums.ItemStatus;
 import dev.senna.model.enums.Material;
+import dev.senna.model.enums.UserRole;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
@@ -21,12 +27,23 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+@QuarkusTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class ItemControllerIT {
 
+    // PNG 1x1 em data URI: o ImageStore só aceita hash já armazenado, data URI ou Base64 de imagem
+    private static final String PNG_DATA_URI = "data:image/png;base64,"
+            + "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAIAAACQd1PeAAAADElEQVR4nGP4//8/AAX+Av4N70a4AAAAAElFTkSuQmCC";
+
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    JwtService jwtService;
+
     private Long existingOrderId;
     private Long existingItemId;
 
@@ -39,7 +56,6 @@ class ItemControllerIT {
         entityManager.createQuery("DELETE FROM ClientEntity").executeUpdate();
 
         ClientEntity client = new ClientEntity();
-        client.setClientId(UUID.randomUUID());
         client.setClientName("CLIENT_NAME");
         entityManager.persist(client);
 
@@ -61,171 +77,273 @@ class ItemControllerIT {
     }
 
     @Test
-    @DisplayName("POST /item - Deve criar um item com sucesso sem um pedido associado")
+    @DisplayName("POST /api/item - Deve criar um item com sucesso sem um pedido associado")
     void createItem_Success_WithoutOrder() {
-        var requestDto = new AddItemRequestDto("ITEM_WITHOUT_ORDER", 500, Material.ELETROSTATICO, "new.jpg", null);
+        var requestDto = new AddItemRequestDto("ITEM_WITHOUT_ORDER", 500, Material.ELETROSTATICO, PNG_DATA_URI, null);
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .body(requestDto)
                 .when()
-                .post("/item")
+                .post("/api/item")
                 .then()
                 .statusCode(201)
                 .header("Location", containsString("/item"));
     }
 
     @Test
-    @DisplayName("POST /item - Deve criar um item com sucesso associado a um pedido existente")
+    @DisplayName("POST /api/item - Deve criar um item com sucesso associado a um pedido existente")
     void createItem_Success_WithExistingOrder() {
-        var requestDto = new AddItemRequestDto("ITEM_WITH_ORDER_ASSOCIATED", 2000, Material.BRANCO_FOSCO, "paper.jpg", existingOrderId);
+        var requestDto = new AddItemRequestDto("ITEM_WITH_ORDER_ASSOCIATED", 2000, Material.BRANCO_FOSCO, PNG_DATA_URI, existingOrderId);
 
-        String newItemIdStr = given()
+        String location = given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .body(requestDto)
                 .when()
-                .post("/item")
+                .post("/api/item")
                 .then()
                 .statusCode(201)
                 .extract()
-                .body()
-                .asString();
-
-        ItemEntity createdItem = entityManager.find(ItemEntity.class, Long.parseLong(newItemIdStr));
-        assertNotNull(createdItem);
-        assertNotNull(createdItem.getOrder());
-        assertEquals(existingOrderId, createdItem.getOrder().getId());
+                .header("Location");
+
+        long newItemId = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+        Long orderId = QuarkusTransaction.requiringNew().call(() -> {
+            ItemEntity createdItem = entityManager.find(ItemEntity.class, newItemId);
+            assertNotNull(createdItem);
+            assertNotNull(createdItem.getOrder());
+            return createdItem.getOrder().getId();
+        });
+        assertEquals(existingOrderId, orderId);
     }
 
     @Test
-    @DisplayName("POST /item - Should fail when trying to create an item associated to an inexistent order")
+    @DisplayName("POST /api/item - Should fail when trying to create an item associated to an inexistent order")
     void createItem_Fail_WithNonExistentOrder() {
         long nonExistentOrderId = 999L;
-        var requestDto = new AddItemRequestDto("ITEM_WITH_ORDER_INEXISTENT", 200, Material.LONA, "IMG_URL", nonExistentOrderId);
+        var requestDto = new AddItemRequestDto("ITEM_WITH_ORDER_INEXISTENT", 200, Material.LONA, PNG_DATA_URI, nonExistentOrderId);
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .body(requestDto)
                 .when()
-                .post("/item")
+                .post("/api/item")
                 .then()
                 .statusCode(404);
     }
 
     @Test
-    @DisplayName("POST /item - Should fail to validation violetion (blank name)")
+    @DisplayName("POST /api/item - Should fail to validation violetion (blank name)")
     void createItem_Fail_Validation() {
-        var requestDto = new AddItemRequestDto("", 50, Material.ADESIVO, "IMG_URL", null); // Nome em branco
+        var requestDto = new AddItemRequestDto("", 50, Material.ADESIVO, PNG_DATA_URI, null); // Nome em branco
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .body(requestDto)
                 .when()
-                .post("/item")
+                .post("/api/item")
                 .then()
                 .statusCode(400);
     }
 
     @Test
-    @DisplayName("PUT /item/{itemId}/order - Should associate an item to an order")
+    @DisplayName("GET /api/item/{itemId} - Should load the item projection with a single SQL statement")
+    void findItemById_SingleStatement() {
+        SqlStatementBudget.of(sessionFactory).atMost(1, () -> given()
+                .header("Authorization", "Bearer " + adminToken())
+                .pathParam("itemId", existingItemId)
+                .when()
+                .get("/api/item/{itemId}")
+                .then()
+                .statusCode(200)
+                .header("ETag", equalTo("\"0\""))
+                .body("id", equalTo(existingItemId.intValue()))
+                .body("orderId", nullValue()));
+
+        // Projeção direta: nenhuma entidade é carregada no caminho
+        assertEquals(0, sessionFactory.getStatistics().getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("GET /api/item/search - Should read items with their order id in a single statement")
+    void searchItemByStatus_StatementBudget() {
+        assignedItems(5);
+
+        SqlStatementBudget.of(sessionFactory).atMost(1, () -> given()
+                .header("Authorization", "Bearer " + adminToken())
+                .queryParam("status", ItemStatus.IMPRESSO.name())
+                .when()
+                .get("/api/item/search")
+                .then()
+                .statusCode(200)
+                .body("items", hasSize(6)));
+    }
+
+    @Test
+    @DisplayName("GET /api/item/unassigned - Should list unassigned items in a single statement")
+    void listUnassignedItems_StatementBudget() {
+        assignedItems(5);
+
+        SqlStatementBudget.of(sessionFactory).atMost(1, () -> given()
+                .header("Authorization", "Bearer " + adminToken())
+                .when()
+                .get("/api/item/unassigned")
+                .then()
+                .statusCode(200)
+                .body("items", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/item/{itemId}/order - Should associate an item to an order")
     void assignOrder_Success() {
         var requestDto = new AssignOrderToItemRequestDto(existingOrderId);
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .pathParam("itemId", existingItemId)
                 .body(requestDto)
                 .when()
-                .put("/item/{itemId}/order")
+                .patch("/api/item/{itemId}/order")
                 .then()
-                .statusCode(200);
+                .statusCode(204);
     }
 
     @Test
-    @DisplayName("PUT /item/{itemId}/order - Should fail when trying to associate an item with id invalid")
+    @DisplayName("PATCH /api/item/{itemId}/order - Should fail when trying to associate an item with id invalid")
     void assignOrder_Fail_ItemNotFound() {
         long nonExistentItemId = 999L;
         var requestDto = new AssignOrderToItemRequestDto(existingOrderId);
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .pathParam("itemId", nonExistentItemId)
                 .body(requestDto)
                 .when()
-                .put("/item/{itemId}/order")
+                .patch("/api/item/{itemId}/order")
                 .then()
                 .statusCode(404);
     }
 
     @Test
-    @DisplayName("PUT /item/{itemId} - Should update an item")
+    @DisplayName("PATCH /api/item/{itemId} - Should update an item")
     void updateItem_Success() {
         var updateDto = new UpdateItemRequestDto("Nome Atualizado", null, 250, null, null, ItemStatus.EMBALADO, existingOrderId);
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .pathParam("itemId", existingItemId)
                 .body(updateDto)
                 .when()
-                .put("/item/{itemId}")
+                .patch("/api/item/{itemId}")
                 .then()
-                .statusCode(200);
+                .statusCode(204)
+                .header("ETag", equalTo("\"1\""));
 
-        ItemEntity updatedItem = entityManager.find(ItemEntity.class, existingItemId);
+        ItemEntity updatedItem = QuarkusTransaction.requiringNew().call(() -> entityManager.find(ItemEntity.class, existingItemId));
         assertEquals("Nome Atualizado", updatedItem.getName());
         assertEquals(250, updatedItem.getSaleQuantity());
         assertEquals(ItemStatus.EMBALADO, updatedItem.getStatus());
     }
 
     @Test
-    @DisplayName("PUT /item/{itemId} - Should fail if no field were given")
+    @DisplayName("PATCH /api/item/{itemId} - Should fail if no field were given")
     void updateItem_Fail_NoFieldsToUpdate() {
 
         var updateDto = new UpdateItemRequestDto(null, null, null, null, null, null, existingOrderId);
 
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .contentType(ContentType.JSON)
                 .pathParam("itemId", existingItemId)
                 .body(updateDto)
                 .when()
-                .put("/item/{itemId}")
+                .patch("/api/item/{itemId}")
                 .then()
                 .statusCode(400);
     }
 
     @Test
-    @DisplayName("GET /item/search - Should find items that match the status")
+    @DisplayName("GET /api/item/search - Should find items that match the status")
     void searchItemByStatus_Success() {
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .queryParam("status", ItemStatus.IMPRESSO.name())
                 .when()
-                .get("/item/search")
+                .get("/api/item/search")
                 .then()
                 .statusCode(200)
-                .body("$", hasSize(1))
-                .body("[0].name", equalTo("Item de Teste Inicial"));
+                .body("items", hasSize(1))
+                .body("items[0].name", equalTo("ITEM_NAME"))
+                .body("nextCursor", nullValue());
     }
 
     @Test
-    @DisplayName("GET /item/search - Should return an empty list to a status without items")
+    @DisplayName("GET /api/item/search - Should return an empty list to a status without items")
     void searchItemByStatus_Success_NoResults() {
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .queryParam("status", ItemStatus.EMBALADO.name())
                 .when()
-                .get("/item/search")
+                .get("/api/item/search")
                 .then()
                 .statusCode(200)
-                .body("$", hasSize(0));
+                .body("items", hasSize(0));
     }
 
     @Test
-    @DisplayName("GET /item/search - Should fail when status not given")
+    @DisplayName("GET /api/item/search - Should stream every matching item as a JSON array")
+    void searchItemByStatus_Success_Stream() {
+        assignedItems(2);
+
+        given()
+                .header("Authorization", "Bearer " + adminToken())
+                .queryParam("status", ItemStatus.IMPRESSO.name())
+                .queryParam("stream", true)
+                .when()
+                .get("/api/item/search")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("$", hasSize(3))
+                .body("[0].id", equalTo(existingItemId.intValue()))
+                .body("[0].orderId", nullValue())
+                .body("findAll { it.orderId != null }.orderId", everyItem(equalTo(existingOrderId.intValue())));
+    }
+
+    @Test
+    @DisplayName("GET /api/item/search - Should fail when status not given")
     void searchItemByStatus_Fail_NullStatus() {
         given()
+                .header("Authorization", "Bearer " + adminToken())
                 .when()
-                .get("/item/search")
+                .get("/api/item/search")
                 .then()
                 .statusCode(400);
     }
 
-}
\ No newline at end of file
+    private void assignedItems(int count) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            var order = entityManager.find(OrderEntity.class, existingOrderId);
+            for (int i = 0; i < count; i++) {
+                var item = new ItemEntity();
+                item.setName("ASSIGNED_ITEM");
+                item.setSaleQuantity(100);
+                item.setMaterial(Material.LONA);
+                item.setImage("IMG_URL");
+                item.setStatus(ItemStatus.IMPRESSO);
+                item.setOrder(order);
+                entityManager.persist(item);
+            }
+        });
+    }
+
+    private String adminToken() {
+        return jwtService.generateAccessToken(new UserEntity(UUID.randomUUID(), "budget", "", UserRole.ADMIN));
+    }
+}
@@ -3,19 +3,25 @@ package dev.senna.controller;
 import dev.senna.controller.dto.request.CreateOrderReqDto;
 import dev.senna.controller.dto.request.UpdateOrderReqDto;
 import dev.senna.exception.OrderServiceException;
+import dev.senna.infra.JwtService;
 import dev.senna.model.entity.ClientEntity;
 import dev.senna.model.entity.ItemEntity;
 import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.entity.UserEntity;
+import dev.senna.model.enums.ItemStatus;
 import dev.senna.model.enums.Material;
 import dev.senna.model.enums.OrderStatus;
+import dev.senna.model.enums.UserRole;
 import dev.senna.repository.ClientRepository;
 import dev.senna.repository.ItemRepository;
 import dev.senna.repository.OrderRepository;
 import dev.senna.service.OrderService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -46,6 +52,12 @@ class OrderControllerIT {
     @Inject
     OrderService orderService;
 
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    JwtService jwtService;
+
     private ClientEntity testClient;
 
     private OrderEntity testOrder;
@@ -465,4 +477,87 @@ class OrderControllerIT {
                     .statusCode(500);
         }
     }
+
+    @Nested
+    @DisplayName("SQL statement budgets of the list endpoints")
+    class statementBudgetTests {
+
+        // Pedidos criados aqui, além do pedido em produção do setUp
+        private static final int PRODUCTION_ORDERS = 5;
+        private static final int POSTED_ORDERS = 5;
+        private static final int ITEMS_PER_ORDER = 2;
+
+        private String token;
+
+        @BeforeEach
+        void seedOrders() {
+            QuarkusTransaction.requiringNew().run(() -> {
+                var client = clientRepository.findById(testClient.getClientId());
+                for (int i = 0; i < PRODUCTION_ORDERS + POSTED_ORDERS; i++) {
+                    var posted = i >= PRODUCTION_ORDERS;
+
+                    var order = new OrderEntity(posted ? OrderStatus.POSTADO : OrderStatus.PRODUCAO);
+                    order.setClient(client);
+                    order.setSaleDate(LocalDate.now().minusDays(i));
+                    order.setDeliveryDate(LocalDate.now().plusDays(i));
+                    order.setPostedDate(posted ? LocalDate.now() : null);
+                    orderRepository.persist(order);
+
+                    for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                        var item = new ItemEntity();
+                        item.setName("BUDGET_ITEM");
+                        item.setSaleQuantity(100);
+                        item.setMaterial(Material.LONA);
+                        item.setImage("IMG_URL");
+                        item.setStatus(ItemStatus.IMPRESSO);
+                        item.setOrder(order);
+                        itemRepository.persist(item);
+                    }
+                }
+            });
+
+            token = jwtService.generateAccessToken(new UserEntity(UUID.randomUUID(), "budget", "", UserRole.ADMIN));
+        }
+
+        private void getOk(String path) {
+            given()
+                    .header("Authorization", "Bearer " + token)
+                    .queryParam("pageSize", 20)
+                    .when()
+                    .get(path)
+                    .then()
+                    .statusCode(200);
+        }
+
+        @Test
+        @DisplayName("GET /api/order should load orders and clients in a single statement")
+        void listOrdersBudget() {
+            SqlStatementBudget.of(sessionFactory).atMost(1, () -> getOk("/api/order"));
+        }
+
+        // Ids da página e depois pedidos com cliente e itens: duas consultas, qualquer que seja o tamanho da página
+        @Test
+        @DisplayName("GET /api/order/production should load a page of orders with two statements")
+        void listProductionBudget() {
+            SqlStatementBudget.of(sessionFactory).atMost(2, () -> getOk("/api/order/production"));
+        }
+
+        @Test
+        @DisplayName("GET /api/order/last-send-orders should load a page of orders with two statements")
+        void listLastSendOrdersBudget() {
+            SqlStatementBudget.of(sessionFactory).atMost(2, () -> getOk("/api/order/last-send-orders"));
+        }
+
+        @Test
+        @DisplayName("GET /api/order/recent-orders should load the recent orders with two statements")
+        void listRecentOrdersBudget() {
+            SqlStatementBudget.of(sessionFactory).atMost(2, () -> getOk("/api/order/recent-orders"));
+        }
+
+        @Test
+        @DisplayName("GET /api/order/statistics should run one count per status")
+        void orderStatisticsBudget() {
+            SqlStatementBudget.of(sessionFactory).atMost(3, () -> getOk("/api/order/statistics"));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package dev.senna.controller;
+
+import dev.senna.profile.PostgresTestProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.DisplayName;
+
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+@DisplayName("Controllers on the worker pool (platform threads)")
+class PlatformThreadBenchmarkIT extends ControllerThreadingBenchmark {
+
+    @Override
+    String mode() {
+        return "platform threads";
+    }
+}
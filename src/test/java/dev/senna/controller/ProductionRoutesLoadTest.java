@@ -0,0 +1,151 @@
+package dev.senna.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.service.ProductionBoardService;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Carga nas rotas do quadro de produção: o mesmo handler servido no event loop e despachado para
+ * o pool de workers (como o RESTEasy Classic faz com todo endpoint). Vazão e threads usadas saem
+ * no log; a asserção só garante que o event loop não cria threads por requisição concorrente.
+ */
+class ProductionRoutesLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionRoutesLoadTest.class);
+
+    private static final int REQUESTS = 4_000;
+    private static final int CONCURRENCY = 64;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient client;
+    private final Set<String> handlerThreads = ConcurrentHashMap.newKeySet();
+    private ProductionBoardService board;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+
+        var items = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> new ListItemProductionLineResponse(id, "ITEM " + id, 100, 100, Material.LONA,
+                        "IMG", ItemStatus.IMPRESSO, 1L))
+                .toList();
+        board = mock(ProductionBoardService.class);
+        when(board.listItems(anyInt(), anyInt())).thenAnswer(invocation -> {
+            handlerThreads.add(Thread.currentThread().getName());
+            return items;
+        });
+        when(board.tryRead(any())).thenAnswer(invocation -> Optional.of(invocation.<Supplier<?>>getArgument(0).get()));
+
+        var routes = new ProductionRoutes();
+        routes.productionBoardService = board;
+        routes.objectMapper = new ObjectMapper();
+
+        var router = Router.router(vertx);
+        routes.registerRoutes(router);
+        router.get("/blocking/production/items").blockingHandler(routes::listItems, false);
+        server = vertx.createHttpServer().requestHandler(router).listen(0)
+                .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Event loop route should serve the board without borrowing worker threads")
+    void shouldServeBoardOnEventLoop() throws Exception {
+        // Aquecimento do JIT e das conexões antes de medir
+        load("/api/production/items", 500);
+        load("/blocking/production/items", 500);
+
+        handlerThreads.clear();
+        var eventLoop = load("/api/production/items", REQUESTS);
+        var eventLoopThreads = Set.copyOf(handlerThreads);
+
+        handlerThreads.clear();
+        var blocking = load("/blocking/production/items", REQUESTS);
+        var workerThreads = Set.copyOf(handlerThreads);
+
+        log.info("event loop: {} req/s on {} threads", eventLoop, eventLoopThreads.size());
+        log.info("worker pool: {} req/s on {} threads", blocking, workerThreads.size());
+
+        assertTrue(eventLoopThreads.stream().allMatch(name -> name.startsWith("vert.x-eventloop-thread")), eventLoopThreads.toString());
+        assertTrue(workerThreads.stream().allMatch(name -> name.startsWith("vert.x-worker-thread")), workerThreads.toString());
+        assertTrue(eventLoopThreads.size() <= Runtime.getRuntime().availableProcessors() * 2, eventLoopThreads.toString());
+    }
+
+    @Test
+    @DisplayName("Should hand the read to a worker while a writer holds the board lock")
+    void shouldNotWaitForTheLockOnEventLoop() throws Exception {
+        when(board.tryRead(any())).thenReturn(Optional.empty());
+
+        handlerThreads.clear();
+        var response = get("/api/production/items");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("ITEM 1"), response.body());
+        assertTrue(handlerThreads.stream().allMatch(name -> name.startsWith("vert.x-worker-thread")), handlerThreads.toString());
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for a non numeric page and 404 for an unknown stage")
+    void shouldRejectInvalidParameters() throws Exception {
+        assertEquals(400, get("/api/production/items?page=abc").statusCode());
+        assertEquals(404, get("/api/production/stages/NOPE/next").statusCode());
+    }
+
+    // Dispara as requisições com no máximo CONCURRENCY em voo e devolve a vazão em req/s
+    private long load(String path, int requests) throws Exception {
+        var inFlight = new Semaphore(CONCURRENCY);
+        var uri = URI.create("http://localhost:" + server.actualPort() + path);
+        var futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            futures[i] = client.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> inFlight.release())
+                    .thenAccept(response -> assertEquals(200, response.statusCode()));
+        }
+        CompletableFuture.allOf(futures).get(60, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        return requests * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        var uri = URI.create("http://localhost:" + server.actualPort() + path);
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
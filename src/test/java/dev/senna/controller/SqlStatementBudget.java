@@ -0,0 +1,77 @@
+package dev.senna.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Orçamento de comandos SQL por requisição, medido pelas estatísticas do Hibernate. Uma listagem
+ * que passa a carregar o cliente ou os itens de cada linha separadamente (N+1) estoura o orçamento
+ * e o teste falha listando as consultas e os carregamentos preguiçosos que aconteceram.
+ * <p>
+ * As estatísticas são globais da SessionFactory: a contagem inclui tudo o que o servidor executou
+ * durante a chamada, em qualquer thread.
+ */
+final class SqlStatementBudget {
+
+    private final Statistics statistics;
+
+    private SqlStatementBudget(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    static SqlStatementBudget of(SessionFactory sessionFactory) {
+        var statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return new SqlStatementBudget(statistics);
+    }
+
+    <T> T atMost(long maxStatements, Supplier<T> request) {
+        statistics.clear();
+
+        var result = request.get();
+
+        long executed = statistics.getPrepareStatementCount();
+        if (executed > maxStatements) {
+            fail("Expected at most " + maxStatements + " SQL statements but " + executed + " were executed"
+                    + System.lineSeparator() + describe());
+        }
+        return result;
+    }
+
+    void atMost(long maxStatements, Runnable request) {
+        atMost(maxStatements, () -> {
+            request.run();
+            return null;
+        });
+    }
+
+    // O que rodou desde o clear(): consultas HQL com a quantidade de execuções e os lazy loads
+    private String describe() {
+        var details = new StringBuilder();
+
+        for (var query : statistics.getQueries()) {
+            long executions = statistics.getQueryStatistics(query).getExecutionCount();
+            if (executions > 0) {
+                details.append("  ").append(executions).append("x ").append(query).append(System.lineSeparator());
+            }
+        }
+        for (var role : statistics.getCollectionRoleNames()) {
+            long fetches = statistics.getCollectionStatistics(role).getFetchCount();
+            if (fetches > 0) {
+                details.append("  ").append(fetches).append(" lazy loads of ").append(role).append(System.lineSeparator());
+            }
+        }
+        for (var entity : statistics.getEntityNames()) {
+            long fetches = statistics.getEntityStatistics(entity).getFetchCount();
+            if (fetches > 0) {
+                details.append("  ").append(fetches).append(" lazy loads of ").append(entity).append(System.lineSeparator());
+            }
+        }
+
+        return details.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package dev.senna.controller;
+
+import dev.senna.profile.VirtualThreadsTestProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+@QuarkusTest
+@TestProfile(VirtualThreadsTestProfile.class)
+@EnabledForJreRange(min = JRE.JAVA_21)
+@DisplayName("Controllers on virtual threads")
+class VirtualThreadBenchmarkIT extends ControllerThreadingBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual threads";
+    }
+}
@@ -0,0 +1,58 @@
+package dev.senna.infra;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AfterCommitTest {
+
+    @InjectMocks
+    private AfterCommit afterCommit;
+
+    @Mock
+    private TransactionSynchronizationRegistry txRegistry;
+
+    @Test
+    @DisplayName("Should apply the change right away when there is no transaction")
+    void shouldApplyRightAwayWithoutTransaction() {
+        var applied = new AtomicInteger();
+        when(txRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+        afterCommit.run(applied::incrementAndGet);
+
+        assertEquals(1, applied.get());
+        verify(txRegistry, never()).registerInterposedSynchronization(any());
+    }
+
+    @Test
+    @DisplayName("Should apply the change only when the transaction commits")
+    void shouldApplyOnlyOnCommit() {
+        var applied = new AtomicInteger();
+        when(txRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        var synchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        afterCommit.run(applied::incrementAndGet);
+        afterCommit.run(applied::incrementAndGet);
+
+        verify(txRegistry, times(2)).registerInterposedSynchronization(synchronization.capture());
+        assertEquals(0, applied.get());
+
+        synchronization.getAllValues().get(0).afterCompletion(Status.STATUS_ROLLEDBACK);
+        synchronization.getAllValues().get(1).afterCompletion(Status.STATUS_COMMITTED);
+
+        assertEquals(1, applied.get());
+    }
+}
@@ -0,0 +1,117 @@
+package dev.senna.infra;
+
+import dev.senna.controller.dto.response.ClientResDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientNameIndexTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientNameIndexTest.class);
+
+    private final UUID grafica = UUID.randomUUID();
+    private final UUID joana = UUID.randomUUID();
+    private final UUID acme = UUID.randomUUID();
+
+    private ClientNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientNameIndex();
+        index.load(List.of(
+                new ClientResDto(grafica, "Gráfica São João"),
+                new ClientResDto(joana, "JOANA  Ávila"),
+                new ClientResDto(acme, "Acme Adesivos")
+        ));
+    }
+
+    @Nested
+    @DisplayName("search() tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should match ignoring accents, case and extra spaces")
+        void shouldMatchIgnoringAccentsCaseAndSpaces() {
+            assertEquals(List.of(new ClientResDto(grafica, "Gráfica São João")), index.search("GRAFICA  sao", 10));
+            assertEquals(List.of(new ClientResDto(joana, "JOANA  Ávila")), index.search("joana a", 10));
+        }
+
+        @Test
+        @DisplayName("Should match the beginning of any word once per client")
+        void shouldMatchTheBeginningOfAnyWord() {
+            var result = index.search("jo", 10);
+
+            assertEquals(List.of(joana, grafica), result.stream().map(ClientResDto::clientId).toList());
+        }
+
+        @Test
+        @DisplayName("Should respect the limit and ignore blank queries")
+        void shouldRespectTheLimitAndIgnoreBlankQueries() {
+            assertEquals(1, index.search("a", 1).size());
+            assertTrue(index.search("   ", 10).isEmpty());
+            assertTrue(index.search(null, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("put() and remove() tests")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Should replace the keys of a renamed client")
+        void shouldReplaceTheKeysOfARenamedClient() {
+            index.put(acme, "Zeta Comunicação");
+
+            assertTrue(index.search("acme", 10).isEmpty());
+            assertEquals(List.of(new ClientResDto(acme, "Zeta Comunicação")), index.search("comunicacao", 10));
+            assertEquals(3, index.size());
+        }
+
+        @Test
+        @DisplayName("Should add and remove clients")
+        void shouldAddAndRemoveClients() {
+            var created = UUID.randomUUID();
+            index.put(created, "Acme Lonas");
+
+            assertEquals(List.of(acme, created), index.search("acme", 10).stream().map(ClientResDto::clientId).toList());
+
+            index.remove(acme);
+
+            assertEquals(List.of(created), index.search("acme", 10).stream().map(ClientResDto::clientId).toList());
+            assertEquals(3, index.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer prefix searches in microseconds over 100k clients")
+    void shouldAnswerPrefixSearchesInMicroseconds() {
+        var clients = new ArrayList<ClientResDto>();
+        for (int i = 0; i < 100_000; i++) {
+            clients.add(new ClientResDto(UUID.randomUUID(), "Cliente Número " + i + " Comunicação Visual"));
+        }
+        index.load(clients);
+
+        for (int i = 0; i < 10_000; i++) {
+            index.search("cliente numero " + (i % 1000), 10);
+        }
+
+        int searches = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            assertFalse(index.search("cliente numero " + (i % 1000), 10).isEmpty());
+        }
+        double perSearchMicros = (System.nanoTime() - start) / 1_000.0 / searches;
+
+        log.info("Client name index with {} clients - {} us per search", index.size(), perSearchMicros);
+        assertTrue(perSearchMicros < 100, "Search took " + perSearchMicros + " us");
+    }
+}
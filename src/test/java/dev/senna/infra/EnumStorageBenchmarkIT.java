@@ -0,0 +1,100 @@
+package dev.senna.infra;
+
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.profile.PostgresTestProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara o status do item gravado como varchar (antes da V3) e como smallint: tamanho da
+ * tabela, do índice (actual_status, id) e tempo de uma contagem por status. Os números saem
+ * no log; a asserção só garante a tendência.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class EnumStorageBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(EnumStorageBenchmarkIT.class);
+
+    private static final int ROWS = 500_000;
+    private static final int SCANS = 20;
+
+    @Inject
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_status_varchar");
+            statement.execute("DROP TABLE IF EXISTS bench_status_smallint");
+        }
+    }
+
+    @Test
+    @DisplayName("Smallint status codes should build a smaller status index than varchar names")
+    void shouldBuildSmallerIndexWithSmallintCodes() throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            var varchar = measure(connection, "bench_status_varchar", "VARCHAR(255)",
+                    "(ARRAY['IMPRESSO','ENCARTELADO','EM_SILK','CHAPADO','VERSO_PRONTO','ACABAMENTO','EMBALADO'])[1 + g % 7]",
+                    "'" + ItemStatus.EM_SILK.name() + "'");
+            var smallint = measure(connection, "bench_status_smallint", "SMALLINT",
+                    "(1 + g % 7)::smallint",
+                    String.valueOf(ItemStatus.EM_SILK.getCode()));
+
+            log.info("varchar : table {} kB, index {} kB, {} us per count", varchar.tableBytes() / 1024,
+                    varchar.indexBytes() / 1024, varchar.microsPerScan());
+            log.info("smallint: table {} kB, index {} kB, {} us per count", smallint.tableBytes() / 1024,
+                    smallint.indexBytes() / 1024, smallint.microsPerScan());
+
+            assertTrue(smallint.indexBytes() < varchar.indexBytes(),
+                    "smallint index (" + smallint.indexBytes() + " bytes) should be smaller than varchar ("
+                            + varchar.indexBytes() + " bytes)");
+        }
+    }
+
+    private Result measure(Connection connection, String table, String statusType, String statusExpression,
+                           String statusLiteral) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, actual_status " + statusType + " NOT NULL)");
+            statement.execute("INSERT INTO " + table + " SELECT g, " + statusExpression +
+                    " FROM generate_series(1, " + ROWS + ") g");
+            statement.execute("CREATE INDEX " + table + "_status ON " + table + " (actual_status, id)");
+            statement.execute("VACUUM ANALYZE " + table);
+
+            // Primeira execução só aquece o cache
+            statement.executeQuery("SELECT count(*) FROM " + table + " WHERE actual_status = " + statusLiteral).close();
+            long start = System.nanoTime();
+            for (int i = 0; i < SCANS; i++) {
+                statement.executeQuery("SELECT count(*) FROM " + table + " WHERE actual_status = " + statusLiteral).close();
+            }
+            long microsPerScan = (System.nanoTime() - start) / 1_000 / SCANS;
+
+            return new Result(size(connection, table), size(connection, table + "_status"), microsPerScan);
+        }
+    }
+
+    private static long size(Connection connection, String relation) throws SQLException {
+        try (var query = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            query.setString(1, relation);
+            try (var result = query.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private record Result(long tableBytes, long indexBytes, long microsPerScan) {
+    }
+}
@@ -0,0 +1,119 @@
+package dev.senna.infra;
+
+import dev.senna.exception.InvalidImageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageStoreTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path directory;
+
+    private ImageStore imageStore;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new ImageStore();
+        imageStore.directory = directory.toString();
+    }
+
+    @Nested
+    @DisplayName("store() tests")
+    class StoreTests {
+
+        @Test
+        @DisplayName("Should store the image under its SHA-256 and only once")
+        void shouldStoreTheImageUnderItsHashOnlyOnce() throws Exception {
+            var hash = imageStore.store(PNG);
+            var sameHash = imageStore.store(PNG.clone());
+
+            assertEquals(hash, sameHash);
+            assertTrue(ImageStore.isHash(hash));
+
+            var path = imageStore.resolve(hash).orElseThrow();
+            assertEquals(directory.resolve(hash.substring(0, 2)).resolve(hash), path);
+            assertArrayEquals(PNG, Files.readAllBytes(path));
+            try (var files = Files.list(path.getParent())) {
+                assertEquals(1, files.count(), "No temporary files should be left behind");
+            }
+        }
+
+        @Test
+        @DisplayName("Should list the Base64 prefix of every accepted image signature")
+        void shouldListTheBase64PrefixOfEveryAcceptedSignature() {
+            var webp = new byte[12];
+            System.arraycopy("RIFF".getBytes(), 0, webp, 0, 4);
+            System.arraycopy("WEBP".getBytes(), 0, webp, 8, 4);
+            var signatures = new byte[][]{PNG, {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}, "GIF89a".getBytes(), webp};
+
+            for (var signature : signatures) {
+                assertTrue(ImageStore.contentType(signature).isPresent());
+                var encoded = Base64.getEncoder().encodeToString(signature);
+                assertTrue(ImageStore.BASE64_SIGNATURES.stream().anyMatch(encoded::startsWith), encoded);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject content that is not a supported image")
+        void shouldRejectContentThatIsNotAnImage() {
+            assertThrows(InvalidImageException.class, () -> imageStore.store("<svg onload=alert(1)>".getBytes()));
+        }
+    }
+
+    @Nested
+    @DisplayName("storeEncoded() tests")
+    class StoreEncodedTests {
+
+        @Test
+        @DisplayName("Should accept Base64, data URI and already stored hashes")
+        void shouldAcceptBase64DataUriAndStoredHashes() {
+            var base64 = Base64.getEncoder().encodeToString(PNG);
+
+            var hash = imageStore.storeEncoded(base64);
+
+            assertEquals(hash, imageStore.storeEncoded("data:image/png;base64," + base64));
+            assertEquals(hash, imageStore.storeEncoded(hash));
+        }
+
+        @Test
+        @DisplayName("Should reject unknown hashes and invalid payloads")
+        void shouldRejectUnknownHashesAndInvalidPayloads() {
+            var unknownHash = "a".repeat(64);
+
+            assertThrows(InvalidImageException.class, () -> imageStore.storeEncoded(unknownHash));
+            assertThrows(InvalidImageException.class, () -> imageStore.storeEncoded("IMG_URL"));
+        }
+    }
+
+    @Nested
+    @DisplayName("contentType() tests")
+    class ContentTypeTests {
+
+        @Test
+        @DisplayName("Should detect the content type from the file header")
+        void shouldDetectTheContentTypeFromTheFileHeader() throws Exception {
+            var jpeg = Arrays.copyOf(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}, 32);
+
+            assertEquals("image/png", imageStore.contentType(imageStore.resolve(imageStore.store(PNG)).orElseThrow()));
+            assertEquals("image/jpeg", imageStore.contentType(imageStore.resolve(imageStore.store(jpeg)).orElseThrow()));
+        }
+
+        @Test
+        @DisplayName("Should not resolve values that are not hashes")
+        void shouldNotResolveValuesThatAreNotHashes() {
+            assertTrue(imageStore.resolve("../../etc/passwd").isEmpty());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dev.senna.infra;
+
+import dev.senna.model.enums.OrderStatus;
+import dev.senna.profile.PostgresTestProfile;
+import dev.senna.repository.OrderRepository;
+import dev.senna.service.OrderService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Page;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latência de {@code listProduction} por tamanho de página: a carga antiga (página de pedidos e
+ * cliente/itens preguiçosos por pedido) contra ids paginados mais uma consulta com JOIN FETCH.
+ * Os números saem no log; a asserção só garante que a nova carga não cresce com a página.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class OrderListFetchBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderListFetchBenchmarkIT.class);
+
+    private static final int ORDERS = 100;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int CLIENTS = 20;
+    private static final int[] PAGE_SIZES = {10, 25, 50, 100};
+    private static final int ROUNDS = 50;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    OrderService orderService;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                var clientId = UUID.randomUUID();
+                statement.execute("INSERT INTO tb_client (clientId, client_name, normalized_name) " +
+                        "VALUES ('" + clientId + "', 'FETCH CLIENT " + i + "', 'fetch client " + i + "')");
+                statement.execute("INSERT INTO tb_order (sale_date, delivery_date, client_id, order_status) " +
+                        "SELECT CURRENT_DATE, CURRENT_DATE + 10, '" + clientId + "', " + OrderStatus.PRODUCAO.getCode() +
+                        " FROM generate_series(1, " + ORDERS / CLIENTS + ")");
+            }
+            statement.execute("INSERT INTO tb_item (item_name, sale_quantity, material, actual_status, order_id, order_sale_date) " +
+                    "SELECT 'FETCH ITEM', 100, 1, 1, o.order_id, o.sale_date " +
+                    "FROM tb_order o JOIN tb_client c ON c.clientId = o.client_id " +
+                    "CROSS JOIN generate_series(1, " + ITEMS_PER_ORDER + ") " +
+                    "WHERE c.client_name LIKE 'FETCH CLIENT %'");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DELETE FROM tb_item WHERE item_name = 'FETCH ITEM'");
+            statement.execute("DELETE FROM tb_order WHERE client_id IN " +
+                    "(SELECT clientId FROM tb_client WHERE client_name LIKE 'FETCH CLIENT %')");
+            statement.execute("DELETE FROM tb_client WHERE client_name LIKE 'FETCH CLIENT %'");
+        }
+    }
+
+    @Test
+    @DisplayName("Production listing should run a fixed number of statements for any page size")
+    void shouldKeepStatementCountFlatAcrossPageSizes() {
+        var statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        for (int pageSize : PAGE_SIZES) {
+            // Aquecimento de cada caminho antes de medir
+            QuarkusTransaction.requiringNew().run(() -> lazyLoad(pageSize));
+            QuarkusTransaction.requiringNew().run(() -> orderService.listProduction(0, pageSize));
+
+            sessionFactory.getCache().evictAllRegions();
+            statistics.clear();
+            long lazyNanos = time(() -> lazyLoad(pageSize));
+            long lazyStatements = statistics.getPrepareStatementCount() / ROUNDS;
+
+            sessionFactory.getCache().evictAllRegions();
+            statistics.clear();
+            long fetchNanos = time(() -> orderService.listProduction(0, pageSize));
+            long fetchStatements = statistics.getPrepareStatementCount() / ROUNDS;
+
+            log.info("page {}: lazy {} us / {} statements, fetch plan {} us / {} statements", pageSize,
+                    lazyNanos / 1_000, lazyStatements, fetchNanos / 1_000, fetchStatements);
+
+            assertEquals(2, fetchStatements);
+            assertTrue(lazyStatements > fetchStatements);
+        }
+    }
+
+    // Carga de antes: página de pedidos e cliente/itens buscados um pedido por vez
+    private void lazyLoad(int pageSize) {
+        orderRepository.find("status", OrderStatus.PRODUCAO)
+                .page(Page.of(0, pageSize))
+                .list()
+                .forEach(order -> {
+                    order.getClient().getClientName();
+                    order.getItems().size();
+                });
+    }
+
+    // Latência média por chamada, cada uma em sua própria transação
+    private static long time(Runnable call) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            QuarkusTransaction.requiringNew().run(call);
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
@@ -0,0 +1,242 @@
+package dev.senna.infra;
+
+import dev.senna.profile.PostgresTestProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Confere o particionamento de tb_order no Postgres (V5 e V7): partições futuras, poda por
+ * sale_date, resgate de pedidos da partição default e itens acompanhando a data de venda do pedido.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class OrderPartitioningIT {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Longe da janela criada pelo OrderPartitionMaintainer: o pedido cai na default
+    private static final LocalDate FAR_SALE_DATE = LocalDate.now().plusYears(5);
+
+    @Inject
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DELETE FROM tb_item WHERE item_name = 'PARTITION ITEM'");
+            statement.execute("DELETE FROM tb_order WHERE client_id IN " +
+                    "(SELECT clientId FROM tb_client WHERE client_name = 'PARTITION CLIENT')");
+            statement.execute("DELETE FROM tb_client WHERE client_name = 'PARTITION CLIENT'");
+            // Partições além da janela do OrderPartitionMaintainer, criadas pelos testes de resgate
+            for (var month = LocalDate.now().withDayOfMonth(1).plusMonths(4); !month.isAfter(FAR_SALE_DATE); month = month.plusMonths(1)) {
+                statement.execute("DROP TABLE IF EXISTS tb_order_p" + month.format(SUFFIX));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep partitions created ahead of the current month and be idempotent")
+    void shouldCreatePartitionsAhead() throws SQLException {
+        var month = LocalDate.now().withDayOfMonth(1);
+
+        try (var connection = dataSource.getConnection()) {
+            for (int i = 0; i <= 3; i++) {
+                var suffix = month.plusMonths(i).format(SUFFIX);
+                assertTrue(exists(connection, "tb_order_p" + suffix), "missing tb_order_p" + suffix);
+            }
+
+            try (var statement = connection.createStatement();
+                 var result = statement.executeQuery("SELECT ensure_order_partitions(CURRENT_DATE, 3)")) {
+                result.next();
+                assertEquals(0, result.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should give tb_item a primary key on id")
+    void shouldKeepItemPrimaryKey() throws SQLException {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("SELECT string_agg(a.attname, ',') FROM pg_index i " +
+                     "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY (i.indkey) " +
+                     "WHERE i.indrelid = 'tb_item'::regclass AND i.indisprimary");
+             var result = statement.executeQuery()) {
+            assertTrue(result.next());
+            assertEquals("id", result.getString(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should move orders stuck in the default partition into a new monthly partition")
+    void shouldRescueOrdersFromTheDefaultPartition() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            var clientId = insertClient(statement);
+            long orderId = insertOrder(statement, FAR_SALE_DATE, clientId);
+            long itemId = insertItem(statement);
+            statement.execute("UPDATE tb_item SET order_id = " + orderId + ", order_sale_date = '" + FAR_SALE_DATE + "' " +
+                    "WHERE id = " + itemId);
+            assertEquals("tb_order_default", orderPartition(connection, orderId));
+
+            try (var result = statement.executeQuery("SELECT ensure_order_partitions(CURRENT_DATE, 3)")) {
+                result.next();
+                assertEquals(1, result.getInt(1));
+            }
+
+            assertEquals("tb_order_p" + FAR_SALE_DATE.format(SUFFIX), orderPartition(connection, orderId));
+            assertEquals(orderId, itemOrder(connection, itemId));
+
+            // A FK dos itens voltou: um item não pode apontar para um pedido inexistente
+            assertThrows(SQLException.class, () -> statement.execute("UPDATE tb_item SET order_id = -1 WHERE id = " + itemId));
+        }
+    }
+
+    @Test
+    @DisplayName("Should rescue default-partition orders before creating a window that reaches their month")
+    void shouldRescueBeforeCreatingTheWindow() throws SQLException {
+        int monthsAhead = (int) ChronoUnit.MONTHS.between(LocalDate.now().withDayOfMonth(1), FAR_SALE_DATE.withDayOfMonth(1));
+
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            var clientId = insertClient(statement);
+            long orderId = insertOrder(statement, FAR_SALE_DATE, clientId);
+            long itemId = insertItem(statement);
+            statement.execute("UPDATE tb_item SET order_id = " + orderId + ", order_sale_date = '" + FAR_SALE_DATE + "' " +
+                    "WHERE id = " + itemId);
+            assertEquals("tb_order_default", orderPartition(connection, orderId));
+
+            try (var result = statement.executeQuery("SELECT ensure_order_partitions(CURRENT_DATE, " + monthsAhead + ")")) {
+                assertTrue(result.next());
+            }
+
+            assertEquals("tb_order_p" + FAR_SALE_DATE.format(SUFFIX), orderPartition(connection, orderId));
+            assertEquals(orderId, itemOrder(connection, itemId));
+            assertEquals(FAR_SALE_DATE, itemSaleDate(connection, itemId));
+        }
+    }
+
+    @Test
+    @DisplayName("Should scan only the partition of the requested sale month")
+    void shouldPruneBySaleDate() throws SQLException {
+        var month = LocalDate.now().withDayOfMonth(1);
+
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("EXPLAIN SELECT count(*) FROM tb_order " +
+                     "WHERE sale_date >= ? AND sale_date < ?")) {
+            statement.setDate(1, Date.valueOf(month));
+            statement.setDate(2, Date.valueOf(month.plusMonths(1)));
+
+            var plan = new StringBuilder();
+            try (var result = statement.executeQuery()) {
+                while (result.next()) {
+                    plan.append(result.getString(1)).append('\n');
+                }
+            }
+
+            assertTrue(plan.toString().contains("tb_order_p" + month.format(SUFFIX)), plan.toString());
+            assertFalse(plan.toString().contains("tb_order_p" + month.plusMonths(1).format(SUFFIX)), plan.toString());
+            assertFalse(plan.toString().contains("tb_order_default"), plan.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should carry the order sale date to its items when it changes")
+    void shouldMoveItemsWithTheirOrder() throws SQLException {
+        var saleDate = LocalDate.now();
+        var nextMonth = saleDate.withDayOfMonth(1).plusMonths(1);
+
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            var clientId = insertClient(statement);
+            long orderId = insertOrder(statement, saleDate, clientId);
+            long itemId = insertItem(statement);
+
+            statement.execute("UPDATE tb_item SET order_id = " + orderId + ", " +
+                    "order_sale_date = (SELECT sale_date FROM tb_order WHERE order_id = " + orderId + ") " +
+                    "WHERE id = " + itemId);
+            assertEquals(saleDate, itemSaleDate(connection, itemId));
+
+            // Nova data de venda: o pedido troca de partição e o ON UPDATE CASCADE leva a data ao item
+            statement.execute("UPDATE tb_order SET sale_date = '" + nextMonth + "' WHERE order_id = " + orderId);
+            assertEquals("tb_order_p" + nextMonth.format(SUFFIX), orderPartition(connection, orderId));
+            assertEquals(nextMonth, itemSaleDate(connection, itemId));
+        }
+    }
+
+    private static UUID insertClient(Statement statement) throws SQLException {
+        var clientId = UUID.randomUUID();
+        statement.execute("INSERT INTO tb_client (clientId, client_name, normalized_name) " +
+                "VALUES ('" + clientId + "', 'PARTITION CLIENT', 'partition client')");
+        return clientId;
+    }
+
+    private static long insertOrder(Statement statement, LocalDate saleDate, UUID clientId) throws SQLException {
+        try (var result = statement.executeQuery("INSERT INTO tb_order " +
+                "(sale_date, delivery_date, client_id, order_status) " +
+                "VALUES ('" + saleDate + "', '" + saleDate.plusDays(40) + "', '" + clientId + "', 1) RETURNING order_id")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static long insertItem(Statement statement) throws SQLException {
+        try (var result = statement.executeQuery("INSERT INTO tb_item " +
+                "(item_name, sale_quantity, material, actual_status) VALUES ('PARTITION ITEM', 10, 1, 1) RETURNING id")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static boolean exists(Connection connection, String table) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, table);
+            try (var result = statement.executeQuery()) {
+                result.next();
+                return result.getBoolean(1);
+            }
+        }
+    }
+
+    private static String orderPartition(Connection connection, long orderId) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT tableoid::regclass::text FROM tb_order WHERE order_id = ?")) {
+            statement.setLong(1, orderId);
+            try (var result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static LocalDate itemSaleDate(Connection connection, long itemId) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT order_sale_date FROM tb_item WHERE id = ?")) {
+            statement.setLong(1, itemId);
+            try (var result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getDate(1).toLocalDate();
+            }
+        }
+    }
+
+    private static long itemOrder(Connection connection, long itemId) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT order_id FROM tb_item WHERE id = ?")) {
+            statement.setLong(1, itemId);
+            try (var result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package dev.senna.infra;
+
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.controller.dto.response.StageQueueItemResponseDto;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.model.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionBoardStoreTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionBoardStoreTest.class);
+
+    private ProductionBoardStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ProductionBoardStore();
+    }
+
+    @Nested
+    @DisplayName("item projection tests")
+    class ItemTests {
+
+        @Test
+        @DisplayName("Should keep items that are not packed and drop them once packed")
+        void shouldDropItemsOncePacked() {
+            store.upsertItem(1L, 0L, "ITEM_1", 100, 100, Material.LONA, "IMG", ItemStatus.IMPRESSO, null);
+            store.upsertItem(2L, 0L, "ITEM_2", null, 50, Material.ADESIVO, "IMG", ItemStatus.ACABAMENTO, null);
+
+            assertEquals(2, store.itemCount());
+
+            store.upsertItem(1L, 1L, "ITEM_1", 100, 100, Material.LONA, "IMG", ItemStatus.EMBALADO, null);
+
+            var items = store.listItems(0, 10);
+            assertEquals(1, items.size());
+            assertEquals(2L, items.getFirst().id());
+            assertNull(items.getFirst().quantity());
+            assertEquals(Material.ADESIVO, items.getFirst().material());
+        }
+
+        @Test
+        @DisplayName("Should update the item in place when it already exists")
+        void shouldUpdateItemInPlace() {
+            store.upsertItem(1L, 0L, "ITEM_1", 100, 100, Material.LONA, "IMG", ItemStatus.IMPRESSO, null);
+            store.upsertItem(1L, 1L, "ITEM_RENAMED", 80, 100, Material.LONA, "IMG", ItemStatus.EM_SILK, null);
+
+            var items = store.listItems(0, 10);
+            assertEquals(1, items.size());
+            assertEquals("ITEM_RENAMED", items.getFirst().name());
+            assertEquals(ItemStatus.EM_SILK, items.getFirst().itemStatus());
+        }
+
+        @Test
+        @DisplayName("Should page items skipping freed slots")
+        void shouldPageItemsSkippingFreedSlots() {
+            for (long id = 1; id <= 10; id++) {
+                store.upsertItem(id, 0L, "ITEM_" + id, 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, null);
+            }
+            store.removeItem(3L);
+            store.removeItem(4L);
+
+            assertEquals(8, store.itemCount());
+            assertEquals(5, store.listItems(0, 5).size());
+            assertEquals(3, store.listItems(1, 5).size());
+            assertTrue(store.listItems(2, 5).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("order projection tests")
+    class OrderTests {
+
+        @Test
+        @DisplayName("Should list production orders with their active items")
+        void shouldListProductionOrdersWithTheirItems() {
+            var clientId = UUID.randomUUID();
+            store.upsertOrder(10L, 0L, OrderStatus.PRODUCAO, LocalDate.now(), clientId, "CLIENT_NAME");
+            store.upsertItem(1L, 0L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 10L);
+            store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, null);
+
+            store.assignOrder(10L, List.of(2L));
+            store.renameClient(clientId, "NEW_NAME");
+
+            var orders = store.listOrders(0, 10);
+            assertEquals(1, orders.size());
+            assertEquals("NEW_NAME", orders.getFirst().clientName());
+            assertEquals(2, orders.getFirst().items().size());
+        }
+
+        @Test
+        @DisplayName("Should drop the order when it leaves production")
+        void shouldDropTheOrderWhenItLeavesProduction() {
+            store.upsertOrder(10L, 0L, OrderStatus.PRODUCAO, LocalDate.now(), UUID.randomUUID(), "CLIENT_NAME");
+            store.upsertItem(1L, 0L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 10L);
+
+            store.upsertOrder(10L, 1L, OrderStatus.FINALIZADO, LocalDate.now(), UUID.randomUUID(), "CLIENT_NAME");
+            store.upsertItem(1L, 1L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.EMBALADO, 10L);
+
+            assertTrue(store.listOrders(0, 10).isEmpty());
+            assertEquals(0, store.itemCount());
+        }
+        @Test
+        @DisplayName("Should attach items saved before their order entered production")
+        void shouldAttachItemsSavedBeforeTheOrder() {
+            store.upsertItem(1L, 0L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 30L);
+            store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 30L);
+            store.upsertItem(3L, 0L, "ITEM_3", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 40L);
+            store.upsertItem(2L, 1L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 40L);
+            store.removeItem(1L);
+
+            store.upsertOrder(40L, 0L, OrderStatus.PRODUCAO, LocalDate.now(), UUID.randomUUID(), "CLIENT_NAME");
+            store.upsertOrder(30L, 0L, OrderStatus.PRODUCAO, LocalDate.now(), UUID.randomUUID(), "CLIENT_NAME");
+
+            var orders = store.listOrders(0, 10);
+            assertEquals(List.of(3L, 2L), orders.getFirst().items().stream()
+                    .map(ListItemProductionLineResponse::id).toList());
+            assertTrue(orders.get(1).items().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("stage queue tests")
+    class StageQueueTests {
+
+        @Test
+        @DisplayName("Should return the next items of a stage ordered by delivery date")
+        void shouldReturnNextItemsOrderedByDeliveryDate() {
+            var today = LocalDate.now();
+            store.upsertOrder(10L, 0L, OrderStatus.PRODUCAO, today.plusDays(5), UUID.randomUUID(), "LATE");
+            store.upsertOrder(20L, 0L, OrderStatus.PRODUCAO, today.plusDays(1), UUID.randomUUID(), "URGENT");
+
+            store.upsertItem(1L, 0L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, 10L);
+            store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, null);
+            store.upsertItem(3L, 0L, "ITEM_3", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, 20L);
+            store.upsertItem(4L, 0L, "ITEM_4", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, 20L);
+
+            var next = store.nextForStage(ItemStatus.EM_SILK, 10);
+
+            assertEquals(List.of(3L, 1L, 2L), next.stream().map(StageQueueItemResponseDto::id).toList());
+            assertEquals(today.plusDays(1), next.getFirst().deliveryDate());
+            assertNull(next.get(2).deliveryDate());
+        }
+
+        @Test
+        @DisplayName("Should reorder the stage when the delivery date or the status changes")
+        void shouldReorderWhenDeliveryDateOrStatusChanges() {
+            var today = LocalDate.now();
+            var clientId = UUID.randomUUID();
+            store.upsertOrder(10L, 0L, OrderStatus.PRODUCAO, today.plusDays(5), clientId, "CLIENT_A");
+            store.upsertOrder(20L, 0L, OrderStatus.PRODUCAO, today.plusDays(1), clientId, "CLIENT_B");
+            store.upsertItem(1L, 0L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.CHAPADO, 10L);
+            store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.CHAPADO, 20L);
+
+            store.upsertOrder(10L, 1L, OrderStatus.PRODUCAO, today, clientId, "CLIENT_A");
+            assertEquals(1L, store.nextForStage(ItemStatus.CHAPADO, 1).getFirst().id());
+
+            store.upsertItem(1L, 1L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.ACABAMENTO, 10L);
+            assertEquals(List.of(2L), store.nextForStage(ItemStatus.CHAPADO, 10).stream()
+                    .map(StageQueueItemResponseDto::id).toList());
+            assertEquals(1, store.nextForStage(ItemStatus.ACABAMENTO, 10).size());
+        }
+
+        @Test
+        @DisplayName("Should move the items of an order that leaves production to the end of the stage")
+        void shouldMoveItemsToTheEndWhenTheOrderLeavesProduction() {
+            var today = LocalDate.now();
+            var clientId = UUID.randomUUID();
+            store.upsertOrder(10L, 0L, OrderStatus.PRODUCAO, today, clientId, "CLIENT_A");
+            store.upsertOrder(20L, 0L, OrderStatus.PRODUCAO, today.plusDays(3), clientId, "CLIENT_B");
+            store.upsertItem(1L, 0L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, 10L);
+            store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, 20L);
+
+            store.upsertOrder(10L, 1L, OrderStatus.FINALIZADO, today, clientId, "CLIENT_A");
+
+            var next = store.nextForStage(ItemStatus.EM_SILK, 10);
+            assertEquals(List.of(2L, 1L), next.stream().map(StageQueueItemResponseDto::id).toList());
+            assertNull(next.get(1).deliveryDate());
+
+            store.upsertOrder(10L, 2L, OrderStatus.PRODUCAO, today, clientId, "CLIENT_A");
+            store.removeOrder(20L);
+
+            next = store.nextForStage(ItemStatus.EM_SILK, 10);
+            assertEquals(List.of(1L, 2L), next.stream().map(StageQueueItemResponseDto::id).toList());
+            assertEquals(today, next.getFirst().deliveryDate());
+            assertNull(next.get(1).deliveryDate());
+            assertEquals(1, store.listOrders(0, 10).getFirst().items().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("out of order commit tests")
+    class VersionTests {
+
+        @Test
+        @DisplayName("Should ignore an item write older than the one already applied")
+        void shouldIgnoreOlderItemWrites() {
+            store.upsertItem(1L, 2L, "ITEM_NEW", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, null);
+            store.upsertItem(1L, 1L, "ITEM_OLD", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, null);
+
+            var items = store.listItems(0, 10);
+            assertEquals("ITEM_NEW", items.getFirst().name());
+            assertEquals(ItemStatus.EM_SILK, items.getFirst().itemStatus());
+        }
+
+        @Test
+        @DisplayName("Should not bring back a packed or deleted item with a late write")
+        void shouldNotBringBackRemovedItems() {
+            store.upsertItem(1L, 3L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.EMBALADO, null);
+            store.upsertItem(1L, 2L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.ACABAMENTO, null);
+            store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, null);
+            store.removeItem(2L);
+            store.upsertItem(2L, 1L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.EM_SILK, null);
+
+            assertEquals(0, store.itemCount());
+
+            store.upsertItem(1L, 4L, "ITEM_1", 1, 1, Material.LONA, null, ItemStatus.ACABAMENTO, null);
+            assertEquals(1, store.itemCount());
+        }
+
+        @Test
+        @DisplayName("Should not put back in production an order that already left it")
+        void shouldNotPutBackAnOrderThatLeftProduction() {
+            var clientId = UUID.randomUUID();
+            store.upsertOrder(10L, 5L, OrderStatus.FINALIZADO, LocalDate.now(), clientId, "CLIENT_NAME");
+            store.upsertOrder(10L, 4L, OrderStatus.PRODUCAO, LocalDate.now(), clientId, "CLIENT_NAME");
+            store.upsertOrder(20L, 2L, OrderStatus.PRODUCAO, LocalDate.now(), clientId, "NEW_NAME");
+            store.upsertOrder(20L, 1L, OrderStatus.PRODUCAO, LocalDate.now(), clientId, "OLD_NAME");
+
+            var orders = store.listOrders(0, 10);
+            assertEquals(1, orders.size());
+            assertEquals(20L, orders.getFirst().orderId());
+            assertEquals("NEW_NAME", orders.getFirst().clientName());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read through tryRead even with a writer queued behind it")
+    void shouldReadThroughTryReadWithAWriterQueued() throws Exception {
+        store.upsertItem(1L, 0L, "ITEM_1", 100, 100, Material.LONA, "IMG", ItemStatus.IMPRESSO, null);
+        var writer = new Thread(() -> store.upsertItem(2L, 0L, "ITEM_2", 1, 1, Material.LONA, null, ItemStatus.IMPRESSO, null));
+
+        var items = store.tryRead(() -> {
+            writer.start();
+            // Espera o writer parar na fila do lock, que está com esta leitura
+            while (writer.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            return store.listItems(0, 10);
+        });
+        writer.join(5_000);
+
+        assertTrue(items.isPresent());
+        assertEquals(List.of(1L), items.get().stream().map(ListItemProductionLineResponse::id).toList());
+        assertEquals(2, store.itemCount());
+    }
+
+    @Test
+    @DisplayName("Should hold 500k active items and serve a board page in microseconds")
+    void shouldHoldHalfMillionItems() {
+        int total = 500_000;
+        var runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        var statuses = ItemStatus.values();
+        for (long id = 1; id <= total; id++) {
+            store.upsertItem(id, 0L, null, 100, 100, Material.ADESIVO, null, statuses[(int) (id % 6)], id / 10);
+        }
+
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        int reads = 1_000;
+        for (int i = 0; i < reads; i++) {
+            assertEquals(100, store.listItems(i % 50, 100).size());
+        }
+        long perReadMicros = (System.nanoTime() - start) / 1_000 / reads;
+
+        log.info("Production board with {} items - approx. heap {} MB, {} us per 100-item page",
+                total, (heapAfter - heapBefore) / (1024 * 1024), perReadMicros);
+
+        assertEquals(total, store.itemCount());
+        for (long id = 1; id <= total; id += 2) {
+            store.removeItem(id);
+        }
+        assertEquals(total / 2, store.itemCount());
+    }
+}
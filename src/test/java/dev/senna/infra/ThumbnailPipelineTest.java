@@ -0,0 +1,144 @@
+package dev.senna.infra;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    private ImageStore imageStore;
+    private SimpleMeterRegistry registry;
+    private ThumbnailPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new ImageStore();
+        imageStore.directory = directory.toString();
+        registry = new SimpleMeterRegistry();
+
+        pipeline = new ThumbnailPipeline();
+        pipeline.imageStore = imageStore;
+        pipeline.registry = registry;
+        pipeline.workers = 1;
+        pipeline.queueCapacity = 10;
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    @DisplayName("Should generate a thumbnail that fits the fixed size keeping the aspect ratio")
+    void shouldGenerateAThumbnailKeepingTheAspectRatio() throws Exception {
+        var hash = imageStore.store(png(2000, 1000));
+
+        pipeline.submit(hash);
+
+        var thumbnailPath = awaitThumbnail(hash);
+        var thumbnail = ImageIO.read(thumbnailPath.toFile());
+        assertEquals(ThumbnailPipeline.THUMBNAIL_SIZE, thumbnail.getWidth());
+        assertEquals(ThumbnailPipeline.THUMBNAIL_SIZE / 2, thumbnail.getHeight());
+        assertEquals("image/jpeg", imageStore.contentType(thumbnailPath));
+        assertEquals(thumbnailPath.getParent(), imageStore.resolve(hash).orElseThrow().getParent());
+
+        assertEquals(1, registry.get("thumbnail.processing.time").timer().count());
+        assertEquals(1.0, registry.get("thumbnail.requests").tag("result", "generated").counter().count());
+        assertEquals(0.0, registry.get("thumbnail.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not upscale images smaller than the thumbnail size")
+    void shouldNotUpscaleSmallImages() throws Exception {
+        var hash = imageStore.store(png(100, 40));
+
+        var rendered = ThumbnailPipeline.render(imageStore.resolve(hash).orElseThrow(), ThumbnailPipeline.THUMBNAIL_SIZE);
+
+        var thumbnail = ImageIO.read(new ByteArrayInputStream(rendered.orElseThrow()));
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(40, thumbnail.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should refuse images above the pixel limit without decoding them")
+    void shouldRefuseImagesAboveThePixelLimit() throws Exception {
+        // Cabeçalho de um PNG 10x10 reescrito para declarar 10000x10000 (100 megapixels)
+        var content = png(10, 10);
+        ByteBuffer.wrap(content).putInt(16, 10_000).putInt(20, 10_000);
+        var original = directory.resolve("huge.png");
+        Files.write(original, content);
+
+        assertTrue(ThumbnailPipeline.render(original, ThumbnailPipeline.THUMBNAIL_SIZE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not queue again an image that could not be decoded")
+    void shouldNotQueueAgainAnUndecodableImage() throws Exception {
+        // WEBP é aceito no upload, mas o ImageIO não tem leitor para ele
+        var webp = new byte[64];
+        System.arraycopy("RIFF".getBytes(), 0, webp, 0, 4);
+        System.arraycopy("WEBP".getBytes(), 0, webp, 8, 4);
+        var hash = imageStore.store(webp);
+
+        pipeline.submit(hash);
+        awaitProcessed(1);
+        pipeline.submit(hash);
+
+        assertEquals(0, pipeline.queueDepth());
+        assertEquals(1, registry.get("thumbnail.processing.time").timer().count());
+        assertEquals(1.0, registry.get("thumbnail.requests").tag("result", "failed").counter().count());
+        assertTrue(imageStore.resolveThumbnail(hash).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ignore values that are not image hashes")
+    void shouldIgnoreValuesThatAreNotImageHashes() {
+        pipeline.submit("IMG_URL");
+        pipeline.submit(null);
+
+        assertEquals(0, pipeline.queueDepth());
+        assertEquals(0, registry.get("thumbnail.processing.time").timer().count());
+    }
+
+    private Path awaitThumbnail(String hash) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var thumbnail = imageStore.resolveThumbnail(hash);
+            if (thumbnail.isPresent() && registry.get("thumbnail.processing.time").timer().count() == 1) {
+                return thumbnail.get();
+            }
+            Thread.sleep(50);
+        }
+        return fail("Thumbnail was not generated");
+    }
+
+    private void awaitProcessed(long count) throws InterruptedException {
+        for (int i = 0; i < 100 && registry.get("thumbnail.processing.time").timer().count() < count; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(count, registry.get("thumbnail.processing.time").timer().count());
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        var output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,99 @@
+package dev.senna.infra;
+
+import dev.senna.profile.PostgresTestProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara inserções com chave UUID v4 e v7 no Postgres: vazão e tamanho final do índice
+ * da chave primária. Os números saem no log; a asserção só garante a tendência.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class UuidKeyInsertBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidKeyInsertBenchmarkIT.class);
+
+    private static final int ROWS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Inject
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_uuid_v4");
+            statement.execute("DROP TABLE IF EXISTS bench_uuid_v7");
+        }
+    }
+
+    @Test
+    @DisplayName("UUID v7 keys should build a smaller primary key index than random v4 keys")
+    void shouldBuildSmallerIndexWithV7Keys() throws SQLException {
+        var v4 = insert("bench_uuid_v4", UUID::randomUUID);
+        var v7 = insert("bench_uuid_v7", UuidV7::generate);
+
+        log.info("UUID v4: {} rows in {} ms ({} rows/s), index {} kB",
+                ROWS, v4.millis(), v4.rowsPerSecond(), v4.indexBytes() / 1024);
+        log.info("UUID v7: {} rows in {} ms ({} rows/s), index {} kB",
+                ROWS, v7.millis(), v7.rowsPerSecond(), v7.indexBytes() / 1024);
+
+        // Inserções em ordem enchem as folhas do B-tree (~90%); aleatórias param em ~70% por causa dos splits
+        assertTrue(v7.indexBytes() < v4.indexBytes(),
+                "v7 index (" + v7.indexBytes() + " bytes) should be smaller than v4 (" + v4.indexBytes() + " bytes)");
+    }
+
+    private Result insert(String table, Supplier<UUID> keys) throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, payload VARCHAR(64) NOT NULL)");
+            }
+            connection.commit();
+
+            long start = System.nanoTime();
+            try (var insert = connection.prepareStatement("INSERT INTO " + table + " (id, payload) VALUES (?, ?)")) {
+                for (int i = 1; i <= ROWS; i++) {
+                    insert.setObject(1, keys.get());
+                    insert.setString(2, "CLIENT_" + i);
+                    insert.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            return new Result(millis, ROWS * 1000L / Math.max(millis, 1), indexBytes(connection, table + "_pkey"));
+        }
+    }
+
+    private static long indexBytes(Connection connection, String index) throws SQLException {
+        try (var query = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            query.setString(1, index);
+            try (var result = query.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private record Result(long millis, long rowsPerSecond, long indexBytes) {
+    }
+}
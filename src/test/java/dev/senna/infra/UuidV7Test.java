@@ -0,0 +1,64 @@
+package dev.senna.infra;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should set version 7 and the RFC 4122 variant")
+    void shouldSetVersionAndVariant() {
+        var uuid = UuidV7.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    @DisplayName("Should embed the creation time in milliseconds")
+    void shouldEmbedCreationTime() {
+        long before = System.currentTimeMillis();
+        var uuid = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        long embedded = UuidV7.epochMillis(uuid);
+        assertTrue(embedded >= before && embedded <= after);
+    }
+
+    @Test
+    @DisplayName("Should sort by creation time regardless of the random bits")
+    void shouldSortByCreationTime() {
+        var random = new Random(42);
+        var ids = new ArrayList<UUID>();
+        for (long millis = 1_700_000_000_000L; millis < 1_700_000_001_000L; millis++) {
+            ids.add(UuidV7.generate(millis, random));
+        }
+
+        var sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(ids, sorted);
+    }
+
+    @Test
+    @DisplayName("Should round trip through the canonical string form like any other UUID")
+    void shouldRoundTripThroughString() {
+        var uuid = UuidV7.generate();
+
+        var parsed = UUID.fromString(uuid.toString());
+
+        assertEquals(uuid, parsed);
+        assertEquals('7', uuid.toString().charAt(14));
+    }
+
+    @Test
+    @DisplayName("Should reject reading the timestamp of a random v4 id")
+    void shouldRejectTimestampOfV4() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.epochMillis(UUID.randomUUID()));
+    }
+}
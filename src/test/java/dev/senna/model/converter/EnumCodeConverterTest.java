@@ -0,0 +1,76 @@
+package dev.senna.model.converter;
+
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.model.enums.OrderStatus;
+import dev.senna.model.enums.UserRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumCodeConverterTest {
+
+    @Test
+    @DisplayName("Should keep the order status codes written by the V3 migration")
+    void shouldKeepOrderStatusCodes() {
+        var converter = new OrderStatusConverter();
+        var expected = Map.of(OrderStatus.PRODUCAO, 1, OrderStatus.FINALIZADO, 2, OrderStatus.POSTADO, 3);
+
+        assertEquals(OrderStatus.values().length, expected.size());
+        expected.forEach((status, code) -> {
+            assertEquals(code.shortValue(), converter.convertToDatabaseColumn(status));
+            assertEquals(status, converter.convertToEntityAttribute(code.shortValue()));
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep the item status codes written by the V3 migration")
+    void shouldKeepItemStatusCodes() {
+        var converter = new ItemStatusConverter();
+        var expected = Map.of(ItemStatus.IMPRESSO, 1, ItemStatus.ENCARTELADO, 2, ItemStatus.EM_SILK, 3,
+                ItemStatus.CHAPADO, 4, ItemStatus.VERSO_PRONTO, 5, ItemStatus.ACABAMENTO, 6, ItemStatus.EMBALADO, 7);
+
+        assertEquals(ItemStatus.values().length, expected.size());
+        expected.forEach((status, code) -> {
+            assertEquals(code.shortValue(), converter.convertToDatabaseColumn(status));
+            assertEquals(status, converter.convertToEntityAttribute(code.shortValue()));
+        });
+    }
+
+    @Test
+    @DisplayName("Should store the material by its existing id")
+    void shouldStoreMaterialById() {
+        var converter = new MaterialConverter();
+
+        for (Material material : Material.values()) {
+            assertEquals(material.getId().shortValue(), converter.convertToDatabaseColumn(material));
+            assertEquals(material, converter.convertToEntityAttribute(material.getId().shortValue()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the user role codes written by the V3 migration")
+    void shouldKeepUserRoleCodes() {
+        var converter = new UserRoleConverter();
+        var expected = Map.of(UserRole.OFFICER, 1, UserRole.ADMIN, 2, UserRole.DEV, 3);
+
+        assertEquals(UserRole.values().length, expected.size());
+        expected.forEach((role, code) -> {
+            assertEquals(code.shortValue(), converter.convertToDatabaseColumn(role));
+            assertEquals(role, converter.convertToEntityAttribute(code.shortValue()));
+        });
+    }
+
+    @Test
+    @DisplayName("Should map null both ways and reject unknown codes")
+    void shouldMapNullAndRejectUnknownCodes() {
+        var converter = new OrderStatusConverter();
+
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute((short) 99));
+    }
+}
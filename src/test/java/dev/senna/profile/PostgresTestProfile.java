@@ -0,0 +1,33 @@
+package dev.senna.profile;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.List;
+import java.util.Map;
+
+public class PostgresTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                // Recursos específicos do Postgres (SKIP LOCKED, RETURNING) não existem no H2
+                "quarkus.datasource.db-kind", "postgresql",
+                // Esquema criado pelas migrações do Flyway, como em produção
+                "quarkus.hibernate-orm.schema-management.strategy", "none",
+                "quarkus.flyway.migrate-at-start", "true",
+                "quarkus.flyway.clean-at-start", "true",
+                "quarkus.hibernate-orm.log.sql", "false",
+                "quarkus.log.category.\"dev.senna\".level", "INFO"
+        );
+    }
+
+    @Override
+    public List<TestResourceEntry> testResources() {
+        return List.of(new TestResourceEntry(PostgresTestResource.class));
+    }
+
+    @Override
+    public String getConfigProfile() {
+        return "test";
+    }
+}
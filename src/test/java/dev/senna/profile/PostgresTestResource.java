@@ -0,0 +1,30 @@
+package dev.senna.profile;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Map;
+
+public class PostgresTestResource implements QuarkusTestResourceLifecycleManager {
+
+    private PostgreSQLContainer<?> postgres;
+
+    @Override
+    public Map<String, String> start() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        return Map.of(
+                "quarkus.datasource.jdbc.url", postgres.getJdbcUrl(),
+                "quarkus.datasource.username", postgres.getUsername(),
+                "quarkus.datasource.password", postgres.getPassword()
+        );
+    }
+
+    @Override
+    public void stop() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.senna.profile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Postgres com o perfil {@code virtual-threads} do application.properties ativo:
+ * controllers em virtual threads e o pool do Agroal dimensionado para esse modo.
+ */
+public class VirtualThreadsTestProfile extends PostgresTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        var overrides = new HashMap<>(super.getConfigOverrides());
+        overrides.put("controllers.virtual-threads.enabled", "true");
+        return overrides;
+    }
+
+    @Override
+    public String getConfigProfile() {
+        return "virtual-threads,test";
+    }
+}
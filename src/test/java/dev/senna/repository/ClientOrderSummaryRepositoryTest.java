@@ -0,0 +1,165 @@
+package dev.senna.repository;
+
+import dev.senna.model.entity.ClientEntity;
+import dev.senna.model.entity.ClientOrderSummaryEntity;
+import dev.senna.model.entity.OrderArchiveEntity;
+import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.enums.OrderStatus;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL do resumo de pedidos por cliente rodando de verdade no H2 dos testes: os testes do
+ * service usam o repositório mockado.
+ */
+@QuarkusTest
+class ClientOrderSummaryRepositoryTest {
+
+    private static final LocalDate POSTED = LocalDate.of(2024, 1, 10);
+
+    @Inject
+    ClientOrderSummaryRepository summaryRepository;
+
+    @Inject
+    OrderArchiveRepository orderArchiveRepository;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    ItemRepository itemRepository;
+
+    @Inject
+    ClientRepository clientRepository;
+
+    private UUID clientId;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        summaryRepository.deleteAll();
+        orderArchiveRepository.deleteAll();
+        itemRepository.deleteAll();
+        orderRepository.deleteAll();
+        clientRepository.deleteAll();
+
+        var client = new ClientEntity();
+        client.setClientName("SUMMARY CLIENT");
+        clientRepository.persist(client);
+        clientId = client.getClientId();
+    }
+
+    @Nested
+    @DisplayName("applyDelta tests")
+    class ApplyDeltaTests {
+
+        @Test
+        @DisplayName("Should create the row on the first delta and add the following ones")
+        void shouldCreateAndIncrement() {
+            QuarkusTransaction.requiringNew().run(() -> summaryRepository.applyDelta(clientId, 1, 0, 0, null));
+            QuarkusTransaction.requiringNew().run(() -> summaryRepository.applyDelta(clientId, -1, 1, 0, null));
+
+            var summary = summary();
+            assertEquals(0, summary.getProductionCount());
+            assertEquals(1, summary.getFinishedCount());
+            assertEquals(0, summary.getPostedCount());
+            assertNull(summary.getLastPostedDate());
+        }
+
+        @Test
+        @DisplayName("Should set the last posted date over a null one and keep it on non posted deltas")
+        void shouldKeepTheLastPostedDate() {
+            QuarkusTransaction.requiringNew().run(() -> summaryRepository.applyDelta(clientId, 1, 0, 0, null));
+            QuarkusTransaction.requiringNew().run(() -> summaryRepository.applyDelta(clientId, -1, 0, 1, POSTED));
+            assertEquals(POSTED, summary().getLastPostedDate());
+
+            QuarkusTransaction.requiringNew().run(() -> summaryRepository.applyDelta(clientId, 1, 0, 0, null));
+            assertEquals(POSTED, summary().getLastPostedDate());
+
+            QuarkusTransaction.requiringNew().run(() -> summaryRepository.applyDelta(clientId, 0, 0, 1, POSTED.minusDays(5)));
+            assertEquals(POSTED, summary().getLastPostedDate());
+            assertEquals(2, summary().getPostedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild from live and archived orders")
+    void shouldRebuildFromLiveAndArchivedOrders() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            var client = clientRepository.findById(clientId);
+            orderRepository.persist(order(client, OrderStatus.PRODUCAO, null));
+            orderRepository.persist(order(client, OrderStatus.POSTADO, POSTED.minusDays(1)));
+            orderArchiveRepository.persist(archived(client, 1_000L, POSTED));
+        });
+
+        long clients = QuarkusTransaction.requiringNew().call(() -> summaryRepository.rebuild());
+
+        assertEquals(1, clients);
+        var summary = summary();
+        assertEquals(1, summary.getProductionCount());
+        assertEquals(2, summary.getPostedCount());
+        assertEquals(POSTED, summary.getLastPostedDate());
+    }
+
+    @Test
+    @DisplayName("Should recompute the last posted date from live and archived orders")
+    void shouldRefreshLastPostedDate() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            var client = clientRepository.findById(clientId);
+            orderRepository.persist(order(client, OrderStatus.POSTADO, POSTED.minusDays(3)));
+            orderArchiveRepository.persist(archived(client, 1_001L, POSTED.minusDays(1)));
+            summaryRepository.applyDelta(clientId, 0, 0, 2, POSTED);
+        });
+
+        QuarkusTransaction.requiringNew().run(() -> summaryRepository.refreshLastPostedDate(clientId));
+
+        assertEquals(POSTED.minusDays(1), summary().getLastPostedDate());
+    }
+
+    @Test
+    @DisplayName("Should list clients without orders with zeroed counters")
+    void shouldListClientsWithoutOrdersZeroed() {
+        var summaries = QuarkusTransaction.requiringNew().call(() -> summaryRepository.listSummaries(0, 10));
+
+        assertEquals(1, summaries.size());
+        var summary = summaries.getFirst();
+        assertEquals(clientId, summary.clientId());
+        assertEquals("SUMMARY CLIENT", summary.clientName());
+        assertEquals(0, summary.inProduction());
+        assertEquals(0, summary.finished());
+        assertEquals(0, summary.posted());
+        assertNull(summary.lastPostedDate());
+    }
+
+    // Lido numa transação própria: os UPDATEs em lote não passam pelo contexto de persistência
+    private ClientOrderSummaryEntity summary() {
+        return QuarkusTransaction.requiringNew().call(() -> summaryRepository.findById(clientId));
+    }
+
+    private static OrderEntity order(ClientEntity client, OrderStatus status, LocalDate postedDate) {
+        var order = new OrderEntity(status);
+        order.setClient(client);
+        order.setSaleDate(POSTED.minusDays(20));
+        order.setDeliveryDate(POSTED.minusDays(5));
+        order.setPostedDate(postedDate);
+        return order;
+    }
+
+    private static OrderArchiveEntity archived(ClientEntity client, long orderId, LocalDate postedDate) {
+        var order = order(client, OrderStatus.POSTADO, postedDate);
+        order.setId(orderId);
+        return OrderArchiveEntity.of(order, Instant.now());
+    }
+}
@@ -0,0 +1,155 @@
+package dev.senna.service;
+
+import dev.senna.exception.ClientNotFoundException;
+import dev.senna.model.entity.ClientEntity;
+import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.enums.OrderStatus;
+import dev.senna.repository.ClientOrderSummaryRepository;
+import dev.senna.repository.ClientRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientOrderSummaryServiceTest {
+
+    @InjectMocks
+    private ClientOrderSummaryService clientOrderSummaryService;
+
+    @Mock
+    private ClientOrderSummaryRepository summaryRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private static OrderEntity order(ClientEntity client, OrderStatus status, LocalDate postedDate) {
+        var order = new OrderEntity(status);
+        order.setId(1L);
+        order.setClient(client);
+        order.setPostedDate(postedDate);
+        return order;
+    }
+
+    @Nested
+    @DisplayName("write path tests")
+    class WritePathTests {
+
+        @Test
+        @DisplayName("Should count a new order as in production")
+        void shouldCountNewOrderAsInProduction() {
+            // Arrange
+            var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+
+            // Act
+            clientOrderSummaryService.orderCreated(order(client, OrderStatus.PRODUCAO, null));
+
+            // Assert
+            verify(summaryRepository).applyDelta(client.getClientId(), 1, 0, 0, null);
+        }
+
+        @Test
+        @DisplayName("Should move the order between counters of the same client in a single statement")
+        void shouldMoveBetweenCountersOfSameClient() {
+            // Arrange
+            var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+            var postedDate = LocalDate.now();
+
+            // Act
+            clientOrderSummaryService.orderChanged(client.getClientId(), OrderStatus.FINALIZADO,
+                    order(client, OrderStatus.POSTADO, postedDate));
+
+            // Assert
+            verify(summaryRepository).applyDelta(client.getClientId(), 0, -1, 1, postedDate);
+            verifyNoMoreInteractions(summaryRepository);
+        }
+
+        @Test
+        @DisplayName("Should not touch the summary when neither client nor status changed")
+        void shouldSkipWhenNothingChanged() {
+            // Arrange
+            var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+
+            // Act
+            clientOrderSummaryService.orderChanged(client.getClientId(), OrderStatus.PRODUCAO,
+                    order(client, OrderStatus.PRODUCAO, null));
+
+            // Assert
+            verifyNoInteractions(summaryRepository);
+        }
+
+        @Test
+        @DisplayName("Should move a posted order to the new client and refresh the old client's last posted date")
+        void shouldMovePostedOrderToNewClient() {
+            // Arrange
+            var previousClientId = UUID.randomUUID();
+            var newClient = new ClientEntity(UUID.randomUUID(), "NEW_CLIENT");
+            var postedDate = LocalDate.now().minusDays(2);
+
+            // Act
+            clientOrderSummaryService.orderChanged(previousClientId, OrderStatus.POSTADO,
+                    order(newClient, OrderStatus.POSTADO, postedDate));
+
+            // Assert
+            verify(summaryRepository).applyDelta(previousClientId, 0, 0, -1, null);
+            verify(summaryRepository).applyDelta(newClient.getClientId(), 0, 0, 1, postedDate);
+            verify(summaryRepository).refreshLastPostedDate(previousClientId);
+        }
+    }
+
+    @Nested
+    @DisplayName("getSummary() tests")
+    class GetSummaryTests {
+
+        @Test
+        @DisplayName("Should return zeroed counters for a client without orders")
+        void shouldReturnZeroedCountersForClientWithoutOrders() {
+            // Arrange
+            var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+            when(clientRepository.findByIdOptional(client.getClientId())).thenReturn(Optional.of(client));
+            when(summaryRepository.findByIdOptional(client.getClientId())).thenReturn(Optional.empty());
+
+            // Act
+            var summary = clientOrderSummaryService.getSummary(client.getClientId());
+
+            // Assert
+            assertEquals("CLIENT", summary.clientName());
+            assertEquals(0, summary.inProduction());
+            assertEquals(0, summary.posted());
+            assertNull(summary.lastPostedDate());
+        }
+
+        @Test
+        @DisplayName("Should throw ClientNotFoundException when the client does not exist")
+        void shouldThrowWhenClientDoesNotExist() {
+            // Arrange
+            var clientId = UUID.randomUUID();
+            when(clientRepository.findByIdOptional(clientId)).thenReturn(Optional.empty());
+
+            // Act and Assert
+            assertThrows(ClientNotFoundException.class, () -> clientOrderSummaryService.getSummary(clientId));
+            verifyNoInteractions(summaryRepository);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cap the page size when listing summaries")
+    void shouldCapPageSizeWhenListingSummaries() {
+        // Act
+        clientOrderSummaryService.listSummaries(-1, 1000);
+
+        // Assert
+        verify(summaryRepository).listSummaries(0, 100);
+    }
+}
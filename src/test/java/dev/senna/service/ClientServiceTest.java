@@ -1,24 +1,33 @@
 package dev.senna.service;
 
 import dev.senna.controller.dto.request.CreateClientReqDto;
+import dev.senna.controller.dto.request.UpdateClientReqDto;
 import dev.senna.exception.ClientAlreadyExistsException;
+import dev.senna.exception.ClientHasOrdersException;
+import dev.senna.exception.ClientNotFoundException;
 import dev.senna.model.entity.ClientEntity;
 import dev.senna.model.entity.UserEntity;
 import dev.senna.repository.ClientRepository;
+import dev.senna.repository.ItemRepository;
+import dev.senna.repository.OrderArchiveRepository;
+import dev.senna.repository.OrderRepository;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.sql.SQLException;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,50 +36,58 @@ class ClientServiceTest {
     @InjectMocks
     ClientService clientService;
 
-    @Captor
-    private ArgumentCaptor<ClientEntity> clientCaptor;
-
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private ProductionBoardService productionBoardService;
+
+    @Mock
+    private ClientAutocompleteService clientAutocompleteService;
+
+    @Mock
+    private ClientOrderSummaryService clientOrderSummaryService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
     @Nested
     class createClient {
 
         @Test
-        @DisplayName("Should persist and return the clientId when client does not exists")
+        @DisplayName("Should insert in a single statement and return the clientId when client does not exists")
         void shouldReturnClientIdWhenClientDoesNotExists() {
 
             // Arrange
             String clientName = "CLIENT_NAME";
             CreateClientReqDto requestDto = new CreateClientReqDto(clientName);
-            doReturn(false).when(clientRepository).findByUserName(clientName);
-
-            doAnswer(invocation -> {
-                ClientEntity entity = invocation.getArgument(0);
-                entity.setClientId(UUID.randomUUID());
-                return null;
-            }).when(clientRepository).persist(any(ClientEntity.class));
+            doReturn(true).when(clientRepository).insertIfNameAvailable(any(UUID.class), eq(clientName), eq("client_name"));
 
             // Act
             UUID clientId = clientService.createClient(requestDto);
 
             // Assert
             assertNotNull(clientId);
-            verify(clientRepository, times(1)).findByUserName(requestDto.clientName());
-            verify(clientRepository, times(1)).persist(clientCaptor.capture());
-            var clientCaptured = clientCaptor.getValue();
-            assertEquals(clientName, clientCaptured.getClientName());
+            verify(clientRepository, times(1)).insertIfNameAvailable(clientId, clientName, "client_name");
+            verify(clientRepository, never()).persist(any(ClientEntity.class));
+            verify(clientAutocompleteService).clientSaved(clientId, clientName);
 
         }
 
         @Test
-        @DisplayName("Should return true and throw exception when the client exists")
-        void shouldReturnTrueWhenTheClientExists() {
+        @DisplayName("Should throw exception when the normalized name is already taken")
+        void shouldThrowWhenTheClientExists() {
 
             // Arrange
             String clientName = "CLIENT_NAME";
             CreateClientReqDto requestDto = new CreateClientReqDto(clientName);
-            doReturn(true).when(clientRepository).findByUserName(clientName);
+            doReturn(false).when(clientRepository).insertIfNameAvailable(any(UUID.class), eq(clientName), eq("client_name"));
 
             // Act and Assert
             var exception = assertThrows(ClientAlreadyExistsException.class, () -> {
@@ -79,8 +96,161 @@ class ClientServiceTest {
 
             // Assert
             assertEquals("Client (" + clientName + ") already exists on database", exception.getDetail());
-            verify(clientRepository, times(1)).findByUserName(requestDto.clientName());
-            verify(clientRepository, never()).persist(any(ClientEntity.class));
+            verifyNoInteractions(clientAutocompleteService);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when a concurrent insert wins the unique index")
+        void shouldThrowWhenUniqueIndexRejectsInsert() {
+
+            // Arrange
+            String clientName = "CLIENT_NAME";
+            CreateClientReqDto requestDto = new CreateClientReqDto(clientName);
+            var violation = new ConstraintViolationException("duplicate", new SQLException(), "uk_client_normalized_name");
+            doThrow(new PersistenceException(violation)).when(clientRepository)
+                    .insertIfNameAvailable(any(UUID.class), eq(clientName), eq("client_name"));
+
+            // Act and Assert
+            assertThrows(ClientAlreadyExistsException.class, () -> clientService.createClient(requestDto));
+            verifyNoInteractions(clientAutocompleteService);
+        }
+    }
+
+    @Nested
+    class updateClient {
+
+        @Test
+        @DisplayName("Should rename with a conditional update and refresh the caches")
+        void shouldRenameWhenNameIsAvailable() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            var requestDto = new UpdateClientReqDto("Novo Nome");
+            doReturn(Optional.of(new ClientEntity())).when(clientRepository).findByIdOptional(clientId);
+            doReturn(true).when(clientRepository).renameIfNameAvailable(clientId, "Novo Nome", "novo nome");
+
+            // Act
+            var response = clientService.updateClient(clientId, requestDto);
+
+            // Assert
+            assertEquals(clientId, response.clientId());
+            assertEquals("Novo Nome", response.clientName());
+            verify(productionBoardService).clientRenamed(clientId, "Novo Nome");
+            verify(clientAutocompleteService).clientSaved(clientId, "Novo Nome");
+        }
+
+        @Test
+        @DisplayName("Should throw ClientNotFoundException before renaming when the client does not exist")
+        void shouldThrowNotFoundWhenClientDoesNotExist() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            var requestDto = new UpdateClientReqDto("Novo Nome");
+            doReturn(Optional.empty()).when(clientRepository).findByIdOptional(clientId);
+
+            // Act and Assert
+            assertThrows(ClientNotFoundException.class, () -> clientService.updateClient(clientId, requestDto));
+            verify(clientRepository, never()).renameIfNameAvailable(any(), any(), any());
+            verifyNoInteractions(productionBoardService, clientAutocompleteService);
+        }
+
+        @Test
+        @DisplayName("Should throw ClientAlreadyExistsException when another client owns the name")
+        void shouldThrowAlreadyExistsWhenNameIsTaken() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            var requestDto = new UpdateClientReqDto("Novo Nome");
+            doReturn(Optional.of(new ClientEntity())).when(clientRepository).findByIdOptional(clientId);
+            doReturn(false).when(clientRepository).renameIfNameAvailable(clientId, "Novo Nome", "novo nome");
+
+            // Act and Assert
+            assertThrows(ClientAlreadyExistsException.class, () -> clientService.updateClient(clientId, requestDto));
+            verifyNoInteractions(productionBoardService, clientAutocompleteService);
+        }
+
+        @Test
+        @DisplayName("Should throw ClientAlreadyExistsException when a concurrent rename wins the unique index")
+        void shouldThrowAlreadyExistsWhenUniqueIndexRejectsRename() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            var requestDto = new UpdateClientReqDto("Novo Nome");
+            var violation = new ConstraintViolationException("duplicate", new SQLException(), "uk_client_normalized_name");
+            doReturn(Optional.of(new ClientEntity())).when(clientRepository).findByIdOptional(clientId);
+            doThrow(new PersistenceException(violation)).when(clientRepository)
+                    .renameIfNameAvailable(clientId, "Novo Nome", "novo nome");
+
+            // Act and Assert
+            assertThrows(ClientAlreadyExistsException.class, () -> clientService.updateClient(clientId, requestDto));
+            verify(clientRepository, times(1)).findByIdOptional(clientId);
+            verifyNoInteractions(productionBoardService, clientAutocompleteService);
+        }
+    }
+
+    @Nested
+    class deleteClient {
+
+        @Test
+        @DisplayName("Should delete the client without loading its orders when it has none")
+        void shouldDeleteTheClientWhenItHasNoOrders() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            var client = new ClientEntity(clientId, "CLIENT_NAME");
+            doReturn(Optional.of(client)).when(clientRepository).findByIdOptional(clientId);
+            doReturn(false).when(orderRepository).existsByClient(clientId);
+
+            // Act
+            clientService.deleteClient(clientId);
+
+            // Assert
+            verify(clientRepository).delete("clientId", clientId);
+            verify(clientAutocompleteService).clientDeleted(clientId);
+            assertNull(client.getOrdersList(), "Orders should not be loaded to check the association");
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the client has orders")
+        void shouldThrowExceptionWhenTheClientHasOrders() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            doReturn(Optional.of(new ClientEntity(clientId, "CLIENT_NAME"))).when(clientRepository).findByIdOptional(clientId);
+            doReturn(true).when(orderRepository).existsByClient(clientId);
+
+            // Act and Assert
+            assertThrows(ClientHasOrdersException.class, () -> clientService.deleteClient(clientId));
+            verify(clientRepository, never()).delete("clientId", clientId);
+            verifyNoInteractions(clientAutocompleteService);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the client only has archived orders")
+        void shouldThrowExceptionWhenTheClientHasArchivedOrders() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            doReturn(Optional.of(new ClientEntity(clientId, "CLIENT_NAME"))).when(clientRepository).findByIdOptional(clientId);
+            doReturn(false).when(orderRepository).existsByClient(clientId);
+            doReturn(true).when(orderArchiveRepository).existsByClient(clientId);
+
+            // Act and Assert
+            assertThrows(ClientHasOrdersException.class, () -> clientService.deleteClient(clientId));
+            verify(clientRepository, never()).delete("clientId", clientId);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the client does not exist")
+        void shouldThrowExceptionWhenTheClientDoesNotExist() {
+
+            // Arrange
+            var clientId = UUID.randomUUID();
+            doReturn(Optional.empty()).when(clientRepository).findByIdOptional(clientId);
+
+            // Act and Assert
+            assertThrows(ClientNotFoundException.class, () -> clientService.deleteClient(clientId));
+            verifyNoInteractions(orderRepository);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.request.BulkAssignOrderRequestDto;
+import dev.senna.model.entity.ClientEntity;
+import dev.senna.model.entity.ItemEntity;
+import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.model.enums.OrderStatus;
+import dev.senna.profile.PostgresTestProfile;
+import dev.senna.repository.ClientRepository;
+import dev.senna.repository.ItemRepository;
+import dev.senna.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Atribuição em lote no PostgreSQL, onde o UPDATE ... RETURNING decide quais itens ainda estavam
+ * sem pedido. No H2 dos demais testes roda o caminho alternativo do repositório.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class ItemBulkAssignIT {
+
+    private static final LocalDate SALE_DATE = LocalDate.of(2025, 3, 14);
+
+    @Inject
+    ItemService itemService;
+
+    @Inject
+    ItemRepository itemRepository;
+
+    @Inject
+    OrderRepository orderRepository;
+
+    @Inject
+    ClientRepository clientRepository;
+
+    private ClientEntity client;
+    private OrderEntity target;
+    private OrderEntity other;
+    private final List<Long> unassignedIds = new ArrayList<>();
+    private Long assignedElsewhereId;
+
+    @BeforeEach
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            client = new ClientEntity();
+            client.setClientName("BULK ASSIGN CLIENT");
+            clientRepository.persist(client);
+
+            target = order(SALE_DATE);
+            other = order(SALE_DATE.minusDays(1));
+
+            for (int i = 0; i < 3; i++) {
+                unassignedIds.add(item(null).getId());
+            }
+            assignedElsewhereId = item(other).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            itemRepository.deleteByIds(unassignedIds);
+            itemRepository.deleteByOrderIds(List.of(target.getId(), other.getId()));
+            orderRepository.delete("id in ?1", List.of(target.getId(), other.getId()));
+            clientRepository.deleteById(client.getClientId());
+        });
+    }
+
+    @Test
+    @DisplayName("Should assign only the items without an order and report the rest")
+    void shouldAssignOnlyUnassignedItems() {
+        var missingId = Long.MAX_VALUE;
+        var requested = List.of(unassignedIds.get(0), assignedElsewhereId, unassignedIds.get(1), missingId,
+                unassignedIds.get(2));
+
+        var response = QuarkusTransaction.requiringNew().call(() ->
+                itemService.assignOrderInBulk(new BulkAssignOrderRequestDto(target.getId(), requested)));
+
+        assertEquals(unassignedIds, response.assignedItemIds());
+        assertEquals(List.of(assignedElsewhereId, missingId), response.notAssignedItemIds());
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (var id : unassignedIds) {
+                var item = itemRepository.findById(id);
+                assertEquals(target.getId(), item.getOrder().getId());
+                assertEquals(SALE_DATE, item.getOrderSaleDate());
+                assertEquals(1, item.getVersion());
+            }
+
+            var untouched = itemRepository.findById(assignedElsewhereId);
+            assertEquals(other.getId(), untouched.getOrder().getId());
+            assertEquals(0, untouched.getVersion());
+        });
+    }
+
+    @Test
+    @DisplayName("Should not reassign items taken by a previous bulk assignment")
+    void shouldNotReassignItemsOnSecondCall() {
+        var requested = List.copyOf(unassignedIds);
+        QuarkusTransaction.requiringNew().call(() ->
+                itemService.assignOrderInBulk(new BulkAssignOrderRequestDto(other.getId(), requested)));
+
+        var response = QuarkusTransaction.requiringNew().call(() ->
+                itemService.assignOrderInBulk(new BulkAssignOrderRequestDto(target.getId(), requested)));
+
+        assertTrue(response.assignedItemIds().isEmpty());
+        assertEquals(unassignedIds, response.notAssignedItemIds());
+    }
+
+    private OrderEntity order(LocalDate saleDate) {
+        var order = new OrderEntity();
+        order.setSaleDate(saleDate);
+        order.setDeliveryDate(saleDate.plusDays(10));
+        order.setClient(client);
+        order.setStatus(OrderStatus.PRODUCAO);
+        orderRepository.persist(order);
+        return order;
+    }
+
+    private ItemEntity item(OrderEntity order) {
+        var item = new ItemEntity();
+        item.setName("BULK ASSIGN ITEM");
+        item.setSaleQuantity(100);
+        item.setMaterial(Material.LONA);
+        item.setStatus(ItemStatus.IMPRESSO);
+        item.setOrder(order);
+        itemRepository.persist(item);
+        return item;
+    }
+}
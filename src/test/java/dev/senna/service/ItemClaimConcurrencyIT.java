@@ -0,0 +1,113 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.request.ReleaseItemsRequestDto;
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.model.entity.ItemEntity;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.profile.PostgresTestProfile;
+import dev.senna.repository.ItemRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+class ItemClaimConcurrencyIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemClaimConcurrencyIT.class);
+
+    private static final int ITEMS = 1_000;
+    private static final int OPERATORS = 32;
+
+    @Inject
+    ItemClaimService itemClaimService;
+
+    @Inject
+    ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            itemRepository.deleteAll();
+            for (int i = 0; i < ITEMS; i++) {
+                var item = new ItemEntity();
+                item.setName("ITEM_" + i);
+                item.setSaleQuantity(100);
+                item.setMaterial(Material.ADESIVO);
+                item.setStatus(ItemStatus.EM_SILK);
+                itemRepository.persist(item);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should hand out every item exactly once to concurrent operators")
+    void shouldHandOutEveryItemExactlyOnce() throws Exception {
+        Map<Long, String> owners = new ConcurrentHashMap<>();
+        var duplicates = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(OPERATORS);
+
+        var futures = new ArrayList<Future<?>>();
+        for (int n = 0; n < OPERATORS; n++) {
+            var operator = "operator-" + n;
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (true) {
+                    var claim = itemClaimService.claimNext(ItemStatus.EM_SILK, 5, operator);
+                    if (claim.items().isEmpty()) {
+                        return null;
+                    }
+                    claim.items().forEach(item -> {
+                        if (owners.putIfAbsent(item.id(), operator) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                    });
+                }
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+        log.info("{} operators claimed {} items in {} ms", OPERATORS, owners.size(), elapsedMillis);
+
+        assertEquals(0, duplicates.get());
+        assertEquals(ITEMS, owners.size());
+    }
+
+    @Test
+    @DisplayName("Should make released items claimable again")
+    void shouldMakeReleasedItemsClaimableAgain() {
+        var first = itemClaimService.claimNext(ItemStatus.EM_SILK, 2, "operator-a");
+        var ids = first.items().stream().map(ListItemProductionLineResponse::id).toList();
+
+        itemClaimService.release(new ReleaseItemsRequestDto(ids), "operator-a");
+
+        var second = itemClaimService.claimNext(ItemStatus.EM_SILK, 2, "operator-b");
+        assertEquals(ids, second.items().stream().map(ListItemProductionLineResponse::id).toList());
+    }
+}
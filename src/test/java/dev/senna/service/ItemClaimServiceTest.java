@@ -0,0 +1,95 @@
+package dev.senna.service;
+
+import dev.senna.controller.dto.request.ReleaseItemsRequestDto;
+import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.repository.ItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemClaimServiceTest {
+
+    @InjectMocks
+    private ItemClaimService itemClaimService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Nested
+    @DisplayName("claimNext() tests")
+    class ClaimNextTests {
+
+        @Test
+        @DisplayName("Should claim items and return them with the lease expiration")
+        void shouldClaimItemsAndReturnThemWithTheLease() {
+            // Arrange
+            var item = new ListItemProductionLineResponse(1L, "ITEM", 10, 10, Material.LONA, "IMG", ItemStatus.EM_SILK, 2L);
+            when(itemRepository.claimNext(eq(ItemStatus.EM_SILK), eq(3), eq("operator"), any(Instant.class), any(Instant.class)))
+                    .thenReturn(List.of(1L));
+            when(itemRepository.findProjectionsByIds(List.of(1L))).thenReturn(List.of(item));
+
+            // Act
+            var before = Instant.now();
+            var result = itemClaimService.claimNext(ItemStatus.EM_SILK, 3, "operator");
+
+            // Assert
+            assertEquals(List.of(item), result.items());
+            assertFalse(result.leaseExpiresAt().isBefore(before.plus(ItemClaimService.CLAIM_LEASE)));
+        }
+
+        @Test
+        @DisplayName("Should not load projections when nothing was claimed and cap the claim size")
+        void shouldNotLoadProjectionsWhenNothingWasClaimed() {
+            // Arrange
+            when(itemRepository.claimNext(eq(ItemStatus.CHAPADO), eq(50), eq("operator"), any(Instant.class), any(Instant.class)))
+                    .thenReturn(List.of());
+
+            // Act
+            var result = itemClaimService.claimNext(ItemStatus.CHAPADO, 1_000, "operator");
+
+            // Assert
+            assertTrue(result.items().isEmpty());
+            verify(itemRepository, never()).findProjectionsByIds(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when status is null")
+        void shouldThrowExceptionWhenStatusIsNull() {
+            assertThrows(NullPointerException.class, () -> itemClaimService.claimNext(null, 5, "operator"));
+            verifyNoInteractions(itemRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("release() tests")
+    class ReleaseTests {
+
+        @Test
+        @DisplayName("Should release only the claims owned by the operator")
+        void shouldReleaseOnlyTheClaimsOwnedByTheOperator() {
+            // Arrange
+            var reqDto = new ReleaseItemsRequestDto(List.of(1L, 2L));
+            when(itemRepository.releaseClaims(reqDto.itemIds(), "operator")).thenReturn(1);
+
+            // Act
+            var released = itemClaimService.release(reqDto, "operator");
+
+            // Assert
+            assertEquals(1, released);
+        }
+    }
+}
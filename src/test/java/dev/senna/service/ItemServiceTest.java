@@ -2,11 +2,16 @@ package dev.senna.service;
 
 import dev.senna.controller.dto.request.AddItemRequestDto;
 import dev.senna.controller.dto.request.AssignOrderToItemRequestDto;
+import dev.senna.controller.dto.request.BulkAssignOrderRequestDto;
 import dev.senna.controller.dto.request.UpdateItemRequestDto;
 import dev.senna.controller.dto.response.ListItemProductionLineResponse;
+import dev.senna.controller.dto.response.Versioned;
 import dev.senna.exception.InvalidEditParameterException;
 import dev.senna.exception.ItemNotFoundException;
 import dev.senna.exception.OrderNotFoundException;
+import dev.senna.exception.StaleVersionException;
+import dev.senna.infra.ImageStore;
+import dev.senna.infra.ThumbnailPipeline;
 import dev.senna.model.entity.ItemEntity;
 import dev.senna.model.entity.OrderEntity;
 import dev.senna.model.enums.ItemStatus;
@@ -16,6 +21,7 @@ import dev.senna.repository.OrderRepository;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.security.ForbiddenException;
 import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -52,6 +58,15 @@ class ItemServiceTest {
     @Mock
     private SecurityIdentity identity;
 
+    @Mock
+    private ProductionBoardService productionBoardService;
+
+    @Mock
+    private ImageStore imageStore;
+
+    @Mock
+    private ThumbnailPipeline thumbnailPipeline;
+
     @Nested
     @DisplayName("addItem() tests")
     class AddItemTests {
@@ -91,6 +106,8 @@ class ItemServiceTest {
             // Arrange
             var dummyDtoNoOrder = new AddItemRequestDto("ITEM_NAME_2", 1000, Material.ELETROSTATICO, "IMG_URL_2", null);
             var expectedItemId = 456L;
+            var imageHash = "b".repeat(64);
+            when(imageStore.storeEncoded("IMG_URL_2")).thenReturn(imageHash);
 
             doAnswer(invocationOnMock -> {
                 ItemEntity persistedItem = invocationOnMock.getArgument(0);
@@ -111,6 +128,44 @@ class ItemServiceTest {
             ItemEntity capturedItem = itemEntityArgumentCaptor.getValue();
             assertEquals(dummyDtoNoOrder.name(), capturedItem.getName());
             assertNull(capturedItem.getOrder(), "Order should be null");
+            assertEquals(imageHash, capturedItem.getImage());
+            verify(thumbnailPipeline).submit(imageHash);
+        }
+    }
+
+    @Nested
+    @DisplayName("findItemById() tests")
+    class FindItemByIdTests {
+
+        @Test
+        @DisplayName("Should return the item projection when item exists")
+        void shouldReturnTheItemProjectionWhenItemExists() {
+            // Arrange
+            var itemId = 1L;
+            var projection = new ListItemProductionLineResponse(itemId, "ITEM_NAME", 1000, 1000,
+                    Material.LONA, "IMG_URL", ItemStatus.IMPRESSO, 2L);
+            when(itemRepository.findProjectionById(itemId)).thenReturn(Optional.of(new Versioned<>(projection, 3L)));
+
+            // Act
+            var result = itemService.findItemById(itemId);
+
+            // Assert
+            assertEquals(projection, result.body());
+            assertEquals(3L, result.version());
+            verify(itemRepository, never()).findByIdOptional(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw item not found exception when item does not exists")
+        void shouldThrowItemNotFoundExceptionWhenItemDoesNotExist() {
+            // Arrange
+            var itemId = 1L;
+            when(itemRepository.findProjectionById(itemId)).thenReturn(Optional.empty());
+
+            // Act and Assert
+            var exception = assertThrows(ItemNotFoundException.class, () -> itemService.findItemById(itemId));
+
+            assertEquals("Item with ID " + itemId + " not found on the application", exception.getDetail());
         }
     }
 
@@ -254,6 +309,111 @@ class ItemServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("assignOrderInBulk() tests")
+    class AssignOrderInBulkTests {
+
+        @Test
+        @DisplayName("Should split requested items into assigned and not assigned")
+        void shouldSplitRequestedItemsIntoAssignedAndNotAssigned() {
+            // Arrange
+            var orderId = 5L;
+            var reqDto = new BulkAssignOrderRequestDto(orderId, List.of(1L, 2L, 3L, 2L));
+            when(orderRepository.count("id", orderId)).thenReturn(1L);
+            when(itemRepository.assignOrderToUnassigned(eq(orderId), anyCollection())).thenReturn(List.of(3L, 1L));
+
+            // Act
+            var result = itemService.assignOrderInBulk(reqDto);
+
+            // Assert
+            assertEquals(orderId, result.orderId());
+            assertEquals(List.of(1L, 3L), result.assignedItemIds());
+            assertEquals(List.of(2L), result.notAssignedItemIds());
+            verify(itemRepository, never()).findByIdOptional(anyLong());
+            verify(itemRepository, never()).persist(any(ItemEntity.class));
+        }
+
+        @Test
+        @DisplayName("Should throw order not found when order does not exists")
+        void shouldThrowOrderNotFoundExceptionWhenOrderDoesNotExist() {
+            // Arrange
+            var orderId = 5L;
+            when(orderRepository.count("id", orderId)).thenReturn(0L);
+
+            // Act and Assert
+            assertThrows(OrderNotFoundException.class,
+                    () -> itemService.assignOrderInBulk(new BulkAssignOrderRequestDto(orderId, List.of(1L))));
+
+            verify(itemRepository, never()).assignOrderToUnassigned(anyLong(), anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("listUnassigned() tests")
+    class ListUnassignedTests {
+
+        @Test
+        @DisplayName("Should return a page of unassigned items with the next cursor")
+        void shouldReturnAPageOfUnassignedItemsWithTheNextCursor() {
+            // Arrange
+            var item1 = new ListItemProductionLineResponse(7L, "ITEM_1", 100, 100, Material.LONA, "IMG", ItemStatus.IMPRESSO, null);
+            var item2 = new ListItemProductionLineResponse(9L, "ITEM_2", 100, 100, Material.LONA, "IMG", ItemStatus.IMPRESSO, null);
+            when(itemRepository.findUnassigned(Material.LONA, ItemStatus.IMPRESSO, 3L, 2)).thenReturn(List.of(item1, item2));
+
+            // Act
+            var page = itemService.listUnassigned(Material.LONA, ItemStatus.IMPRESSO, 3L, 1);
+
+            // Assert
+            assertEquals(List.of(item1), page.items());
+            assertEquals(7L, page.nextCursor());
+        }
+
+        @Test
+        @DisplayName("Should return the last page without cursor")
+        void shouldReturnTheLastPageWithoutCursor() {
+            // Arrange
+            when(itemRepository.findUnassigned(null, null, null, 21)).thenReturn(Collections.emptyList());
+
+            // Act
+            var page = itemService.listUnassigned(null, null, null, null);
+
+            // Assert
+            assertTrue(page.items().isEmpty());
+            assertNull(page.nextCursor());
+        }
+    }
+
+    @Nested
+    @DisplayName("attachImage() tests")
+    class AttachImageTests {
+
+        @Test
+        @DisplayName("Should attach the uploaded image and queue its thumbnail")
+        void shouldAttachTheUploadedImageAndQueueItsThumbnail() {
+            // Arrange
+            var hash = "c".repeat(64);
+            var item = new ItemEntity(1L, "ITEM", 10, 10, Material.LONA, null, ItemStatus.IMPRESSO, null);
+            when(itemRepository.findByIdOptional(1L)).thenReturn(Optional.of(item));
+
+            // Act
+            itemService.attachImage(1L, hash);
+
+            // Assert
+            assertEquals(hash, item.getImage());
+            verify(productionBoardService).itemSaved(item);
+            verify(thumbnailPipeline).submit(hash);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when item does not exist")
+        void shouldThrowExceptionWhenItemDoesNotExist() {
+            when(itemRepository.findByIdOptional(99L)).thenReturn(Optional.empty());
+
+            assertThrows(ItemNotFoundException.class, () -> itemService.attachImage(99L, "c".repeat(64)));
+            verifyNoInteractions(thumbnailPipeline);
+        }
+    }
+
     @Nested
     @DisplayName("updateItem() tests")
     class updateItem {
@@ -273,7 +433,7 @@ class ItemServiceTest {
 
             // Act & Assert
             assertThrows(InvalidEditParameterException.class, () -> {
-                itemService.updateItem(itemId, updateReqDto);
+                itemService.updateItem(itemId, updateReqDto, null);
             });
 
             verify(itemRepository, never()).persist(any(ItemEntity.class));
@@ -308,7 +468,7 @@ class ItemServiceTest {
             when(orderRepository.findByIdOptional(orderId)).thenReturn(Optional.of(orderEntityMock));
 
             // Act
-            itemService.updateItem(itemId, updateRequestDto);
+            itemService.updateItem(itemId, updateRequestDto, null);
 
             // Assert
             assertEquals(newName, itemEntityMock.getName(), "O nome deveria ter sido atualizado.");
@@ -347,7 +507,7 @@ class ItemServiceTest {
                     100L
             );
 
-            itemService.updateItem(itemEntityMock.getId(), reqDto);
+            itemService.updateItem(itemEntityMock.getId(), reqDto, null);
 
             assertEquals(reqDto.name(), itemEntityMock.getName());
             assertEquals(reqDto.quantity(), itemEntityMock.getQuantity());
@@ -383,7 +543,7 @@ class ItemServiceTest {
                     null
             );
 
-            itemService.updateItem(itemEntityMock.getId(), reqDto);
+            itemService.updateItem(itemEntityMock.getId(), reqDto, null);
 
             assertEquals(reqDto.quantity(), itemEntityMock.getQuantity());
             assertEquals(reqDto.itemStatus(), itemEntityMock.getStatus());
@@ -414,10 +574,46 @@ class ItemServiceTest {
                     10L
             );
 
-            assertThrows(ForbiddenException.class, () -> itemService.updateItem(10L, reqDto));
+            assertThrows(ForbiddenException.class, () -> itemService.updateItem(10L, reqDto, null));
             verify(itemRepository, never()).persist(any(ItemEntity.class));
         }
 
+        @Test
+        @DisplayName("Should throw stale version exception when If-Match does not match the current version")
+        void shouldThrowStaleVersionWhenIfMatchDoesNotMatch() {
+            // Arrange
+            var item = new ItemEntity();
+            item.setId(1L);
+            item.setStatus(ItemStatus.IMPRESSO);
+            when(itemRepository.findByIdOptional(1L)).thenReturn(Optional.of(item));
+
+            var reqDto = new UpdateItemRequestDto(null, null, null, null, null, ItemStatus.ENCARTELADO, 100L);
+
+            // Act and Assert
+            assertThrows(StaleVersionException.class, () -> itemService.updateItem(1L, reqDto, 5L));
+            assertEquals(ItemStatus.IMPRESSO, item.getStatus());
+            verifyNoInteractions(orderRepository, productionBoardService);
+        }
+
+        @Test
+        @DisplayName("Should translate a concurrent write detected on flush into stale version exception")
+        void shouldTranslateOptimisticLockOnFlush() {
+            // Arrange
+            var item = new ItemEntity();
+            item.setId(1L);
+            item.setStatus(ItemStatus.IMPRESSO);
+            when(itemRepository.findByIdOptional(1L)).thenReturn(Optional.of(item));
+            when(orderRepository.findByIdOptional(100L)).thenReturn(Optional.of(new OrderEntity()));
+            when(identity.getRoles()).thenReturn(Set.of("OFFICER"));
+            doThrow(new OptimisticLockException()).when(itemRepository).flush();
+
+            var reqDto = new UpdateItemRequestDto(null, null, null, null, null, ItemStatus.ENCARTELADO, 100L);
+
+            // Act and Assert
+            assertThrows(StaleVersionException.class, () -> itemService.updateItem(1L, reqDto, 0L));
+            verifyNoInteractions(productionBoardService);
+        }
+
     }
 
     @Nested
@@ -433,7 +629,7 @@ class ItemServiceTest {
 
             // Act and Assert
             NullPointerException exception = assertThrows(NullPointerException.class, () -> {
-                itemService.findByStatus(status);
+                itemService.findByStatus(status, null, 10);
             });
 
             assertEquals("ItemStatus must not be null", exception.getMessage());
@@ -446,15 +642,16 @@ class ItemServiceTest {
 
             // Arrange
             ItemStatus status = ItemStatus.IMPRESSO;
-            when(itemRepository.findByStatus(status)).thenReturn(Collections.emptyList());
+            when(itemRepository.findByStatus(status, null, 11)).thenReturn(Collections.emptyList());
 
             // Act
-            var result = itemService.findByStatus(status);
+            var result = itemService.findByStatus(status, null, 10);
 
             // Assert
             assertNotNull(result);
-            assertEquals(0, result.size());
-            verify(itemRepository).findByStatus(status);
+            assertEquals(0, result.items().size());
+            assertNull(result.nextCursor());
+            verify(itemRepository).findByStatus(status, null, 11);
         }
 
         @Test
@@ -463,37 +660,55 @@ class ItemServiceTest {
 
             // Arrange
             ItemStatus status = ItemStatus.EM_SILK;
-            ItemEntity item1 = new ItemEntity(1L, "ITEM_1", 1000, 1000, Material.ADESIVO, "IMG_URL", ItemStatus.ACABAMENTO, orderEntityMock);
-            ItemEntity item2 = new ItemEntity(2L, "ITEM_2", 1000, 1000, Material.ELETROSTATICO, "IMG_URL", ItemStatus.ACABAMENTO, orderEntityMock);
+            var item1 = new ListItemProductionLineResponse(1L, "ITEM_1", 1000, 1000, Material.ADESIVO, "IMG_URL", status, 7L);
+            var item2 = new ListItemProductionLineResponse(2L, "ITEM_2", 1000, 1000, Material.ELETROSTATICO, "IMG_URL", status, null);
 
-            var items = Arrays.asList(item1, item2);
-            when(itemRepository.findByStatus(status)).thenReturn(items);
+            when(itemRepository.findByStatus(status, null, 11)).thenReturn(List.of(item1, item2));
 
             // Act
-            var result = itemService.findByStatus(status);
+            var page = itemService.findByStatus(status, null, 10);
 
             // Assert
-            assertEquals(2, result.size());
+            assertEquals(List.of(item1, item2), page.items());
+            assertNull(page.nextCursor());
+
+            verify(itemRepository).findByStatus(status, null, 11);
+        }
+
+        @Test
+        @DisplayName("Should return the next cursor when there are more items than the limit")
+        void shouldReturnNextCursorWhenThereAreMoreItemsThanTheLimit() {
 
-            var response1 = result.getFirst();
-            assertEquals(response1.name(), item1.getName());
-            assertEquals(response1.itemStatus(), item1.getStatus());
-            assertEquals(response1.quantity(), item1.getQuantity());
-            assertEquals(response1.itemStatus(), item1.getStatus());
-            assertEquals(response1.image(), item1.getImage());
-            assertEquals(response1.material(), item1.getMaterial());
-            assertEquals(response1.orderId(), item1.getOrder().getId());
-
-            var response2 = result.get(1);
-            assertEquals(response2.name(), item2.getName());
-            assertEquals(response2.itemStatus(), item2.getStatus());
-            assertEquals(response2.quantity(), item2.getQuantity());
-            assertEquals(response2.itemStatus(), item2.getStatus());
-            assertEquals(response2.image(), item2.getImage());
-            assertEquals(response2.material(), item2.getMaterial());
-            assertEquals(response2.orderId(), item2.getOrder().getId());
-
-            verify(itemRepository).findByStatus(status);
+            // Arrange
+            ItemStatus status = ItemStatus.EMBALADO;
+            var item1 = new ListItemProductionLineResponse(10L, "ITEM_1", 1000, 1000, Material.ADESIVO, "IMG_URL", status, null);
+            var item2 = new ListItemProductionLineResponse(20L, "ITEM_2", 1000, 1000, Material.LONA, "IMG_URL", status, null);
+            var item3 = new ListItemProductionLineResponse(30L, "ITEM_3", 1000, 1000, Material.LONA, "IMG_URL", status, null);
+
+            when(itemRepository.findByStatus(status, 5L, 3)).thenReturn(new ArrayList<>(List.of(item1, item2, item3)));
+
+            // Act
+            var page = itemService.findByStatus(status, 5L, 2);
+
+            // Assert
+            assertEquals(2, page.items().size());
+            assertEquals(20L, page.nextCursor());
+            assertNull(page.items().getFirst().orderId());
+        }
+
+        @Test
+        @DisplayName("Should cap the limit to the max page size")
+        void shouldCapTheLimitToTheMaxPageSize() {
+
+            // Arrange
+            ItemStatus status = ItemStatus.EMBALADO;
+            when(itemRepository.findByStatus(status, null, 101)).thenReturn(Collections.emptyList());
+
+            // Act
+            itemService.findByStatus(status, null, 10_000);
+
+            // Assert
+            verify(itemRepository).findByStatus(status, null, 101);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package dev.senna.service;
+
+import dev.senna.model.entity.ClientEntity;
+import dev.senna.model.entity.ItemEntity;
+import dev.senna.model.entity.OrderArchiveEntity;
+import dev.senna.model.entity.OrderEntity;
+import dev.senna.model.enums.ItemStatus;
+import dev.senna.model.enums.Material;
+import dev.senna.model.enums.OrderStatus;
+import dev.senna.repository.ItemRepository;
+import dev.senna.repository.OrderArchiveRepository;
+import dev.senna.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+
+    @InjectMocks
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private OrderArchiveRepository archiveRepository;
+
+    @Mock
+    private ProductionBoardService productionBoardService;
+
+    private static OrderEntity postedOrder(Long id, ClientEntity client) {
+        var order = new OrderEntity(OrderStatus.POSTADO);
+        order.setId(id);
+        order.setClient(client);
+        order.setSaleDate(LocalDate.of(2024, 1, 10));
+        order.setDeliveryDate(LocalDate.of(2024, 1, 20));
+        order.setPostedDate(LocalDate.of(2024, 1, 18));
+
+        var item = new ItemEntity(id * 10, "ITEM", 100, 100, Material.LONA, "IMG", ItemStatus.EMBALADO, order);
+        order.setItems(List.of(item));
+        return order;
+    }
+
+    @Nested
+    @DisplayName("archiveBatch() tests")
+    class ArchiveBatchTests {
+
+        @Test
+        @DisplayName("Should snapshot the orders with their items and remove them from the live tables")
+        void shouldSnapshotAndRemoveOrders() {
+            // Arrange
+            var cutoff = LocalDate.of(2024, 6, 1);
+            var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+            var order = postedOrder(1L, client);
+            when(orderRepository.findPostedIdsBefore(cutoff, 50)).thenReturn(List.of(1L));
+            when(orderRepository.findWithItemsByIds(List.of(1L))).thenReturn(List.of(order));
+            var archiveCaptor = ArgumentCaptor.forClass(OrderArchiveEntity.class);
+
+            // Act
+            int archived = orderArchiveService.archiveBatch(cutoff, 50);
+
+            // Assert
+            assertEquals(1, archived);
+            verify(archiveRepository).persist(archiveCaptor.capture());
+            var snapshot = archiveCaptor.getValue();
+            assertEquals(1L, snapshot.getId());
+            assertEquals(order.getPostedDate(), snapshot.getPostedDate());
+            assertEquals(10L, snapshot.getItems().getFirst().id());
+            assertEquals(ItemStatus.EMBALADO, snapshot.getItems().getFirst().status());
+
+            verify(itemRepository).deleteByOrderIds(List.of(1L));
+            verify(orderRepository).deleteByIds(List.of(1L));
+            verify(productionBoardService).itemsDeleted(List.of(10L));
+            verify(productionBoardService).ordersDeleted(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("Should do nothing when no order is old enough")
+        void shouldDoNothingWhenNoOrderIsOldEnough() {
+            // Arrange
+            var cutoff = LocalDate.of(2024, 6, 1);
+            when(orderRepository.findPostedIdsBefore(cutoff, 50)).thenReturn(List.of());
+
+            // Act
+            int archived = orderArchiveService.archiveBatch(cutoff, 50);
+
+            // Assert
+            assertEquals(0, archived);
+            verifyNoInteractions(archiveRepository, itemRepository, productionBoardService);
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild the order response from the archived snapshot")
+    void shouldRebuildOrderResponseFromSnapshot() {
+        // Arrange
+        var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+        var archive = OrderArchiveEntity.of(postedOrder(1L, client), Instant.now());
+        when(archiveRepository.findWithClient(1L)).thenReturn(Optional.of(archive));
+
+        // Act
+        var result = orderArchiveService.findArchived(1L).orElseThrow();
+
+        // Assert
+        assertEquals("CLIENT", result.body().clientName());
+        assertEquals(OrderStatus.POSTADO, result.body().status());
+        assertEquals(1, result.body().items().size());
+        assertEquals(Material.LONA, result.body().items().getFirst().material());
+    }
+}
@@ -2,10 +2,14 @@ package dev.senna.service;
 
 import dev.senna.controller.dto.request.CreateOrderReqDto;
 import dev.senna.controller.dto.request.UpdateOrderReqDto;
+import dev.senna.controller.dto.response.ListOrdersResponseDto;
+import dev.senna.controller.dto.response.OrderResponseDTO;
+import dev.senna.controller.dto.response.Versioned;
 import dev.senna.exception.ClientAlreadyExistsException;
 import dev.senna.exception.ClientNotFoundException;
 import dev.senna.exception.InvalidDateException;
 import dev.senna.exception.OrderNotFoundException;
+import dev.senna.exception.StaleVersionException;
 import dev.senna.model.entity.ClientEntity;
 import dev.senna.model.entity.ItemEntity;
 import dev.senna.model.entity.OrderEntity;
@@ -17,6 +21,8 @@ import dev.senna.repository.ItemRepository;
 import dev.senna.repository.OrderRepository;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Page;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +33,7 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,11 +53,20 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
-    @Captor
-    private ArgumentCaptor<OrderEntity> orderEntityCaptor;
+    @Mock
+    private ProductionBoardService productionBoardService;
+
+    @Mock
+    private ClientOrderSummaryService clientOrderSummaryService;
+
+    @Mock
+    private SecurityIdentity identity;
 
     @Mock
-    PanacheQuery<OrderEntity> mockPanache;
+    private OrderArchiveService orderArchiveService;
+
+    @Captor
+    private ArgumentCaptor<OrderEntity> orderEntityCaptor;
 
     @Nested
     @DisplayName("createOrder() tests")
@@ -90,6 +106,7 @@ class OrderServiceTest {
             assertEquals(client, orderCaptured.getClient());
             assertEquals(expectedOrderId, orderPersisted);
             assertEquals(OrderStatus.PRODUCAO, orderCaptured.getStatus());
+            verify(clientOrderSummaryService).orderCreated(orderCaptured);
         }
 
         @Test
@@ -149,7 +166,7 @@ class OrderServiceTest {
             when(orderRepository.find(anyString(), any(io.quarkus.panache.common.Sort.class), any(io.quarkus.panache.common.Parameters.class)))
                     .thenReturn(mockQuery);
 
-            when(mockQuery.page(any(Page.class))).thenReturn(mockQuery);
+            lenient().when(mockQuery.page(any(Page.class))).thenReturn(mockQuery);
         }
 
         @Test
@@ -179,7 +196,7 @@ class OrderServiceTest {
             when(mockQuery.list()).thenReturn(mockOrderList);
 
             // Act
-            var result = orderService.listOrders(null, null, page, pageSize);
+            var result = orderService.listOrders(null, null, null, null, false, page, pageSize);
 
             // Assert
             assertNotNull(result);
@@ -208,7 +225,7 @@ class OrderServiceTest {
             when(mockQuery.list()).thenReturn(Collections.emptyList());
 
             // Act
-            var result = orderService.listOrders(null, null, 0, 10);
+            var result = orderService.listOrders(null, null, null, null, false, 0, 10);
 
             // Assert
             assertNotNull(result);
@@ -234,19 +251,73 @@ class OrderServiceTest {
 
             // Act and Assert
             assertThrows(NullPointerException.class, () -> {
-                orderService.listOrders(null, null, page, pageSize);
+                orderService.listOrders(null, null, null, null, false, page, pageSize);
             });
         }
 
+        @Test
+        @DisplayName("Should bound the query by sale date when a sale window is given")
+        void shouldBoundQueryBySaleDateWhenWindowIsGiven() {
+
+            // Arrange
+            var saleFrom = LocalDate.of(2025, 1, 1);
+            var saleTo = LocalDate.of(2025, 3, 31);
+            var queryCaptor = ArgumentCaptor.forClass(String.class);
+            when(mockQuery.list()).thenReturn(Collections.emptyList());
+
+            // Act
+            orderService.listOrders(null, null, saleFrom, saleTo, false, 0, 10);
+
+            // Assert
+            verify(orderRepository).find(queryCaptor.capture(), any(io.quarkus.panache.common.Sort.class), any(io.quarkus.panache.common.Parameters.class));
+            assertTrue(queryCaptor.getValue().contains("o.saleDate >= :saleFrom"));
+            assertTrue(queryCaptor.getValue().contains("o.saleDate <= :saleTo"));
+        }
+
+        @Test
+        @DisplayName("Should interleave archived orders by sale date when history is requested")
+        void shouldInterleaveArchivedOrdersWhenHistoryIsRequested() {
+
+            // Arrange
+            var client = new ClientEntity(UUID.randomUUID(), "CLIENT");
+            var recent = new OrderEntity(OrderStatus.PRODUCAO);
+            recent.setClient(client);
+            recent.setSaleDate(LocalDate.of(2025, 6, 1));
+            var older = new OrderEntity(OrderStatus.POSTADO);
+            older.setClient(client);
+            older.setSaleDate(LocalDate.of(2024, 1, 1));
+            var archived = new ListOrdersResponseDto(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 10),
+                    "CLIENT", OrderStatus.POSTADO);
+
+            when(mockQuery.range(0, 1)).thenReturn(mockQuery);
+            when(mockQuery.list()).thenReturn(List.of(recent, older));
+            when(orderArchiveService.listArchived(null, null, null, 2)).thenReturn(List.of(archived));
+
+            // Act
+            var result = orderService.listOrders(null, null, null, null, true, 0, 2);
+
+            // Assert
+            assertEquals(List.of(recent.getSaleDate(), archived.saleDate()),
+                    result.stream().map(ListOrdersResponseDto::saleDate).toList());
+            verify(mockQuery, never()).page(any(Page.class));
+        }
+
+    }
+
+    @Test
+    @DisplayName("Should reject a sale window that ends before it starts")
+    void shouldRejectInvertedSaleWindow() {
+        var saleFrom = LocalDate.of(2025, 3, 1);
+
+        assertThrows(InvalidDateException.class,
+                () -> orderService.listOrders(null, null, saleFrom, saleFrom.minusDays(1), false, 0, 10));
+        verifyNoInteractions(orderRepository);
     }
 
     @Nested
     @DisplayName("listProduction() tests")
     class listOrdersInProduction {
 
-        @Mock
-        private PanacheQuery<OrderEntity> mockQuery;
-
         @Test
         @DisplayName("Should return a paginated list of orders in production")
         void shouldReturnAPaginatedListOfOrdersInProduction() {
@@ -293,16 +364,8 @@ class OrderServiceTest {
 
             List<OrderEntity> mockOrderList = List.of(order1, order2);
 
-            var mockPanacheQuery = mock(PanacheQuery.class);
-
-            when(orderRepository.find(eq("status"), any(OrderStatus.class)))
-                    .thenReturn(mockPanacheQuery);
-
-            when(mockPanacheQuery.page(any(Page.class)))
-                    .thenReturn(mockPanacheQuery);
-
-            when(mockPanacheQuery.list())
-                    .thenReturn(mockOrderList);
+            when(orderRepository.findInProductionIds(page, pageSize)).thenReturn(List.of(1L, 2L));
+            when(orderRepository.findWithItemsByIdsInOrder(List.of(1L, 2L))).thenReturn(mockOrderList);
 
             // Act
             var resultList = orderService.listProduction(page, pageSize);
@@ -322,7 +385,8 @@ class OrderServiceTest {
                     () -> assertEquals(order2.getItems().size(), dto2.items().size())
             );
 
-            verify(orderRepository, times(1)).find(eq("status"), any(OrderStatus.class));
+            verify(orderRepository, times(1)).findInProductionIds(page, pageSize);
+            verify(orderRepository, times(1)).findWithItemsByIdsInOrder(List.of(1L, 2L));
         }
 
         @Test
@@ -332,18 +396,14 @@ class OrderServiceTest {
             // Arrange
             var page = 0;
             var pageSize = 10;
-            var mockQuery = mock(PanacheQuery.class);
-
-            when(orderRepository.find(eq("status"), any(OrderStatus.class))).thenReturn(mockQuery);
-            when(mockQuery.page(any(Page.class))).thenReturn(mockQuery);
-            when(mockQuery.list()).thenReturn(Collections.emptyList());
+            when(orderRepository.findInProductionIds(page, pageSize)).thenReturn(Collections.emptyList());
 
             // Act
             var resultList = orderService.listProduction(page, pageSize);
 
             // Assert
             assertTrue(resultList.isEmpty());
-            verify(orderRepository, times(1)).find(eq("status"), any(OrderStatus.class));
+            verify(orderRepository, times(1)).findInProductionIds(page, pageSize);
         }
     }
 
@@ -425,8 +485,8 @@ class OrderServiceTest {
             var pageSize = 10;
             var orderEntities = List.of(orderEntity1, orderEntity2);
 
-            when(orderRepository.findLastSent(page, pageSize)).thenReturn(mockPanache);
-            when(mockPanache.list()).thenReturn(orderEntities);
+            when(orderRepository.findLastSentIds(page, pageSize)).thenReturn(List.of(1L, 2L));
+            when(orderRepository.findWithItemsByIdsInOrder(List.of(1L, 2L))).thenReturn(orderEntities);
 
             // Act
             var result = orderService.listLastSendOrders(page, pageSize);
@@ -442,8 +502,38 @@ class OrderServiceTest {
             var itemsRespDto = orderRespDto.items();
             assertEquals(2, itemsRespDto.size());
 
-            verify(orderRepository).findLastSent(page, pageSize);
-            verify(mockPanache).list();
+            verify(orderRepository).findLastSentIds(page, pageSize);
+            verify(orderRepository).findWithItemsByIdsInOrder(List.of(1L, 2L));
+        }
+    }
+
+    @Nested
+    @DisplayName("listRecentOrders() tests")
+    class listRecentOrders {
+
+        @Test
+        @DisplayName("Should load the four most recent orders with their items in one batch")
+        void shouldLoadRecentOrdersWithItems() {
+
+            // Arrange
+            var order = new OrderEntity(OrderStatus.PRODUCAO);
+            order.setId(7L);
+            order.setClient(new ClientEntity(UUID.randomUUID(), "CLIENT"));
+            var item = new ItemEntity();
+            item.setName("ITEM");
+            item.setOrder(order);
+            order.setItems(List.of(item));
+
+            when(orderRepository.findRecentIds(4)).thenReturn(List.of(7L));
+            when(orderRepository.findWithItemsByIdsInOrder(List.of(7L))).thenReturn(List.of(order));
+
+            // Act
+            var result = orderService.listRecentOrders();
+
+            // Assert
+            assertEquals(1, result.size());
+            assertEquals("CLIENT", result.get(0).clientName());
+            assertEquals(1, result.get(0).items().size());
         }
     }
 
@@ -483,7 +573,7 @@ class OrderServiceTest {
             when(orderRepository.findByIdOptional(orderId)).thenReturn(Optional.of(actualOrder));
 
             // Act
-            orderService.updateOrder(orderId, reqDto);
+            orderService.updateOrder(orderId, reqDto, null);
 
             // Assert
             verify(orderRepository).findByIdOptional(orderId);
@@ -495,10 +585,44 @@ class OrderServiceTest {
             assertEquals(reqDto.deliveryDate(), capturedOrder.getDeliveryDate());
             assertEquals(clientEntity, capturedOrder.getClient()); // Verifica se o cliente foi trocado
             assertEquals(orderId, capturedOrder.getId()); // O ID não deve mudar
+            verify(clientOrderSummaryService).orderChanged(clientId, OrderStatus.PRODUCAO, capturedOrder);
 
 
         }
 
+        @Test
+        @DisplayName("Should throw StaleVersionException when If-Match does not match the current version")
+        void shouldThrowStaleVersionWhenIfMatchDoesNotMatch() {
+
+            // Arrange
+            Long orderId = 1L;
+            when(orderRepository.findByIdOptional(orderId)).thenReturn(Optional.of(actualOrder));
+
+            // Act and Assert
+            assertThrows(StaleVersionException.class, () -> orderService.updateOrder(orderId, reqDto, 7L));
+
+            assertEquals(OrderStatus.PRODUCAO, actualOrder.getStatus());
+            verify(orderRepository, never()).persist(any(OrderEntity.class));
+            verifyNoInteractions(clientOrderSummaryService);
+        }
+
+        @Test
+        @DisplayName("Should translate a concurrent write detected on flush into StaleVersionException")
+        void shouldTranslateOptimisticLockOnFlush() {
+
+            // Arrange
+            Long orderId = 1L;
+            var statusOnly = new UpdateOrderReqDto(OrderStatus.FINALIZADO, null, null, null);
+            when(orderRepository.findByIdOptional(orderId)).thenReturn(Optional.of(actualOrder));
+            when(identity.getRoles()).thenReturn(Set.of("OFFICER"));
+            doThrow(new OptimisticLockException()).when(orderRepository).flush();
+
+            // Act and Assert
+            assertThrows(StaleVersionException.class, () -> orderService.updateOrder(orderId, statusOnly, 0L));
+
+            verifyNoInteractions(clientOrderSummaryService);
+        }
+
         @Test
         @DisplayName("Should update an order successfully when changing to a new valid client")
         void shouldUpdateAnOrderSuccessfullyWhenChangingToANewValidClient() {
@@ -513,7 +637,7 @@ class OrderServiceTest {
             when(clientRepository.findByIdOptional(newClient.getClientId())).thenReturn(Optional.of(newClient));
 
             // Act
-            orderService.updateOrder(orderId, reqDtoWithNewClient);
+            orderService.updateOrder(orderId, reqDtoWithNewClient, null);
 
             // Assert
             verify(clientRepository).findByIdOptional(newClient.getClientId());
@@ -522,6 +646,7 @@ class OrderServiceTest {
 
             assertNotNull(capturedOrder);
             assertEquals(newClient, capturedOrder.getClient());
+            verify(clientOrderSummaryService).orderChanged(clientId, OrderStatus.PRODUCAO, capturedOrder);
         }
 
         @Test
@@ -535,7 +660,7 @@ class OrderServiceTest {
 
             // Act
             var exception = assertThrows(OrderNotFoundException.class, () -> {
-                orderService.updateOrder(orderId, reqDto);
+                orderService.updateOrder(orderId, reqDto, null);
             });
 
             // Assert
@@ -558,7 +683,7 @@ class OrderServiceTest {
 
             // Act
             var exception = assertThrows(ClientNotFoundException.class, () -> {
-                orderService.updateOrder(orderId, reqDto);
+                orderService.updateOrder(orderId, reqDto, null);
             });
 
             // Assert
@@ -583,7 +708,7 @@ class OrderServiceTest {
             when(orderRepository.findByIdOptional(orderId)).thenReturn(Optional.of(actualOrder));
 
             var exception = assertThrows(InvalidDateException.class, () -> {
-                orderService.updateOrder(orderId, invalidReqDto);
+                orderService.updateOrder(orderId, invalidReqDto, null);
             });
 
             assertEquals("The specified date is not valid for this operation. " + invalidReqDto.saleDate(), exception.getDetail());
@@ -606,7 +731,7 @@ class OrderServiceTest {
             when(orderRepository.findByIdOptional(orderId)).thenReturn(Optional.of(actualOrder));
 
             var exception = assertThrows(InvalidDateException.class, () -> {
-                orderService.updateOrder(orderId, invalidReqDto);
+                orderService.updateOrder(orderId, invalidReqDto, null);
             });
 
             assertEquals("The specified date is not valid for this operation. " + invalidReqDto.deliveryDate(), exception.getDetail());
@@ -615,4 +740,36 @@ class OrderServiceTest {
 
 
     }
+
+    @Nested
+    @DisplayName("getOrderById() tests")
+    class getOrderById {
+
+        @Test
+        @DisplayName("Should read an archived order when history is requested")
+        void shouldReadArchivedOrderWhenHistoryIsRequested() {
+            // Arrange
+            var archived = new Versioned<>(new OrderResponseDTO(9L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 5),
+                    "CLIENT", OrderStatus.POSTADO, List.of()), 4L);
+            when(orderRepository.findByIdOptional(9L)).thenReturn(Optional.empty());
+            when(orderArchiveService.findArchived(9L)).thenReturn(Optional.of(archived));
+
+            // Act
+            var result = orderService.getOrderById(9L, true);
+
+            // Assert
+            assertEquals(archived, result);
+        }
+
+        @Test
+        @DisplayName("Should not look into the archive unless history is requested")
+        void shouldNotLookIntoArchiveByDefault() {
+            // Arrange
+            when(orderRepository.findByIdOptional(9L)).thenReturn(Optional.empty());
+
+            // Act and Assert
+            assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(9L, false));
+            verifyNoInteractions(orderArchiveService);
+        }
+    }
 }
\ No newline at end of file